@@ -0,0 +1,87 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.benchmarks;
+
+/**
+ * RadixNumber arithmetic on hex operands of growing length, with BigInteger
+ * on the same digits as the reference. The longer operands cross the
+ * Karatsuba threshold.
+ *
+ * @author Wintry
+ */
+import com.wintry.radixconverter.RadixNumber;
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArithmeticBenchmark {
+    // Hex digits per operand
+    @Param({"16", "256", "4096"})
+    int digits;
+
+    String a, b;
+    RadixNumber x, y;
+    BigInteger bigX, bigY;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        a = hex(random, digits);
+        b = hex(random, digits);
+        x = RadixNumber.parse(a, 16);
+        y = RadixNumber.parse(b, 16);
+        bigX = new BigInteger(a, 16);
+        bigY = new BigInteger(b, 16);
+    }
+
+    private static String hex(Random random, int digits) {
+        StringBuilder sb = new StringBuilder(digits);
+        sb.append("123456789ABCDEF".charAt(random.nextInt(15)));
+        for (int i = 1; i < digits; i++) sb.append("0123456789ABCDEF".charAt(random.nextInt(16)));
+        return sb.toString();
+    }
+
+    @Benchmark
+    public RadixNumber parse() {
+        return RadixNumber.parse(a, 16);
+    }
+
+    @Benchmark
+    public RadixNumber add() {
+        return x.add(y);
+    }
+
+    @Benchmark
+    public RadixNumber multiply() {
+        return x.multiply(y);
+    }
+
+    @Benchmark
+    public BigInteger bigIntegerMultiply() {
+        return bigX.multiply(bigY);
+    }
+
+    @Benchmark
+    public String divideToDecimal() {
+        return x.divideToString(y, 10, 10);
+    }
+}
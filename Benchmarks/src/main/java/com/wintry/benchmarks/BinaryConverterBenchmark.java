@@ -0,0 +1,69 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.benchmarks;
+
+/**
+ * BinaryConverter.toBinary over a fixed pool of random values, per integer
+ * magnitude and fraction length.
+ *
+ * @author Wintry
+ */
+import com.wintry.binaryconverter.BinaryConverter;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryConverterBenchmark {
+    private static final int POOL = 1024;
+
+    @Param({"3", "9", "15"})
+    int magnitude;
+
+    @Param({"0", "4", "10"})
+    int fractionLength;
+
+    double[] values;
+    char[] buffer;
+    int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        values = new double[POOL];
+        double scale = Math.pow(10, fractionLength);
+        for (int i = 0; i < POOL; i++) {
+            double whole = Math.floor(random.nextDouble() * Math.pow(10, magnitude));
+            double fraction = fractionLength == 0 ? 0 : Math.floor(random.nextDouble() * scale) / scale;
+            values[i] = whole + fraction;
+        }
+        buffer = new char[BinaryConverter.MAX_BINARY_LENGTH];
+    }
+
+    @Benchmark
+    public String toBinary() {
+        return BinaryConverter.toBinary(values[next++ & (POOL - 1)]);
+    }
+
+    @Benchmark
+    public int toBinaryIntoBuffer() {
+        return BinaryConverter.toBinary(values[next++ & (POOL - 1)], buffer, 0);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.benchmarks;
+
+/**
+ * A bitwise expression over a column of operand pairs, once row by row
+ * through the tree and once through the column evaluator, per word width.
+ *
+ * @author Wintry
+ */
+import com.wintry.radixconverter.BitwiseExpression;
+import com.wintry.radixconverter.RadixConverter;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BitwiseBenchmark {
+    private static final int ROWS = 65536;
+
+    @Param({"8", "32", "64"})
+    int width;
+
+    BitwiseExpression expression;
+    long[] x, y;
+
+    @Setup
+    public void setup() {
+        expression = RadixConverter.compileBitwise("rol(x ^ y, 3) & ~(y >>> 2) | (x << 1)", width);
+        Random random = new Random(42);
+        x = new long[ROWS];
+        y = new long[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            x[i] = random.nextLong();
+            y[i] = random.nextLong();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long rowByRow() {
+        long sum = 0;
+        for (int i = 0; i < ROWS; i++) sum += expression.evaluate(x[i], y[i]);
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long[] columns() {
+        return expression.evaluateColumns(x, y);
+    }
+}
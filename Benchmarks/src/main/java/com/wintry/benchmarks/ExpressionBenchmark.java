@@ -0,0 +1,68 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.benchmarks;
+
+/**
+ * Both expression parsers at three levels of expression complexity, plus
+ * the compile-once path of RadixConverter for comparison.
+ *
+ * @author Wintry
+ */
+import com.wintry.binaryconverter.BinaryConverter;
+import com.wintry.radixconverter.CompiledExpression;
+import com.wintry.radixconverter.RadixConverter;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpressionBenchmark {
+    // Written in the grammar both parsers accept
+    @Param({"simple", "medium", "complex"})
+    String complexity;
+
+    String expression;
+    CompiledExpression compiled;
+
+    @Setup
+    public void setup() {
+        expression = switch (complexity) {
+            case "simple" -> "42";
+            case "medium" -> "3.5 * (12 + 7) / 4";
+            case "complex" -> "sqrt(2) * (1.5e3 - 250) / (abs(-3) + 4^2) + sin(pi / 6) * ln(10)";
+            default -> throw new IllegalArgumentException(complexity);
+        };
+        compiled = RadixConverter.compile(expression);
+    }
+
+    @Benchmark
+    public double radixEvaluateExpression() {
+        return RadixConverter.evaluateExpression(expression);
+    }
+
+    @Benchmark
+    public double radixCompiledEvaluate() {
+        return compiled.evaluate();
+    }
+
+    @Benchmark
+    public double binaryEvaluate() {
+        return BinaryConverter.evaluate(expression);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.benchmarks;
+
+/**
+ * Throughput of the RadixConverter conversions over a fixed pool of random
+ * values, per target base, integer magnitude and fraction length.
+ *
+ * @author Wintry
+ */
+import com.wintry.radixconverter.RadixConverter;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RadixConverterBenchmark {
+    private static final int POOL = 1024; // power of two, indexed with a mask
+
+    @Param({"2", "8", "10", "16"})
+    int base;
+
+    // Largest whole part, as a power of ten
+    @Param({"3", "9", "15"})
+    int magnitude;
+
+    // Decimal digits after the point; 0 means whole numbers only
+    @Param({"0", "4", "10"})
+    int fractionLength;
+
+    double[] values;
+    String[] digits;
+    char[] buffer;
+    int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        values = new double[POOL];
+        digits = new String[POOL];
+        double scale = Math.pow(10, fractionLength);
+        for (int i = 0; i < POOL; i++) {
+            double whole = Math.floor(random.nextDouble() * Math.pow(10, magnitude));
+            double fraction = fractionLength == 0 ? 0 : Math.floor(random.nextDouble() * scale) / scale;
+            values[i] = whole + fraction;
+            digits[i] = RadixConverter.fromDecimal(values[i], base, 10);
+        }
+        buffer = new char[RadixConverter.maxFormattedLength(base, 10)];
+    }
+
+    private int index() {
+        return next++ & (POOL - 1);
+    }
+
+    @Benchmark
+    public String fromDecimal() {
+        return RadixConverter.fromDecimal(values[index()], base, 10);
+    }
+
+    @Benchmark
+    public int fromDecimalIntoBuffer() {
+        return RadixConverter.fromDecimal(values[index()], base, 10, buffer, 0);
+    }
+
+    @Benchmark
+    public double toDecimal() {
+        return RadixConverter.toDecimal(digits[index()], base);
+    }
+
+    @Benchmark
+    public String formatOutput() {
+        return RadixConverter.formatOutput(values[index()], base, 10);
+    }
+}
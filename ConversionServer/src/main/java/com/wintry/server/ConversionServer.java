@@ -0,0 +1,228 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.server;
+
+/**
+ * Keeps one JVM running instead of starting RadixConverter for every
+ * conversion. Listens on 127.0.0.1 and speaks the line protocol described in
+ * RequestHandler.
+ *
+ * Every connection and every request gets its own virtual thread. A client
+ * may pipeline: it can send many lines without waiting, the requests run
+ * concurrently, and the responses still come back in request order. At most
+ * MAX_PIPELINE requests per connection are in flight; past that the server
+ * stops reading until responses have been written.
+ *
+ * close() shuts down gracefully: no new connections are accepted, open
+ * connections stop reading, and every request already read is answered
+ * before its socket closes.
+ *
+ * @author Wintry
+ */
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public final class ConversionServer implements AutoCloseable {
+    public static final int DEFAULT_PORT = 7878;
+    static final int MAX_PIPELINE = 256;                       // requests in flight per connection
+    private static final long SHUTDOWN_GRACE_MILLIS = 5_000;   // then open sockets are closed hard
+
+    // Marks the end of a connection's requests for its writer
+    private static final Future<String> END = CompletableFuture.completedFuture(null);
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+    private final ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean running = new AtomicBoolean(true);
+    private final Thread acceptor;
+
+    private ConversionServer(int port) throws IOException {
+        serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        acceptor = Thread.ofVirtual().name("conversion-server-accept").start(this::acceptLoop);
+    }
+
+    // Port 0 picks a free port, see port().
+    public static ConversionServer start(int port) throws IOException {
+        return new ConversionServer(port);
+    }
+
+    public int port() { return serverSocket.getLocalPort(); }
+
+    // ========================= MAIN =========================
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        ConversionServer server = start(port);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        System.out.println(">> Listening on 127.0.0.1:" + server.port() + ". Press Ctrl+C to stop.");
+        server.acceptor.join();
+    }
+
+    // ========================= CONNECTIONS =========================
+    private void acceptLoop() {
+        while (running.get()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                openSockets.add(socket);
+                try {
+                    connections.submit(() -> serve(socket));
+                } catch (RejectedExecutionException e) {
+                    // Accepted just as close() began; the client sees the connection close
+                    openSockets.remove(socket);
+                    closeQuietly(socket);
+                }
+            } catch (IOException e) {
+                if (running.get()) System.err.println(">> Accept failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // Reads requests and hands each to its own virtual thread; a second virtual thread writes the answers in order.
+    private void serve(Socket socket) {
+        BlockingQueue<Future<String>> pending = new ArrayBlockingQueue<>(MAX_PIPELINE);
+        Thread writer = null;
+        try (socket) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            writer = Thread.ofVirtual().start(() -> writeResponses(socket, pending, out));
+            try {
+                StringBuilder buffer = new StringBuilder();
+                String line;
+                while ((line = readRequest(in, buffer)) != null && !line.trim().equalsIgnoreCase("QUIT")) {
+                    String request = line;
+                    Future<String> response;
+                    try {
+                        response = requests.submit(() -> RequestHandler.handle(request));
+                    } catch (RejectedExecutionException e) {
+                        // Still reading after the grace period; answer this request and stop
+                        pending.put(CompletableFuture.completedFuture("ERR Server is shutting down."));
+                        break;
+                    }
+                    pending.put(response);
+                }
+            } catch (SocketException e) {
+                // Closed by the writer or by a hard shutdown; answer what was already read
+            }
+            pending.put(END);
+            writer.join();
+        } catch (IOException e) {
+            System.err.println(">> Connection failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            // Hard shutdown
+            Thread.currentThread().interrupt();
+        } finally {
+            // Without END the writer waits in pending.take() forever; after any failure it is stopped here
+            if (writer != null && writer.isAlive()) writer.interrupt();
+            openSockets.remove(socket);
+        }
+    }
+
+    // One line without its terminator, or null at end of input. A last line without a newline counts when
+    // the client ended its output there, but not when close() shut the input down in the middle of it.
+    private String readRequest(BufferedReader in, StringBuilder line) throws IOException {
+        line.setLength(0);
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c == '\n') {
+                int end = line.length();
+                if (end > 0 && line.charAt(end - 1) == '\r') line.setLength(end - 1);
+                return line.toString();
+            }
+            line.append((char) c);
+        }
+        return line.isEmpty() || !running.get() ? null : line.toString();
+    }
+
+    // Flushes only when nothing else is queued, so a pipelined burst leaves in few packets.
+    private static void writeResponses(Socket socket, BlockingQueue<Future<String>> pending, BufferedWriter out) {
+        boolean failed = false;
+        try {
+            Future<String> response;
+            while ((response = pending.take()) != END) {
+                if (failed) continue; // keep draining so the reader never blocks on a full queue
+                String text;
+                try {
+                    text = response.get();
+                } catch (ExecutionException e) {
+                    text = "ERR " + e.getCause().getMessage();
+                }
+                try {
+                    out.write(text);
+                    out.write('\n');
+                    if (pending.isEmpty()) out.flush();
+                } catch (IOException e) {
+                    failed = true;
+                    closeQuietly(socket);
+                }
+            }
+            if (!failed) out.flush();
+        } catch (IOException e) {
+            closeQuietly(socket);
+        } catch (InterruptedException e) {
+            closeQuietly(socket);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ========================= SHUTDOWN =========================
+    @Override
+    public void close() {
+        if (!running.compareAndSet(true, false)) return;
+        closeQuietly(serverSocket);
+
+        // Readers see end of input and finish the requests they already have
+        for (Socket socket : openSockets) {
+            try {
+                socket.shutdownInput();
+            } catch (IOException e) {
+                closeQuietly(socket);
+            }
+        }
+
+        connections.shutdown();
+        try {
+            // The port is only released once the acceptor has left accept(), so nothing connects after close()
+            acceptor.join();
+            if (!connections.awaitTermination(SHUTDOWN_GRACE_MILLIS, TimeUnit.MILLISECONDS)) {
+                for (Socket socket : openSockets) closeQuietly(socket);
+                connections.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        requests.shutdownNow();
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            // already closed
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.server;
+
+/**
+ * Drives a ConversionServer on 127.0.0.1 and reports throughput and latency.
+ *
+ *   LoadGenerator [port|0] [connections] [requests] [batch] [pipeline]
+ *
+ * Each connection pipelines up to "pipeline" requests of "batch" values,
+ * cycling through TO, FROM, EVAL and BIN. Port 0 starts a server in this JVM
+ * on a free port and shuts it down afterwards.
+ *
+ * @author Wintry
+ */
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public final class LoadGenerator {
+    private final int port;
+    private final int requests;
+    private final int batch;
+    private final int pipeline;
+
+    private LoadGenerator(int port, int requests, int batch, int pipeline) {
+        this.port = port;
+        this.requests = requests;
+        this.batch = batch;
+        this.pipeline = pipeline;
+    }
+
+    // ========================= MAIN =========================
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        int batch = args.length > 3 ? Integer.parseInt(args[3]) : 16;
+        int pipeline = args.length > 4 ? Integer.parseInt(args[4]) : 32;
+
+        ConversionServer embedded = port == 0 ? ConversionServer.start(0) : null;
+        if (embedded != null) port = embedded.port();
+
+        LoadGenerator generator = new LoadGenerator(port, requests, batch, pipeline);
+        long[][] latencies = new long[connections][];
+        long errors = 0;
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int c = 0; c < connections; c++) {
+                int client = c;
+                results.add(clients.submit(() -> generator.run(client, latencies)));
+            }
+            for (Future<Long> result : results) errors += result.get();
+        } finally {
+            if (embedded != null) embedded.close();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        double seconds = elapsed / 1e9;
+        System.out.printf(">> %d connections, %d requests of %d values, pipeline %d%n", connections, all.length, batch, pipeline);
+        System.out.printf(">> %.2f s, %.0f requests/s, %.0f values/s, %d errors%n",
+                seconds, all.length / seconds, (double) all.length * batch / seconds, errors);
+        System.out.printf(">> latency us: p50 %d, p90 %d, p99 %d, max %d%n",
+                percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99), percentile(all, 1.0));
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1_000;
+    }
+
+    // ========================= CLIENT =========================
+    // The sender stays at most pipeline requests ahead of the responses; returns the number of ERR responses.
+    private long run(int client, long[][] latencies) throws Exception {
+        AtomicLongArray sentAt = new AtomicLongArray(requests);
+        long[] latency = new long[requests];
+        Semaphore window = new Semaphore(pipeline);
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+
+            Thread sender = Thread.ofVirtual().start(() -> {
+                Random random = new Random(client);
+                try {
+                    for (int i = 0; i < requests; i++) {
+                        if (!window.tryAcquire()) {
+                            out.flush();
+                            window.acquire();
+                        }
+                        sentAt.set(i, System.nanoTime());
+                        out.write(request(i, random));
+                        out.write('\n');
+                    }
+                    out.write("QUIT\n");
+                    out.flush();
+                } catch (IOException | InterruptedException e) {
+                    System.err.println(">> Client " + client + " send failed: " + e.getMessage());
+                }
+            });
+
+            long errors = 0;
+            for (int i = 0; i < requests; i++) {
+                String response = in.readLine();
+                if (response == null) throw new IOException("Connection closed after " + i + " responses");
+                latency[i] = System.nanoTime() - sentAt.get(i);
+                if (!response.startsWith("OK ")) errors++;
+                window.release();
+            }
+            sender.join();
+            latencies[client] = latency;
+            return errors;
+        }
+    }
+
+    private String request(int i, Random random) {
+        StringBuilder sb = new StringBuilder();
+        switch (i & 3) {
+            case 0 -> {
+                sb.append("TO ").append(random.nextBoolean() ? 16 : 2).append(' ');
+                for (int v = 0; v < batch; v++) sb.append(v > 0 ? "," : "").append(random.nextInt(1 << 20) / 16.0);
+            }
+            case 1 -> {
+                sb.append("FROM 16 ");
+                for (int v = 0; v < batch; v++) sb.append(v > 0 ? "," : "").append(Integer.toHexString(random.nextInt()).toUpperCase());
+            }
+            case 2 -> {
+                sb.append("EVAL ");
+                for (int v = 0; v < batch; v++) sb.append(v > 0 ? "," : "").append(random.nextInt(100)).append(" * (").append(random.nextInt(100)).append(" + 0.5)");
+            }
+            default -> {
+                sb.append("BIN ");
+                for (int v = 0; v < batch; v++) sb.append(v > 0 ? "," : "").append(random.nextInt(1000)).append(" 1/4");
+            }
+        }
+        return sb.toString();
+    }
+}
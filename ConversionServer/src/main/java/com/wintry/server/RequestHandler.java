@@ -0,0 +1,106 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.server;
+
+/**
+ * The line protocol. One request per line, one response line per request:
+ *
+ *   TO <base> [precision|shortest] <decimal>[,...]   RadixConverter.fromDecimal
+ *   FROM <base> <digits>[,<digits>...]                RadixConverter.toDecimal
+ *   EVAL <expression>[,<expression>...]               RadixConverter.evaluateExpression
+ *   BIN <expression>[,<expression>...]                BinaryConverter.evaluate + toBinary
+ *   PING
+ *
+ * Every command takes a comma separated batch and answers "OK " followed by
+ * the results separated by tabs, in the same order. A bad request or value
+ * answers "ERR " and a message instead; for batches the message starts with
+ * the position of the first value that failed.
+ *
+ * @author Wintry
+ */
+import com.wintry.binaryconverter.BinaryConverter;
+import com.wintry.radixconverter.RadixConverter;
+
+final class RequestHandler {
+    static final int DEFAULT_PRECISION = 10;
+
+    private RequestHandler() {}
+
+    static String handle(String line) {
+        line = line.trim();
+        int space = line.indexOf(' ');
+        String command = (space == -1 ? line : line.substring(0, space)).toUpperCase();
+        String rest = space == -1 ? "" : line.substring(space + 1).trim();
+
+        try {
+            return switch (command) {
+                case "TO" -> to(rest);
+                case "FROM" -> from(rest);
+                case "EVAL" -> batch(rest, value -> Double.toString(RadixConverter.evaluateExpression(value)));
+                case "BIN" -> batch(rest, BinaryConverter::convert);
+                case "PING" -> "OK PONG";
+                case "" -> "ERR Empty request.";
+                default -> "ERR Unknown command: " + command;
+            };
+        } catch (RuntimeException e) {
+            return "ERR " + e.getMessage();
+        }
+    }
+
+    // ========================= COMMANDS =========================
+    private static String to(String rest) {
+        String[] parts = rest.split("\\s+");
+        if (parts.length < 2 || parts.length > 3) throw new IllegalArgumentException("Usage: TO <base> [precision|shortest] <values>");
+        int base = base(parts[0]);
+        int precision = parts.length == 3 ? precision(parts[1]) : DEFAULT_PRECISION;
+        return batch(parts[parts.length - 1], value -> RadixConverter.fromDecimal(Double.parseDouble(value), base, precision));
+    }
+
+    private static int precision(String text) {
+        if (text.equalsIgnoreCase("shortest")) return RadixConverter.SHORTEST;
+        int precision = Integer.parseInt(text);
+        if (precision < 0) throw new IllegalArgumentException("Precision cannot be negative.");
+        return precision;
+    }
+
+    private static String from(String rest) {
+        String[] parts = rest.split("\\s+");
+        if (parts.length != 2) throw new IllegalArgumentException("Usage: FROM <base> <values>");
+        int base = base(parts[0]);
+        return batch(parts[1], value -> Double.toString(RadixConverter.toDecimal(value, base)));
+    }
+
+    private static int base(String text) {
+        int base = Integer.parseInt(text);
+        if (!RadixConverter.isSupportedBase(base)) throw new IllegalArgumentException("Invalid base " + base + ". Only bases 2 to 36 and 62 are supported.");
+        return base;
+    }
+
+    // ========================= BATCHES =========================
+    private interface Conversion {
+        String apply(String value);
+    }
+
+    private static String batch(String values, Conversion conversion) {
+        if (values.isEmpty()) throw new IllegalArgumentException("No values given.");
+        StringBuilder response = new StringBuilder("OK ");
+        int index = 0;
+        int start = 0;
+        while (start <= values.length()) {
+            int end = values.indexOf(',', start);
+            if (end == -1) end = values.length();
+            String value = values.substring(start, end).trim();
+            try {
+                if (index > 0) response.append('\t');
+                response.append(conversion.apply(value));
+            } catch (RuntimeException e) {
+                return "ERR Value " + (index + 1) + ": " + e.getMessage();
+            }
+            index++;
+            start = end + 1;
+        }
+        return response.toString();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.server;
+
+/**
+ * The server over a real loopback socket on a free port: pipelined and
+ * batched requests, QUIT, and what a client sees when close() runs.
+ *
+ * @author Wintry
+ */
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class ConversionServerTest {
+    private static final int TIMEOUT_MILLIS = 10_000;
+
+    private static Socket connect(ConversionServer server) throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.port());
+        socket.setSoTimeout(TIMEOUT_MILLIS);
+        return socket;
+    }
+
+    private static BufferedReader reader(Socket socket) throws IOException {
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    private static Writer writer(Socket socket) throws IOException {
+        return new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+    }
+
+    // More requests than MAX_PIPELINE, all sent before the first answer is read.
+    private static String[] pipeline(int count) {
+        String[] requests = new String[count];
+        for (int i = 0; i < count; i++) {
+            requests[i] = switch (i % 4) {
+                case 0 -> "TO 2 " + i;
+                case 1 -> "FROM 16 " + Integer.toHexString(i);
+                case 2 -> "EVAL " + i + " * 3 + 1";
+                default -> "BIN " + i + ".5";
+            };
+        }
+        return requests;
+    }
+
+    @Test
+    void pipelinedRequestsAreAnsweredInOrder() throws IOException {
+        String[] requests = pipeline(2 * ConversionServer.MAX_PIPELINE + 10);
+        try (ConversionServer server = ConversionServer.start(0); Socket socket = connect(server)) {
+            Writer out = writer(socket);
+            for (String request : requests) out.write(request + "\n");
+            out.flush();
+
+            BufferedReader in = reader(socket);
+            for (String request : requests) assertEquals(RequestHandler.handle(request), in.readLine(), request);
+        }
+    }
+
+    @Test
+    void batchedRequestsAnswerOneLineEach() throws IOException {
+        try (ConversionServer server = ConversionServer.start(0); Socket socket = connect(server)) {
+            Writer out = writer(socket);
+            out.write("TO 2 5,10,0.5\nFROM 16 FF,10\nEVAL 1+2,2^10\nTO 2 5,x\nPING\n");
+            out.flush();
+
+            BufferedReader in = reader(socket);
+            assertEquals("OK 101\t1010\t0.1", in.readLine());
+            assertEquals("OK 255.0\t16.0", in.readLine());
+            assertEquals("OK 3.0\t1024.0", in.readLine());
+            assertTrue(in.readLine().startsWith("ERR "));
+            assertEquals("OK PONG", in.readLine());
+        }
+    }
+
+    @Test
+    void quitEndsTheConnectionAfterEarlierAnswers() throws IOException {
+        try (ConversionServer server = ConversionServer.start(0); Socket socket = connect(server)) {
+            Writer out = writer(socket);
+            out.write("PING\nTO 16 255\nQUIT\nPING\n");
+            out.flush();
+
+            BufferedReader in = reader(socket);
+            assertEquals("OK PONG", in.readLine());
+            assertEquals("OK FF", in.readLine());
+            assertNull(in.readLine());
+        }
+    }
+
+    @Test
+    void closeAnswersWhatWasReadThenClosesTheConnection() throws IOException {
+        String[] requests = pipeline(100);
+        ConversionServer server = ConversionServer.start(0);
+        try (Socket socket = connect(server)) {
+            Writer out = writer(socket);
+            for (String request : requests) out.write(request + "\n");
+            out.flush();
+
+            // Once the first answer is back the connection is being served; close() then lets it finish
+            BufferedReader in = reader(socket);
+            assertEquals(RequestHandler.handle(requests[0]), in.readLine());
+            server.close();
+
+            // Whatever was read before close() is answered in order, then the stream ends cleanly
+            int answered = 1;
+            String line;
+            while ((line = in.readLine()) != null) {
+                assertEquals(RequestHandler.handle(requests[answered]), line, requests[answered]);
+                answered++;
+            }
+            assertTrue(answered <= requests.length);
+        } finally {
+            server.close();
+        }
+        assertThrows(IOException.class, () -> new Socket(InetAddress.getLoopbackAddress(), server.port()).close());
+    }
+}
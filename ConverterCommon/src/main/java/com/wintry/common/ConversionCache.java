@@ -0,0 +1,110 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.common;
+
+/**
+ * Bounded cache of conversion results keyed by (input, origin base,
+ * precision). Entries are spread over independently locked stripes, each an
+ * access-ordered LinkedHashMap that drops its least recently used entry when
+ * full, so threads hitting different stripes never wait on each other.
+ * A capacity of 0 turns the cache off.
+ *
+ * Callers look up first and put only results that are safe to reuse.
+ *
+ * @author Wintry
+ */
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class ConversionCache<V> {
+    private static final int MAX_STRIPES = 16;
+
+    private final Stripe<V>[] stripes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public ConversionCache(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("Capacity cannot be negative.");
+        int count = capacity == 0 ? 0 : Math.min(MAX_STRIPES, Integer.highestOneBit(capacity));
+        stripes = (Stripe<V>[]) new Stripe<?>[count];
+        for (int i = 0; i < count; i++) stripes[i] = new Stripe<>((capacity + count - 1) / count, evictions);
+    }
+
+    // ========================= LOOKUP =========================
+    // Returns the cached value or null, counting a hit or a miss.
+    public V get(String input, int base, int precision) {
+        if (stripes.length == 0) {
+            misses.increment();
+            return null;
+        }
+        Key key = new Key(input, base, precision);
+        V value = stripe(key).get(key);
+        if (value == null) misses.increment();
+        else hits.increment();
+        return value;
+    }
+
+    public void put(String input, int base, int precision, V value) {
+        if (stripes.length == 0) return;
+        Key key = new Key(input, base, precision);
+        stripe(key).put(key, value);
+    }
+
+    public void clear() {
+        for (Stripe<V> stripe : stripes) stripe.clear();
+    }
+
+    // ========================= COUNTERS =========================
+    public long hits() { return hits.sum(); }
+
+    public long misses() { return misses.sum(); }
+
+    public long evictions() { return evictions.sum(); }
+
+    public int size() {
+        int size = 0;
+        for (Stripe<V> stripe : stripes) size += stripe.size();
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "ConversionCache[size=" + size() + ", hits=" + hits() + ", misses=" + misses() + ", evictions=" + evictions() + "]";
+    }
+
+    private Stripe<V> stripe(Key key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+    }
+
+    private record Key(String input, int base, int precision) {}
+
+    // One lock per stripe; LinkedHashMap in access order already is an LRU list.
+    private static final class Stripe<V> {
+        private final Map<Key, V> map;
+
+        Stripe(int capacity, LongAdder evictions) {
+            map = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, V> eldest) {
+                    if (size() <= capacity) return false;
+                    evictions.increment();
+                    return true;
+                }
+            };
+        }
+
+        synchronized V get(Key key) { return map.get(key); }
+
+        synchronized void put(Key key, V value) { map.put(key, value); }
+
+        synchronized void clear() { map.clear(); }
+
+        synchronized int size() { return map.size(); }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.common;
+
+/**
+ * Flight Recorder events around the operations of both converters: parsing,
+ * expression evaluation, conversion, formatting and exact expansion. They
+ * show up under Wintry / Converters in JDK Mission Control, or with
+ * jfr print --events com.wintry.Parse etc. The converter field tells
+ * RadixConverter and BinaryConverter apart.
+ *
+ * Nothing here is loaded until Flight Recorder is running, see
+ * ConversionMetrics.active.
+ *
+ * @author Wintry
+ */
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Category({"Wintry", "Converters"})
+@StackTrace(false)
+abstract class ConversionEvent extends Event {
+    @Label("Converter")
+    @Description("radixconverter or binaryconverter")
+    String converter;
+
+    @Label("Base")
+    int base;
+
+    @Label("Length")
+    @Description("Characters read, or for conversions from a double the characters written")
+    int length;
+
+    @Label("Outcome")
+    @Description("ok, the parser status such as MALFORMED_NUMBER, or the simple name of the exception that was thrown")
+    String outcome;
+
+    @Name("com.wintry.Parse")
+    @Label("Parse")
+    @Description("RadixConverter.toDecimal: digits in a base read into a double")
+    static final class Parse extends ConversionEvent {}
+
+    @Name("com.wintry.Evaluate")
+    @Label("Evaluate")
+    @Description("RadixConverter.evaluateExpression, BinaryConverter.evaluate: an expression evaluated")
+    static final class Evaluate extends ConversionEvent {}
+
+    @Name("com.wintry.Convert")
+    @Label("Convert")
+    @Description("RadixConverter.fromDecimal, BinaryConverter.toBinary: a double written as digits in a base")
+    static final class Convert extends ConversionEvent {}
+
+    @Name("com.wintry.Format")
+    @Label("Format")
+    @Description("RadixConverter.formatOutput: digits in parentheses with the subscript base")
+    static final class Format extends ConversionEvent {}
+
+    @Name("com.wintry.Exact")
+    @Label("Exact")
+    @Description("BinaryConverter.toExact: an expression evaluated as a fraction and expanded with its repeating block")
+    static final class Exact extends ConversionEvent {}
+}
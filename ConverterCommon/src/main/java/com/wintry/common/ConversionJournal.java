@@ -0,0 +1,397 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.common;
+
+/**
+ * Append-only history of every conversion, kept on disk for auditing.
+ *
+ * The journal is a directory of numbered segments. A segment is a
+ * memory-mapped file of fixed-size records behind a small header, plus a
+ * blob file for whatever does not fit in a record: inputs longer than
+ * INLINE_INPUT bytes and exact values, which are arbitrary-precision bytes
+ * encoded by the caller. Records are only ever appended. When either file
+ * of a segment is full the segment is sealed and the next one started.
+ *
+ * Sealing writes the segment's index: the 64-bit hash of every record's
+ * input next to its record number, sorted in place inside a mapped file.
+ * Lookups by time skip segments by the time range in their header and
+ * binary search the rest, whose records are in time order. Lookups by input
+ * search the index, or scan the hashes of the one segment still open.
+ *
+ * Nothing is kept per record on the heap, neither when writing nor when
+ * reading: the writer holds the mappings of its open segment, and scan maps
+ * one segment at a time and hands every match to the visitor in one reused
+ * Entry.
+ *
+ * Segment header (HEADER_SIZE bytes):
+ *   0 magic   4 version   8 record size   16 record count   24 blob bytes used
+ *   32 first timestamp   40 last timestamp
+ *
+ * Record (RECORD_SIZE bytes):
+ *   0 timestamp, epoch milliseconds       8 hash of the input
+ *   16 double bits of the value           24 blob offset of the exact value
+ *   32 exact value length, 0 if none      36 input length in UTF-8 bytes
+ *   40 origin base   41 flags   42 precision
+ *   44 the input, or its blob offset when longer than INLINE_INPUT
+ *
+ * @author Wintry
+ */
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+public final class ConversionJournal implements AutoCloseable {
+    public static final long DEFAULT_SEGMENT_SIZE = 64L << 20;
+    static final int RECORD_SIZE = 96;
+    static final int INLINE_INPUT = RECORD_SIZE - 44;
+
+    private static final int MAGIC = 0x524A4E4C; // "RJNL"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int INDEX_ENTRY = 16;    // hash, record number
+    private static final byte INPUT_IN_BLOB = 1;
+
+    private static final String RECORDS = ".journal", BLOBS = ".blobs", INDEX = ".index";
+
+    private final Path directory;
+    private final long segmentSize;
+    private int segment;
+    private MappedByteBuffer records, blobs;
+    private int capacity, count;
+    private long blobUsed, lastTime;
+
+    private ConversionJournal(Path directory, long segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    // ========================= WRITING =========================
+    public static ConversionJournal open(Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    // Continues the last segment unless it was sealed; segmentSize applies to new segments.
+    public static ConversionJournal open(Path directory, long segmentSize) throws IOException {
+        if (segmentSize < HEADER_SIZE + RECORD_SIZE || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segment size must be between " + (HEADER_SIZE + RECORD_SIZE) + " and " + Integer.MAX_VALUE + " bytes.");
+        }
+        Files.createDirectories(directory);
+        ConversionJournal journal = new ConversionJournal(directory, segmentSize);
+        int last = segments(directory)[1];
+        if (last > 0 && !Files.exists(file(directory, last, INDEX))) journal.resume(last);
+        else journal.start(last + 1);
+        return journal;
+    }
+
+    // exact holds the value's arbitrary-precision bytes, or null when the double is all there is.
+    public synchronized void append(int base, int precision, CharSequence input, double value, byte[] exact) throws IOException {
+        byte[] text = input.toString().getBytes(StandardCharsets.UTF_8);
+        int exactLength = exact == null ? 0 : exact.length;
+        long blobNeeded = (long) exactLength + (text.length > INLINE_INPUT ? text.length : 0);
+        if (blobNeeded > segmentSize) throw new IOException("Entry of " + blobNeeded + " bytes does not fit in a segment.");
+        if (count == capacity || blobUsed + blobNeeded > blobs.capacity()) {
+            seal();
+            start(segment + 1);
+        }
+
+        long time = Math.max(System.currentTimeMillis(), lastTime);
+        int at = HEADER_SIZE + count * RECORD_SIZE;
+        records.putLong(at, time);
+        records.putLong(at + 8, hash(text));
+        records.putLong(at + 16, Double.doubleToRawLongBits(value));
+        records.putLong(at + 24, exact == null ? 0 : blobUsed);
+        records.putInt(at + 32, exactLength);
+        if (exact != null) {
+            blobs.put((int) blobUsed, exact);
+            blobUsed += exactLength;
+        }
+        records.putInt(at + 36, text.length);
+        records.put(at + 40, (byte) base);
+        records.putShort(at + 42, (short) precision);
+        if (text.length <= INLINE_INPUT) {
+            records.put(at + 41, (byte) 0);
+            records.put(at + 44, text);
+        } else {
+            records.put(at + 41, INPUT_IN_BLOB);
+            records.putLong(at + 44, blobUsed);
+            blobs.put((int) blobUsed, text);
+            blobUsed += text.length;
+        }
+
+        // The count goes last, so a crash mid-record leaves that record out instead of half in
+        count++;
+        records.putLong(24, blobUsed);
+        if (count == 1) records.putLong(32, time);
+        records.putLong(40, time);
+        records.putLong(16, count);
+        lastTime = time;
+    }
+
+    // Flushes both mappings to disk; the journal stays open for more appends.
+    public synchronized void force() {
+        records.force();
+        blobs.force();
+    }
+
+    @Override
+    public void close() {
+        force();
+    }
+
+    private void start(int number) throws IOException {
+        segment = number;
+        records = map(file(directory, number, RECORDS), segmentSize, true);
+        blobs = map(file(directory, number, BLOBS), segmentSize, true);
+        records.putInt(0, MAGIC);
+        records.putInt(4, VERSION);
+        records.putInt(8, RECORD_SIZE);
+        capacity = (int) ((segmentSize - HEADER_SIZE) / RECORD_SIZE);
+        count = 0;
+        blobUsed = 0;
+    }
+
+    private void resume(int number) throws IOException {
+        Path path = file(directory, number, RECORDS);
+        segment = number;
+        records = map(path, Files.size(path), true);
+        checkHeader(records, path);
+        Path blobPath = file(directory, number, BLOBS);
+        blobs = map(blobPath, Files.size(blobPath), true);
+        capacity = (records.capacity() - HEADER_SIZE) / RECORD_SIZE;
+        count = (int) records.getLong(16);
+        blobUsed = records.getLong(24);
+        lastTime = records.getLong(40);
+    }
+
+    // Writes the sorted (hash, record) index next to the segment; its presence marks the segment as sealed.
+    private void seal() throws IOException {
+        force();
+        Path index = file(directory, segment, INDEX);
+        Path temp = index.resolveSibling(index.getFileName() + ".tmp");
+        Files.deleteIfExists(temp);
+        MappedByteBuffer entries = map(temp, (long) count * INDEX_ENTRY, true);
+        for (int i = 0; i < count; i++) {
+            entries.putLong(i * INDEX_ENTRY, records.getLong(HEADER_SIZE + i * RECORD_SIZE + 8));
+            entries.putLong(i * INDEX_ENTRY + 8, i);
+        }
+        sort(entries, count);
+        entries.force();
+        Files.move(temp, index, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // ========================= READING =========================
+    public interface Visitor {
+        void accept(Entry entry) throws IOException;
+    }
+
+    // One record, valid until the visitor returns; the same instance is reused for every match.
+    public static final class Entry {
+        private Path directory;
+        private int segment;
+        private ByteBuffer records, blobs;
+        private int at;
+
+        public long timestamp() { return records.getLong(at); }
+
+        public double value() { return Double.longBitsToDouble(records.getLong(at + 16)); }
+
+        public int base() { return records.get(at + 40); }
+
+        public int precision() { return records.getShort(at + 42); }
+
+        public boolean hasExact() { return records.getInt(at + 32) != 0; }
+
+        // The arbitrary-precision bytes given to append, or null if there were none.
+        public byte[] exact() throws IOException {
+            int length = records.getInt(at + 32);
+            if (length == 0) return null;
+            byte[] bytes = new byte[length];
+            blobs().get((int) records.getLong(at + 24), bytes);
+            return bytes;
+        }
+
+        public String input() throws IOException {
+            byte[] bytes = new byte[records.getInt(at + 36)];
+            if ((records.get(at + 41) & INPUT_IN_BLOB) != 0) blobs().get((int) records.getLong(at + 44), bytes);
+            else records.get(at + 44, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private boolean inputEquals(byte[] text, long hash) throws IOException {
+            if (records.getLong(at + 8) != hash || records.getInt(at + 36) != text.length) return false;
+            ByteBuffer source = (records.get(at + 41) & INPUT_IN_BLOB) != 0 ? blobs() : records;
+            int offset = (records.get(at + 41) & INPUT_IN_BLOB) != 0 ? (int) records.getLong(at + 44) : at + 44;
+            for (int i = 0; i < text.length; i++) {
+                if (source.get(offset + i) != text[i]) return false;
+            }
+            return true;
+        }
+
+        // Only mapped once a record of this segment needs it
+        private ByteBuffer blobs() throws IOException {
+            if (blobs == null) {
+                Path path = file(directory, segment, BLOBS);
+                blobs = map(path, Files.size(path), false);
+            }
+            return blobs;
+        }
+
+        private Entry at(int record) {
+            at = HEADER_SIZE + record * RECORD_SIZE;
+            return this;
+        }
+    }
+
+    // Visits, oldest first, every entry with since <= timestamp <= until whose input is input,
+    // or any input when it is null. Returns the number of entries visited.
+    public static long scan(Path directory, long since, long until, String input, Visitor visitor) throws IOException {
+        byte[] text = input == null ? null : input.getBytes(StandardCharsets.UTF_8);
+        long hash = text == null ? 0 : hash(text);
+        int[] range = segments(directory);
+        Entry entry = new Entry();
+        entry.directory = directory;
+        long visited = 0;
+
+        for (int number = range[0]; number > 0 && number <= range[1]; number++) {
+            Path path = file(directory, number, RECORDS);
+            if (!Files.exists(path)) continue;
+            ByteBuffer records = map(path, Files.size(path), false);
+            checkHeader(records, path);
+            int count = (int) records.getLong(16);
+            if (count == 0 || records.getLong(40) < since || records.getLong(32) > until) continue;
+            entry.segment = number;
+            entry.records = records;
+            entry.blobs = null;
+
+            Path index = file(directory, number, INDEX);
+            if (text != null && Files.exists(index)) {
+                ByteBuffer entries = map(index, Files.size(index), false);
+                int n = entries.capacity() / INDEX_ENTRY;
+                // First entry with this hash, then every one after it with the same hash, in record order
+                int low = 0, high = n;
+                while (low < high) {
+                    int mid = (low + high) >>> 1;
+                    if (entries.getLong(mid * INDEX_ENTRY) < hash) low = mid + 1;
+                    else high = mid;
+                }
+                for (int i = low; i < n && entries.getLong(i * INDEX_ENTRY) == hash; i++) {
+                    entry.at((int) entries.getLong(i * INDEX_ENTRY + 8));
+                    long time = entry.timestamp();
+                    if (time >= since && time <= until && entry.inputEquals(text, hash)) {
+                        visitor.accept(entry);
+                        visited++;
+                    }
+                }
+            } else {
+                // Records are in time order, so the first one in range is found by binary search
+                int low = 0, high = count;
+                while (low < high) {
+                    int mid = (low + high) >>> 1;
+                    if (records.getLong(HEADER_SIZE + mid * RECORD_SIZE) < since) low = mid + 1;
+                    else high = mid;
+                }
+                for (int i = low; i < count; i++) {
+                    entry.at(i);
+                    if (entry.timestamp() > until) break;
+                    if (text == null || entry.inputEquals(text, hash)) {
+                        visitor.accept(entry);
+                        visited++;
+                    }
+                }
+            }
+        }
+        return visited;
+    }
+
+    // ========================= FILES =========================
+    private static Path file(Path directory, int segment, String suffix) {
+        return directory.resolve(String.format("%08d", segment) + suffix);
+    }
+
+    // Lowest and highest segment number in the directory, 0 and 0 when there is none.
+    private static int[] segments(Path directory) throws IOException {
+        int first = 0, last = 0;
+        if (!Files.isDirectory(directory)) return new int[]{0, 0};
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + RECORDS)) {
+            for (Path path : files) {
+                String name = path.getFileName().toString();
+                int number;
+                try {
+                    number = Integer.parseInt(name.substring(0, name.length() - RECORDS.length()));
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                if (first == 0 || number < first) first = number;
+                last = Math.max(last, number);
+            }
+        }
+        return new int[]{first, last};
+    }
+
+    // The mapping stays valid after the channel is closed.
+    private static MappedByteBuffer map(Path path, long size, boolean write) throws IOException {
+        try (FileChannel channel = write
+                ? FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(write ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    private static void checkHeader(ByteBuffer records, Path path) throws IOException {
+        if (records.capacity() < HEADER_SIZE || records.getInt(0) != MAGIC) throw new IOException("Not a journal segment: " + path);
+        if (records.getInt(4) != VERSION || records.getInt(8) != RECORD_SIZE) throw new IOException("Unsupported journal version in " + path);
+    }
+
+    // 64-bit FNV-1a
+    private static long hash(byte[] text) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : text) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // ========================= INDEX SORT =========================
+    // Heapsort by (hash, record) directly in the mapped index, so sealing needs no heap either.
+    private static void sort(ByteBuffer entries, int n) {
+        for (int i = n / 2 - 1; i >= 0; i--) siftDown(entries, i, n);
+        for (int end = n - 1; end > 0; end--) {
+            swap(entries, 0, end);
+            siftDown(entries, 0, end);
+        }
+    }
+
+    private static void siftDown(ByteBuffer entries, int i, int n) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) return;
+            if (child + 1 < n && less(entries, child, child + 1)) child++;
+            if (!less(entries, i, child)) return;
+            swap(entries, i, child);
+            i = child;
+        }
+    }
+
+    private static boolean less(ByteBuffer entries, int a, int b) {
+        int order = Long.compare(entries.getLong(a * INDEX_ENTRY), entries.getLong(b * INDEX_ENTRY));
+        return order != 0 ? order < 0 : entries.getLong(a * INDEX_ENTRY + 8) < entries.getLong(b * INDEX_ENTRY + 8);
+    }
+
+    private static void swap(ByteBuffer entries, int a, int b) {
+        for (int offset = 0; offset < INDEX_ENTRY; offset += 8) {
+            long t = entries.getLong(a * INDEX_ENTRY + offset);
+            entries.putLong(a * INDEX_ENTRY + offset, entries.getLong(b * INDEX_ENTRY + offset));
+            entries.putLong(b * INDEX_ENTRY + offset, t);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.common;
+
+/**
+ * Timing and counting behind the public methods of a converter. Each
+ * converter keeps one instance, named after its system property prefix:
+ *
+ *   static final ConversionMetrics METRICS = ConversionMetrics.of("radixconverter", "radixconverter.metrics");
+ *
+ * Two independent switches: a running Flight Recorder turns on the
+ * ConversionEvents, and -D<converter>.metrics=true registers the instance
+ * as an MXBean with a LatencyHistogram per operation and base. With both off
+ * the instrumented methods pay one cheap check and call straight through;
+ * nothing is timed, allocated or counted, and none of the counters exist.
+ *
+ * Failures are counted either from a RuntimeException or, for a parser
+ * that reports errors through its status, from the error supplier given to
+ * time and timeValue, which returns null on success.
+ *
+ * @author Wintry
+ */
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import jdk.jfr.FlightRecorder;
+
+public final class ConversionMetrics implements ConversionMetricsMXBean {
+    // One histogram slot per base; anything out of range lands in slot 0
+    private static final int BASE_SLOTS = 65;
+
+    public enum Operation {
+        PARSE, EVALUATE, CONVERT, FORMAT, EXACT;
+
+        final String label = name().toLowerCase(Locale.ROOT);
+    }
+
+    private final String converter;
+    private final boolean enabled;
+    // Only created when enabled
+    private final AtomicReferenceArray<LatencyHistogram> latencies;
+    private final ConcurrentHashMap<String, LongAdder> errors;
+    private final LongAdder operations;
+    private volatile long since = System.nanoTime();
+
+    private ConversionMetrics(String converter, boolean enabled) {
+        this.converter = converter;
+        this.enabled = enabled;
+        latencies = enabled ? new AtomicReferenceArray<>(Operation.values().length * BASE_SLOTS) : null;
+        errors = enabled ? new ConcurrentHashMap<>() : null;
+        operations = enabled ? new LongAdder() : null;
+    }
+
+    // The metrics of one converter: on with -D<property>=true, registered as
+    // com.wintry.<converter>:type=ConversionMetrics. The caller spells out the property
+    // key, since building it here would be a string concatenation on every launch.
+    public static ConversionMetrics of(String converter, String property) {
+        ConversionMetrics metrics = new ConversionMetrics(converter, Boolean.getBoolean(property));
+        if (metrics.enabled) metrics.register();
+        return metrics;
+    }
+
+    public String objectName() {
+        return "com.wintry." + converter + ":type=ConversionMetrics";
+    }
+
+    private void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(objectName()));
+        } catch (JMException e) {
+            System.err.println(">> Could not register " + objectName() + ": " + e.getMessage());
+        }
+    }
+
+    // ========================= INSTRUMENTATION =========================
+    // False unless metrics are on or Flight Recorder is running. Loading any jdk.jfr.Event subclass
+    // starts up Flight Recorder's metadata, which takes longer than a whole one-shot run, so the
+    // ConversionEvent classes are only touched once a recording has started it anyway.
+    public boolean active() {
+        return enabled || FlightRecorder.isInitialized();
+    }
+
+    public double time(Operation operation, int base, int length, DoubleSupplier work) {
+        return time(operation, base, length, work, null);
+    }
+
+    public double time(Operation operation, int base, int length, DoubleSupplier work, Supplier<String> error) {
+        ConversionEvent event = begin(operation);
+        long started = enabled ? System.nanoTime() : 0;
+        try {
+            double value = work.getAsDouble();
+            end(operation, event, started, base, length, error == null ? null : error.get());
+            return value;
+        } catch (RuntimeException e) {
+            end(operation, event, started, base, length, e.getClass().getSimpleName());
+            throw e;
+        }
+    }
+
+    public <T> T timeValue(Operation operation, int base, int length, Supplier<T> work) {
+        return timeValue(operation, base, length, work, null);
+    }
+
+    public <T> T timeValue(Operation operation, int base, int length, Supplier<T> work, Supplier<String> error) {
+        ConversionEvent event = begin(operation);
+        long started = enabled ? System.nanoTime() : 0;
+        try {
+            T value = work.get();
+            end(operation, event, started, base, length, error == null ? null : error.get());
+            return value;
+        } catch (RuntimeException e) {
+            end(operation, event, started, base, length, e.getClass().getSimpleName());
+            throw e;
+        }
+    }
+
+    // For the writers, whose length is the char count they return
+    public int timeWrite(Operation operation, int base, IntSupplier work) {
+        ConversionEvent event = begin(operation);
+        long started = enabled ? System.nanoTime() : 0;
+        try {
+            int written = work.getAsInt();
+            end(operation, event, started, base, written, null);
+            return written;
+        } catch (RuntimeException e) {
+            end(operation, event, started, base, 0, e.getClass().getSimpleName());
+            throw e;
+        }
+    }
+
+    private static ConversionEvent begin(Operation operation) {
+        if (!FlightRecorder.isInitialized()) return null;
+        ConversionEvent event = Events.create(operation);
+        event.begin();
+        return event;
+    }
+
+    // Apart from ConversionMetrics so that verifying it does not load the event classes. Not in
+    // ConversionEvent either: Flight Recorder rewrites that class as it loads and cannot have it
+    // pull in its own subclasses halfway.
+    private static final class Events {
+        static ConversionEvent create(Operation operation) {
+            return switch (operation) {
+                case PARSE -> new ConversionEvent.Parse();
+                case EVALUATE -> new ConversionEvent.Evaluate();
+                case CONVERT -> new ConversionEvent.Convert();
+                case FORMAT -> new ConversionEvent.Format();
+                case EXACT -> new ConversionEvent.Exact();
+            };
+        }
+    }
+
+    private void end(Operation operation, ConversionEvent event, long started, int base, int length, String error) {
+        if (enabled) record(operation, base, System.nanoTime() - started, error);
+        if (event != null && event.shouldCommit()) {
+            event.converter = converter;
+            event.base = base;
+            event.length = length;
+            event.outcome = error == null ? "ok" : error;
+            event.commit();
+        }
+    }
+
+    private void record(Operation operation, int base, long nanos, String error) {
+        operations.increment();
+        histogram(operation, base).record(nanos);
+        if (error != null) errors.computeIfAbsent(operation.label + "/" + error, key -> new LongAdder()).increment();
+    }
+
+    private LatencyHistogram histogram(Operation operation, int base) {
+        int slot = slot(operation, base);
+        LatencyHistogram histogram = latencies.get(slot);
+        if (histogram == null) {
+            latencies.compareAndSet(slot, null, new LatencyHistogram());
+            histogram = latencies.get(slot);
+        }
+        return histogram;
+    }
+
+    private static int slot(Operation operation, int base) {
+        return operation.ordinal() * BASE_SLOTS + (base > 0 && base < BASE_SLOTS ? base : 0);
+    }
+
+    // ========================= MXBEAN =========================
+    // Only registered when enabled, so the counters below always exist when JMX asks.
+    @Override
+    public long getOperations() {
+        return operations.sum();
+    }
+
+    @Override
+    public double getThroughput() {
+        double seconds = (System.nanoTime() - since) / 1e9;
+        return seconds > 0 ? operations.sum() / seconds : 0;
+    }
+
+    @Override
+    public Map<String, Long> getOperationCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        forEachHistogram((key, histogram) -> counts.put(key, histogram.count()));
+        return counts;
+    }
+
+    @Override
+    public Map<String, String> getLatencies() {
+        Map<String, String> summaries = new TreeMap<>();
+        forEachHistogram((key, histogram) -> summaries.put(key, histogram.summary()));
+        return summaries;
+    }
+
+    @Override
+    public Map<String, Long> getErrorCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        errors.forEach((key, count) -> counts.put(key, count.sum()));
+        return counts;
+    }
+
+    @Override
+    public long percentile(String operation, int base, double percentile) {
+        Operation op = Operation.valueOf(operation.toUpperCase(Locale.ROOT));
+        LatencyHistogram histogram = latencies.get(slot(op, base));
+        return histogram == null ? 0 : histogram.percentile(percentile);
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < latencies.length(); i++) latencies.set(i, null);
+        errors.clear();
+        operations.reset();
+        since = System.nanoTime();
+    }
+
+    private void forEachHistogram(BiConsumer<String, LatencyHistogram> action) {
+        for (Operation operation : Operation.values()) {
+            for (int base = 0; base < BASE_SLOTS; base++) {
+                LatencyHistogram histogram = latencies.get(slot(operation, base));
+                if (histogram != null) action.accept(operation.label + "/" + base, histogram);
+            }
+        }
+    }
+}
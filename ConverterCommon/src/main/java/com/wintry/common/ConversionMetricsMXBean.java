@@ -0,0 +1,37 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.common;
+
+/**
+ * What a converter exposes over JMX as com.wintry.<converter>:type=ConversionMetrics
+ * when started with -D<converter>.metrics=true, e.g.
+ * com.wintry.radixconverter:type=ConversionMetrics for -Dradixconverter.metrics=true.
+ * Keys name the operation and the base, e.g. "parse/16" or "convert/2".
+ *
+ * @author Wintry
+ */
+import java.util.Map;
+
+public interface ConversionMetricsMXBean {
+    // Operations of every kind since start or the last reset
+    long getOperations();
+
+    // Operations per second since start or the last reset
+    double getThroughput();
+
+    Map<String, Long> getOperationCounts();
+
+    // "count=... p50=...ns p90=...ns p99=...ns p99.9=...ns max=...ns" per operation and base
+    Map<String, String> getLatencies();
+
+    // Failures per operation and parser status or exception type, e.g. "parse/NumberFormatException"
+    // or "evaluate/MALFORMED_NUMBER"
+    Map<String, Long> getErrorCounts();
+
+    // Latency in nanoseconds at the given percentile, 0 when nothing was recorded
+    long percentile(String operation, int base, double percentile);
+
+    void reset();
+}
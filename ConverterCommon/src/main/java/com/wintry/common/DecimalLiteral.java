@@ -0,0 +1,182 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.common;
+
+/**
+ * Parses a decimal literal such as 12, 0.5, .5, 1.e3 or 6.02E23 straight
+ * from the source text, without building a String.
+ *
+ * Up to 19 significant digits are gathered in a long w, read as unsigned,
+ * so the value is w * 10^q. Small cases are exact in double arithmetic
+ * (Clinger's fast path). Everything else goes through the Eisel-Lemire
+ * algorithm: w times a 128-bit approximation of 5^q, which is enough to
+ * round correctly except in rare ambiguous cases. Those, and literals with
+ * more digits than w holds that the product cannot settle, fall back to
+ * Double.parseDouble.
+ *
+ * @author Wintry
+ */
+import java.math.BigInteger;
+
+public final class DecimalLiteral {
+    private static final int MIN_POWER = -342;  // below this every literal is 0
+    private static final int MAX_POWER = 308;   // above this every non-zero literal is infinite
+    private static final int MAX_DIGITS = 19;   // significant digits that always fit in a long
+
+    private static final double[] EXACT_POWERS = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    // POWERS_OF_FIVE[2 * (q - MIN_POWER)] and [... + 1]: high and low 64 bits of 5^q, normalised so the top bit is set.
+    // Built on first use: short literals never leave the exact path, and a one-shot run should not pay for the table.
+    private static final class FivePowers {
+        static final long[] POWERS_OF_FIVE = new long[2 * (MAX_POWER - MIN_POWER + 1)];
+        static {
+            BigInteger twoTo128 = BigInteger.ONE.shiftLeft(128);
+            for (int q = MIN_POWER; q <= MAX_POWER; q++) {
+                BigInteger power;
+                if (q >= 0) {
+                    power = BigInteger.valueOf(5).pow(q);
+                    int bits = power.bitLength();
+                    power = bits < 128 ? power.shiftLeft(128 - bits) : power.shiftRight(bits - 128);
+                } else {
+                    // Reciprocal, rounded up, with enough bits to be exact before truncating to 128
+                    BigInteger divisor = BigInteger.valueOf(5).pow(-q);
+                    int z = divisor.bitLength();
+                    power = BigInteger.ONE.shiftLeft(2 * z + 128).divide(divisor).add(BigInteger.ONE);
+                    while (power.compareTo(twoTo128) >= 0) power = power.shiftRight(1);
+                }
+                int index = 2 * (q - MIN_POWER);
+                POWERS_OF_FIVE[index] = power.shiftRight(64).longValue();
+                POWERS_OF_FIVE[index + 1] = power.longValue();
+            }
+        }
+    }
+
+    private DecimalLiteral() {}
+
+    // Returns the value of text[start, end), or NaN if it is not digits [. digits] [(e|E) [+|-] digits]
+    // with at least one digit before the exponent and at least one in it.
+    public static double parse(CharSequence text, int start, int end) {
+        int i = start;
+        long w = 0;
+        int digits = 0;          // significant digits in w
+        int dropped = 0;         // significant digits past MAX_DIGITS, before the point
+        boolean truncated = false;
+        int fractionDigits = 0;  // digits of w that came after the point
+        boolean anyDigit = false;
+
+        for (; i < end && isDigit(text.charAt(i)); i++) {
+            anyDigit = true;
+            int d = text.charAt(i) - '0';
+            if (digits < MAX_DIGITS) {
+                w = w * 10 + d;
+                if (w != 0) digits++;
+            } else {
+                dropped++;
+                truncated |= d != 0;
+            }
+        }
+        if (i < end && text.charAt(i) == '.') {
+            for (i++; i < end && isDigit(text.charAt(i)); i++) {
+                anyDigit = true;
+                int d = text.charAt(i) - '0';
+                if (digits < MAX_DIGITS) {
+                    w = w * 10 + d;
+                    fractionDigits++;
+                    if (w != 0) digits++;
+                } else {
+                    truncated |= d != 0;
+                }
+            }
+        }
+        if (!anyDigit) return Double.NaN;
+
+        long exponent = 0;
+        if (i < end && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i++;
+            boolean negative = false;
+            if (i < end && (text.charAt(i) == '+' || text.charAt(i) == '-')) negative = text.charAt(i++) == '-';
+            int exponentStart = i;
+            for (; i < end && isDigit(text.charAt(i)); i++) {
+                if (exponent < 1_000_000) exponent = exponent * 10 + (text.charAt(i) - '0');
+            }
+            if (i == exponentStart) return Double.NaN;
+            if (negative) exponent = -exponent;
+        }
+        if (i != end) return Double.NaN; // a second point, a sign in the wrong place, ...
+
+        if (w == 0) return 0.0;
+        long q = exponent + dropped - fractionDigits;
+
+        // Clinger: w and 10^|q| are both exact doubles, so one rounding gives the right answer
+        if (!truncated && w >= 0 && w < (1L << 53) && q >= -22 && q <= 22) {
+            return q >= 0 ? w * EXACT_POWERS[(int) q] : w / EXACT_POWERS[(int) -q];
+        }
+
+        if (q < MIN_POWER) return truncated ? slowPath(text, start, end) : 0.0;
+        if (q > MAX_POWER) return Double.POSITIVE_INFINITY;
+
+        double value = eiselLemire(w, (int) q);
+        // More digits than w holds: the value lies between w and w + 1, so both have to agree
+        if (truncated && (Double.isNaN(value) || value != eiselLemire(w + 1, (int) q))) return slowPath(text, start, end);
+        return Double.isNaN(value) ? slowPath(text, start, end) : value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static double slowPath(CharSequence text, int start, int end) {
+        return Double.parseDouble(text.subSequence(start, end).toString());
+    }
+
+    // w * 10^q correctly rounded, or NaN when the 128-bit product cannot decide.
+    private static double eiselLemire(long w, int q) {
+        int leadingZeros = Long.numberOfLeadingZeros(w);
+        w <<= leadingZeros;
+
+        long[] powers = FivePowers.POWERS_OF_FIVE;
+        int index = 2 * (q - MIN_POWER);
+        long high = Math.unsignedMultiplyHigh(w, powers[index]);
+        long low = w * powers[index];
+        // The bits below the 55 we keep are all ones, so the low half of 5^q might carry into them
+        if ((high & 0x1FF) == 0x1FF) {
+            long secondHigh = Math.unsignedMultiplyHigh(w, powers[index + 1]);
+            low += secondHigh;
+            if (Long.compareUnsigned(secondHigh, low) > 0) high++;
+            if (low == -1L && (high & 0x1FF) == 0x1FF) return Double.NaN;
+        }
+
+        int upperBit = (int) (high >>> 63);
+        int shift = upperBit + 9;
+        long mantissa = high >>> shift;
+        int power2 = ((152170 + 65536) * q >> 16) + 63 + upperBit - leadingZeros + 1023;
+
+        if (power2 <= 0) { // subnormal
+            if (-power2 + 1 >= 64) return 0.0;
+            mantissa >>>= -power2 + 1;
+            mantissa += mantissa & 1;
+            mantissa >>>= 1;
+            power2 = mantissa < (1L << 52) ? 0 : 1;
+            return Double.longBitsToDouble((long) power2 << 52 | (mantissa & ((1L << 52) - 1)));
+        }
+
+        // Exactly halfway between two doubles: round to even
+        if (Long.compareUnsigned(low, 1) <= 0 && q >= -4 && q <= 23 && (mantissa & 3) == 1 && (mantissa << shift) == high) {
+            mantissa &= ~1L;
+        }
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+        if (mantissa >= (2L << 52)) {
+            mantissa = 1L << 52;
+            power2++;
+        }
+        mantissa &= ~(1L << 52);
+        if (power2 >= 0x7FF) return Double.POSITIVE_INFINITY;
+        return Double.longBitsToDouble((long) power2 << 52 | mantissa);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.common;
+
+/**
+ * Replay mode: prints a converter's result table again from its conversion
+ * journal, without parsing or evaluating any input a second time.
+ *
+ *   <converter> --replay <dir> [--since <time>] [--until <time>] [--input <text>] [options]
+ *
+ * Times are ISO instants (2026-10-18T09:30:00Z) or epoch milliseconds, both
+ * ends inclusive. --input keeps only the conversions of exactly that input.
+ * The first column is the time of the conversion; what the others hold is
+ * up to the converter, which also takes any further options.
+ *
+ * The journal is read twice through its mappings, once for the column
+ * widths and once to print, so the heap does not grow with its size.
+ *
+ * @author Wintry
+ */
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+public abstract class JournalReplay {
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneOffset.UTC);
+    private static final int TIME_WIDTH = 23;
+
+    private final String usage;
+    private final String[] headers;
+
+    // usage is the command line after "Usage: ", headers name the columns after the time.
+    protected JournalReplay(String usage, String... columns) {
+        this.usage = usage;
+        this.headers = new String[columns.length + 1];
+        headers[0] = "Time (UTC)";
+        System.arraycopy(columns, 0, headers, 1, columns.length);
+    }
+
+    // Takes an option other than --since, --until and --input; false when it is unknown.
+    protected boolean option(String name) {
+        return false;
+    }
+
+    // Raises widths[1..] to the width of the entry's cells, or to a bound on it.
+    protected abstract void measure(ConversionJournal.Entry entry, int[] widths) throws IOException;
+
+    // Fills cells[1..] for the entry.
+    protected abstract void cells(ConversionJournal.Entry entry, String[] cells) throws IOException;
+
+    // ========================= ENTRY POINT =========================
+    public final int run(String[] args) {
+        Path directory = null;
+        long since = Long.MIN_VALUE, until = Long.MAX_VALUE;
+        String input = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--since" -> since = parseTime(args[++i]);
+                    case "--until" -> until = parseTime(args[++i]);
+                    case "--input" -> input = args[++i];
+                    default -> {
+                        if (option(args[i])) continue;
+                        if (directory != null) throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                        directory = Path.of(args[i]);
+                    }
+                }
+            }
+            if (directory == null) throw new IllegalArgumentException("No journal directory given.");
+            if (!Files.isDirectory(directory)) throw new IllegalArgumentException("Not a directory: " + directory);
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println(">> " + (e instanceof ArrayIndexOutOfBoundsException ? "Missing value for " + args[args.length - 1] : e.getMessage()));
+            System.err.println("Usage: " + usage);
+            return 2;
+        }
+
+        try {
+            Writer out = new BufferedWriter(new OutputStreamWriter(System.out, System.out.charset()), 1 << 16);
+            long rows = replay(directory, since, until, input, out);
+            out.flush();
+            System.err.println(">> " + rows + " conversions replayed.");
+            return 0;
+        } catch (IOException e) {
+            System.err.println(">> I/O error: " + e.getMessage());
+            return 3;
+        }
+    }
+
+    // Epoch milliseconds or an ISO instant.
+    private static long parseTime(String text) {
+        try {
+            if (text.indexOf('T') == -1) return Long.parseLong(text);
+            return Instant.parse(text).toEpochMilli();
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid time " + text + ". Use epoch milliseconds or an instant like 2026-10-18T09:30:00Z.");
+        }
+    }
+
+    // ========================= REPLAY =========================
+    public final long replay(Path directory, long since, long until, String input, Writer out) throws IOException {
+        // First pass: column widths, the same bounds the interactive table uses
+        int[] widths = new int[headers.length];
+        for (int c = 0; c < headers.length; c++) widths[c] = headers[c].length();
+        long rows = ConversionJournal.scan(directory, since, until, input, entry -> {
+            widths[0] = Math.max(widths[0], TIME_WIDTH);
+            measure(entry, widths);
+        });
+
+        int[] padded = new int[widths.length];
+        for (int c = 0; c < widths.length; c++) padded[c] = widths[c] + ResultTable.PADDING;
+        TableWriter table = new TableWriter(out, padded);
+        table.newLine();
+        table.row(headers);
+
+        // Second pass: the rows themselves
+        String[] cells = new String[headers.length];
+        ConversionJournal.scan(directory, since, until, input, entry -> {
+            cells[0] = TIME.format(Instant.ofEpochMilli(entry.timestamp()));
+            cells(entry, cells);
+            table.row(cells);
+        });
+        table.newLine();
+        table.flush();
+        return rows;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.common;
+
+/**
+ * Latency histogram in the style of HdrHistogram: every power of two of
+ * nanoseconds is cut into 32 equal steps, so any recorded value is known to
+ * within about 3%, from single nanoseconds up to hours, in a fixed array of
+ * counters.
+ *
+ * Recording is one atomic increment plus a max update and never locks, so
+ * any number of threads can record while a JMX client reads percentiles.
+ * Reads are not a consistent snapshot; a count added mid-read just shows up
+ * in the next one.
+ *
+ * @author Wintry
+ */
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+final class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    // Values below 2 * SUB_COUNT get a bucket each, every power of two above that gets SUB_COUNT
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(index(nanos));
+        max.accumulate(nanos);
+    }
+
+    long count() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) total += counts.get(i);
+        return total;
+    }
+
+    long max() {
+        return max.get();
+    }
+
+    // Smallest recorded latency that at least percentile% of the recordings do not exceed,
+    // rounded up to the end of its bucket; 0 when nothing was recorded.
+    long percentile(double percentile) {
+        long total = count();
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(highestInBucket(i), max());
+        }
+        return max();
+    }
+
+    String summary() {
+        return "count=" + count()
+                + " p50=" + percentile(50) + "ns"
+                + " p90=" + percentile(90) + "ns"
+                + " p99=" + percentile(99) + "ns"
+                + " p99.9=" + percentile(99.9) + "ns"
+                + " max=" + max() + "ns";
+    }
+
+    // ========================= BUCKETS =========================
+    // Linear up to 2 * SUB_COUNT, then the top SUB_BITS + 1 bits of the value pick the bucket.
+    static int index(long nanos) {
+        if (nanos < 2 * SUB_COUNT) return (int) nanos;
+        int shift = 63 - Long.numberOfLeadingZeros(nanos) - SUB_BITS;
+        return (shift << SUB_BITS) + (int) (nanos >>> shift);
+    }
+
+    static long highestInBucket(int index) {
+        if (index < 2 * SUB_COUNT) return index;
+        int shift = (index >>> SUB_BITS) - 1;
+        long lowest = (long) ((index & (SUB_COUNT - 1)) | SUB_COUNT) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
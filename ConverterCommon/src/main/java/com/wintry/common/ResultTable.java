@@ -0,0 +1,81 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.common;
+
+/**
+ * Results collected until STOP without keeping them on the heap. Rows are
+ * spooled to a temporary file as they come in; per column only the widest
+ * bound seen so far is kept, so print can stream the file back through a
+ * TableWriter with final widths.
+ *
+ * @author Wintry
+ */
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public final class ResultTable implements AutoCloseable {
+    public static final int PADDING = 2; // extra spaces per column for readability
+
+    private final String[] headers;
+    private final int[] widths;
+    private Path file;
+    private BufferedWriter rows;
+    private long count;
+
+    public ResultTable(String... headers) {
+        this.headers = headers;
+        this.widths = new int[headers.length];
+        for (int c = 0; c < headers.length; c++) widths[c] = headers[c].length();
+    }
+
+    // cellWidths holds an upper bound for the length of each cell.
+    public void add(String[] cells, int[] cellWidths) throws IOException {
+        if (rows == null) {
+            file = Files.createTempFile("results", ".tsv");
+            file.toFile().deleteOnExit();
+            rows = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        }
+        for (int c = 0; c < cells.length; c++) {
+            if (c > 0) rows.write('\t');
+            rows.write(cells[c].replace('\t', ' '));
+            widths[c] = Math.max(widths[c], cellWidths[c]);
+        }
+        rows.write('\n');
+        count++;
+    }
+
+    public boolean isEmpty() { return count == 0; }
+
+    // Blank line, header, every row, blank line.
+    public void print(Writer out) throws IOException {
+        int[] padded = new int[widths.length];
+        for (int c = 0; c < widths.length; c++) padded[c] = widths[c] + PADDING;
+        TableWriter table = new TableWriter(out, padded);
+
+        table.newLine();
+        table.row(headers);
+        if (rows != null) {
+            rows.flush();
+            try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = in.readLine()) != null) table.row(line.split("\t", -1));
+            }
+        }
+        table.newLine();
+        table.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (rows == null) return;
+        rows.close();
+        Files.deleteIfExists(file);
+    }
+}
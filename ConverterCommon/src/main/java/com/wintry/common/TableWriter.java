@@ -0,0 +1,83 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.common;
+
+/**
+ * Writes a left aligned table one row at a time. Cells are padded by hand
+ * into one reusable line buffer and handed to the Writer, which is flushed
+ * every BLOCK_ROWS rows instead of after every line.
+ *
+ * Column widths are fixed up front, normally from digitBound, so nothing has
+ * to be stored to line the columns up. A cell longer than its column is
+ * written whole and pushes the rest of its row to the right. An adaptive
+ * writer instead widens the column to that cell; rows already written keep
+ * the old width.
+ *
+ * @author Wintry
+ */
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+public final class TableWriter implements Flushable {
+    public static final int BLOCK_ROWS = 1024;
+
+    private final Writer out;
+    private final int[] widths;
+    private final boolean adaptive;
+    private char[] line = new char[256];
+    private int rowsSinceFlush;
+
+    public TableWriter(Writer out, int[] widths) {
+        this(out, widths, false);
+    }
+
+    public TableWriter(Writer out, int[] widths, boolean adaptive) {
+        this.out = out;
+        this.widths = widths.clone();
+        this.adaptive = adaptive;
+    }
+
+    // Most digits a whole number of the given bit length can have: ceil(bits / log2(base)).
+    public static int digitBound(int bits, int base) {
+        if ((base & (base - 1)) == 0) {
+            int shift = Integer.numberOfTrailingZeros(base);
+            return (bits + shift - 1) / shift;
+        }
+        return (int) Math.ceil(bits / (Math.log(base) / Math.log(2)) - 1e-9);
+    }
+
+    // ========================= ROWS =========================
+    // Cells are separated by one space and each is padded to its column width, like "%-Ns" joined with " ".
+    public void row(CharSequence... cells) throws IOException {
+        int length = 0;
+        for (int c = 0; c < cells.length; c++) {
+            CharSequence cell = cells[c];
+            int width = c < widths.length ? widths[c] : 0;
+            if (adaptive && cell.length() > width && c < widths.length) width = widths[c] = cell.length();
+
+            int needed = length + Math.max(width, cell.length()) + 1;
+            if (needed > line.length) line = Arrays.copyOf(line, Math.max(needed, line.length * 2));
+
+            if (c > 0) line[length++] = ' ';
+            for (int i = 0; i < cell.length(); i++) line[length++] = cell.charAt(i);
+            for (int i = cell.length(); i < width; i++) line[length++] = ' ';
+        }
+        out.write(line, 0, length);
+        out.write('\n');
+        if (++rowsSinceFlush >= BLOCK_ROWS) flush();
+    }
+
+    public void newLine() throws IOException {
+        out.write('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+        rowsSinceFlush = 0;
+    }
+}
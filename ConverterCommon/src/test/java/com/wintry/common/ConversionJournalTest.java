@@ -0,0 +1,126 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.common;
+
+/**
+ * ConversionJournal written and scanned back across segments, and the
+ * replay table built on top of it.
+ *
+ * @author Wintry
+ */
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ConversionJournalTest {
+    // Room for 4 records per segment
+    private static final long SMALL_SEGMENT = 64 + 4 * ConversionJournal.RECORD_SIZE;
+
+    @TempDir
+    Path dir;
+
+    private List<String> inputs(String input) throws IOException {
+        List<String> seen = new ArrayList<>();
+        ConversionJournal.scan(dir, Long.MIN_VALUE, Long.MAX_VALUE, input, entry -> seen.add(entry.input()));
+        return seen;
+    }
+
+    @Test
+    void entriesComeBackInOrderAcrossSegments() throws IOException {
+        try (ConversionJournal journal = ConversionJournal.open(dir, SMALL_SEGMENT)) {
+            for (int i = 0; i < 10; i++) journal.append(10, 4, "n" + i, i, null);
+        }
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 10; i++) expected.add("n" + i);
+        assertEquals(expected, inputs(null));
+        // Sealed segments are searched through their index, the open one by scanning
+        assertEquals(List.of("n2"), inputs("n2"));
+        assertEquals(List.of("n9"), inputs("n9"));
+        assertEquals(List.of(), inputs("n10"));
+    }
+
+    @Test
+    void entryKeepsEveryField() throws IOException {
+        String longInput = "1+".repeat(100) + "1";
+        byte[] exact = {1, 2, 3, 4, 5};
+        try (ConversionJournal journal = ConversionJournal.open(dir)) {
+            journal.append(16, -1, longInput, 101.5, exact);
+            journal.append(2, 10, "101", 5, null);
+        }
+        List<Object[]> rows = new ArrayList<>();
+        List<byte[]> exacts = new ArrayList<>();
+        ConversionJournal.scan(dir, Long.MIN_VALUE, Long.MAX_VALUE, null, entry -> {
+            rows.add(new Object[] {entry.base(), entry.precision(), entry.input(), entry.value(), entry.hasExact()});
+            exacts.add(entry.exact());
+        });
+        assertEquals(2, rows.size());
+        assertArrayEquals(new Object[] {16, -1, longInput, 101.5, true}, rows.get(0));
+        assertArrayEquals(exact, exacts.get(0));
+        assertArrayEquals(new Object[] {2, 10, "101", 5.0, false}, rows.get(1));
+        assertNull(exacts.get(1));
+    }
+
+    @Test
+    void reopeningContinuesTheJournal() throws IOException {
+        try (ConversionJournal journal = ConversionJournal.open(dir, SMALL_SEGMENT)) {
+            journal.append(10, 4, "a", 1, null);
+            journal.append(10, 4, "b", 2, null);
+        }
+        try (ConversionJournal journal = ConversionJournal.open(dir, SMALL_SEGMENT)) {
+            for (String input : new String[] {"c", "d", "e"}) journal.append(10, 4, input, 3, null);
+        }
+        assertEquals(List.of("a", "b", "c", "d", "e"), inputs(null));
+    }
+
+    @Test
+    void timeRangeIsInclusive() throws IOException {
+        try (ConversionJournal journal = ConversionJournal.open(dir)) {
+            journal.append(10, 4, "x", 1, null);
+        }
+        long[] time = new long[1];
+        ConversionJournal.scan(dir, Long.MIN_VALUE, Long.MAX_VALUE, null, entry -> time[0] = entry.timestamp());
+        assertEquals(1, ConversionJournal.scan(dir, time[0], time[0], null, entry -> {}));
+        assertEquals(0, ConversionJournal.scan(dir, time[0] + 1, Long.MAX_VALUE, null, entry -> {}));
+        assertEquals(0, ConversionJournal.scan(dir, Long.MIN_VALUE, time[0] - 1, null, entry -> {}));
+    }
+
+    @Test
+    void replayPrintsOneRowPerEntry() throws IOException {
+        try (ConversionJournal journal = ConversionJournal.open(dir)) {
+            journal.append(10, 4, "12", 12, null);
+            journal.append(10, 4, "3", 3, null);
+        }
+        JournalReplay replay = new JournalReplay("Test --replay <dir>", "Input", "Value") {
+            @Override
+            protected void measure(ConversionJournal.Entry entry, int[] widths) throws IOException {
+                widths[1] = Math.max(widths[1], entry.input().length());
+                widths[2] = Math.max(widths[2], String.valueOf(entry.value()).length());
+            }
+
+            @Override
+            protected void cells(ConversionJournal.Entry entry, String[] cells) throws IOException {
+                cells[1] = entry.input();
+                cells[2] = String.valueOf(entry.value());
+            }
+        };
+        StringWriter out = new StringWriter();
+        assertEquals(2, replay.replay(dir, Long.MIN_VALUE, Long.MAX_VALUE, null, out));
+        String[] lines = out.toString().split("\n");
+        assertEquals("", lines[0]);
+        assertTrue(lines[1].startsWith("Time (UTC)                Input   Value"), lines[1]);
+        assertTrue(lines[2].endsWith("   12      12.0   "), lines[2]);
+        assertTrue(lines[3].endsWith("   3       3.0    "), lines[3]);
+        assertEquals(4, lines.length);
+    }
+}
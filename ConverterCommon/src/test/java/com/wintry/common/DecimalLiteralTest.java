@@ -0,0 +1,130 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.common;
+
+/**
+ * DecimalLiteral against Double.parseDouble, bit for bit, on the inputs
+ * where a fast path is most likely to round wrong: subnormals, values
+ * exactly halfway between two doubles and a hair either side of them, and
+ * literals with more significant digits than fit in a long.
+ *
+ * @author Wintry
+ */
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class DecimalLiteralTest {
+    private static void assertParses(String literal) {
+        double expected = Double.parseDouble(literal);
+        double actual = DecimalLiteral.parse(literal, 0, literal.length());
+        assertEquals(Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(actual), literal);
+    }
+
+    // The exact decimal value halfway between a positive double and the next one up.
+    private static BigDecimal halfway(double value) {
+        return new BigDecimal(value).add(new BigDecimal(Math.nextUp(value))).divide(BigDecimal.TWO);
+    }
+
+    // Halfway, and one unit in the last of 40 extra digits below and above it.
+    private static void assertHalfwayCases(double value) {
+        BigDecimal middle = halfway(value);
+        BigDecimal nudge = BigDecimal.ONE.movePointLeft(middle.scale() + 40);
+        assertParses(middle.toString());
+        assertParses(middle.toPlainString());
+        assertParses(middle.subtract(nudge).toString());
+        assertParses(middle.add(nudge).toString());
+    }
+
+    @Test
+    void literalForms() {
+        for (String literal : new String[] {"0", "12", "0.5", ".5", "5.", "1.e3", "6.02E23", "1e+3", "1E-3", "000123.4500", "0.0e10"}) {
+            assertParses(literal);
+        }
+    }
+
+    @Test
+    void malformedLiteralsAreNaN() {
+        for (String literal : new String[] {"", ".", "e5", "1e", "1e+", "1.2.3", "1-2", "--1", "1x", " 1"}) {
+            assertTrue(Double.isNaN(DecimalLiteral.parse(literal, 0, literal.length())), literal);
+        }
+    }
+
+    @Test
+    void parsesTheGivenRangeOnly() {
+        assertEquals(2.5, DecimalLiteral.parse("x+2.5*", 2, 5));
+    }
+
+    @Test
+    void shortestRepresentationsRoundTrip() {
+        Random random = new Random(16);
+        for (int i = 0; i < 200_000; i++) {
+            double value = Math.abs(Double.longBitsToDouble(random.nextLong()));
+            if (!Double.isFinite(value)) continue;
+            String literal = Double.toString(value);
+            assertParses(literal);
+            assertEquals(value, DecimalLiteral.parse(literal, 0, literal.length()), literal);
+        }
+    }
+
+    @Test
+    void subnormals() {
+        for (String literal : new String[] {"4.9e-324", "5e-324", "2.5e-324", "2.4e-324", "1e-324", "2.2250738585072009e-308",
+                "2.2250738585072014e-308", "2.2250738585072011e-308", "1e-320", "123456789e-330"}) {
+            assertParses(literal);
+        }
+        Random random = new Random(17);
+        for (int i = 0; i < 2_000; i++) {
+            double value = Double.longBitsToDouble(random.nextLong() & ((1L << 52) - 1));
+            assertParses(Double.toString(value));
+            assertParses(new BigDecimal(value).toString());
+        }
+        assertHalfwayCases(0.0);
+        assertHalfwayCases(Double.MIN_VALUE);
+        assertHalfwayCases(Math.nextDown(Double.MIN_NORMAL));
+        assertHalfwayCases(Double.MIN_NORMAL);
+    }
+
+    @Test
+    void halfwayCasesRoundToEven() {
+        // 2^53 + 1 and 2^53 + 3 are halfway between neighbouring doubles
+        for (String literal : new String[] {"9007199254740993", "9007199254740995", "9007199254740993.0000000000000001",
+                "1.00000000000000011102230246251565404236316680908203125", "1.00000000000000011102230246251565404236316680908203124",
+                "1.00000000000000011102230246251565404236316680908203126", "1.7976931348623158e308", "1.7976931348623159e308"}) {
+            assertParses(literal);
+        }
+        Random random = new Random(18);
+        for (int i = 0; i < 5_000; i++) {
+            double value = Math.abs(Double.longBitsToDouble(random.nextLong()));
+            if (!Double.isFinite(value) || value == Double.MAX_VALUE) continue;
+            assertHalfwayCases(value);
+        }
+        for (double value = 1; value < 1e30; value *= 7) assertHalfwayCases(value);
+    }
+
+    @Test
+    void nineteenOrMoreDigits() {
+        for (String literal : new String[] {"1234567890123456789", "12345678901234567890", "18446744073709551615",
+                "18446744073709551616", "99999999999999999999", "123456789012345678901234567890",
+                "0.1000000000000000055511151231257827021181583404541015625", "3.14159265358979323846264338327950288",
+                "1" + "0".repeat(400), "0." + "0".repeat(400) + "1", "9".repeat(320), "1e-400", "1e400"}) {
+            assertParses(literal);
+        }
+        Random random = new Random(19);
+        for (int i = 0; i < 20_000; i++) {
+            int length = 19 + random.nextInt(40);
+            StringBuilder digits = new StringBuilder(length + 8);
+            digits.append((char) ('1' + random.nextInt(9)));
+            for (int d = 1; d < length; d++) digits.append((char) ('0' + random.nextInt(10)));
+            digits.insert(random.nextInt(length + 1), '.');
+            if (digits.charAt(digits.length() - 1) == '.') digits.setLength(digits.length() - 1);
+            digits.append('e').append(random.nextInt(700) - 360);
+            assertParses(digits.toString());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.common;
+
+/**
+ * Column layout of TableWriter and the digit bounds its widths come from.
+ *
+ * @author Wintry
+ */
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigInteger;
+import org.junit.jupiter.api.Test;
+
+class TableWriterTest {
+    @Test
+    void cellsArePaddedToTheirColumn() throws IOException {
+        StringWriter out = new StringWriter();
+        TableWriter table = new TableWriter(out, new int[] {4, 3});
+        table.row("a", "bc");
+        table.row("defg", "h", "extra");
+        table.flush();
+        assertEquals("a    bc \ndefg h   extra\n", out.toString());
+    }
+
+    @Test
+    void longerCellPushesTheRowRight() throws IOException {
+        StringWriter out = new StringWriter();
+        TableWriter table = new TableWriter(out, new int[] {2, 2});
+        table.row("abcd", "e");
+        table.row("f", "g");
+        table.flush();
+        assertEquals("abcd e \nf  g \n", out.toString());
+    }
+
+    @Test
+    void adaptiveWriterWidensTheColumnForLaterRows() throws IOException {
+        StringWriter out = new StringWriter();
+        TableWriter table = new TableWriter(out, new int[] {2, 2}, true);
+        table.row("a", "b");
+        table.row("abcd", "e");
+        table.row("f", "g", "extra");
+        table.flush();
+        assertEquals("a  b \nabcd e \nf    g  extra\n", out.toString());
+    }
+
+    @Test
+    void digitBoundHoldsTheLargestValueOfThatLength() {
+        for (int base = 2; base <= 36; base++) {
+            for (int bits = 1; bits <= 1100; bits++) {
+                int digits = BigInteger.ONE.shiftLeft(bits).subtract(BigInteger.ONE).toString(base).length();
+                assertEquals(digits, TableWriter.digitBound(bits, base), "base " + base + ", " + bits + " bits");
+            }
+        }
+    }
+}
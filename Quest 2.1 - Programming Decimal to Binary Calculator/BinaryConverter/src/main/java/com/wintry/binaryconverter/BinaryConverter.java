@@ -8,335 +8,269 @@ package com.wintry.binaryconverter;
  *
  * @author Wintry
  */
+import com.wintry.common.ConversionCache;
+import com.wintry.common.ConversionJournal;
+import com.wintry.common.ConversionMetrics;
+import com.wintry.common.ResultTable;
+import com.wintry.common.TableWriter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Scanner;
-import java.util.ArrayList;
 
 public class BinaryConverter {
     private static final int DECIMAL_PLACES_LIMIT = 10;
-    
+    // Places that ask for every fraction bit down to the last set one. In base 2 that is the
+    // shortest output that reads back as the same double: no shorter bit string is within half an ulp.
+    public static final int SHORTEST = -1;
+    // Places in the interactive table; -Dbinaryconverter.places=-1 switches it to shortest output
+    private static final int DISPLAY_PLACES = Integer.getInteger("binaryconverter.places", DECIMAL_PLACES_LIMIT);
+    // -Dbinaryconverter.exact=true shows fractions exactly in the interactive table, see toExact
+    private static final boolean DISPLAY_EXACT = Boolean.getBoolean("binaryconverter.exact");
+    // Directory of the append-only history, see ConversionJournal; unset keeps no history
+    private static final String JOURNAL = System.getProperty("binaryconverter.journal");
+    private static final long JOURNAL_SEGMENT = Long.getLong("binaryconverter.journalSegment", ConversionJournal.DEFAULT_SEGMENT_SIZE);
+    // Timing and counting of the public methods; -Dbinaryconverter.metrics=true exposes them over JMX
+    private static final ConversionMetrics METRICS = ConversionMetrics.of("binaryconverter", "binaryconverter.metrics");
+
+    // Longest output of toBinary: sign, 1024 whole digits, point and the fraction digits.
+    public static final int MAX_BINARY_LENGTH = 1 + 1024 + 1 + DECIMAL_PLACES_LIMIT;
+
+    // MAX_BINARY_LENGTH for any number of places; SHORTEST can reach the 1074th fraction bit.
+    public static int maxBinaryLength(int places) {
+        checkPlaces(places);
+        return 1 + 1024 + 1 + (places == SHORTEST ? 1074 : places);
+    }
+
     public static String toBinary(double decimal) {
-        if (decimal == 0) return "0";
+        return toBinary(decimal, DECIMAL_PLACES_LIMIT);
+    }
+
+    public static String toBinary(double decimal, int places) {
+        char[] binary = scratch(maxBinaryLength(places));
+        return new String(binary, 0, toBinary(decimal, places, binary, 0));
+    }
 
-        boolean isNegative = decimal < 0;
-        decimal = Math.abs(decimal);
-        
-        // Separates Whole Numbers from its Decimals.
-        long whole = (long) decimal;
-        double frac = decimal - whole;
+    // Writes the binary digits into dest at offset and returns how many chars were written.
+    // dest needs MAX_BINARY_LENGTH free chars; nothing is allocated.
+    public static int toBinary(double decimal, char[] dest, int offset) {
+        return toBinary(decimal, DECIMAL_PLACES_LIMIT, dest, offset);
+    }
 
-        StringBuilder binary = new StringBuilder();
+    // Same with places fraction bits, or SHORTEST; dest needs maxBinaryLength(places) free chars.
+    public static int toBinary(double decimal, int places, char[] dest, int offset) {
+        if (!METRICS.active()) return writeBinary(decimal, places, dest, offset);
+        return METRICS.timeWrite(ConversionMetrics.Operation.CONVERT, 2, () -> writeBinary(decimal, places, dest, offset));
+    }
 
-        if (whole == 0) {
-            binary.append("0");
+    private static int writeBinary(double decimal, int places, char[] dest, int offset) {
+        checkPlaces(places);
+        int pos = offset;
+        if (decimal == 0 || Double.isNaN(decimal)) {
+            dest[pos] = '0';
+            return 1;
+        }
+        if (decimal < 0) {
+            dest[pos++] = '-';
+            decimal = -decimal;
+        }
+        if (decimal == Double.POSITIVE_INFINITY) throw new IllegalArgumentException("Cannot convert infinity to binary.");
+
+        // A double is m * 2^e, so its binary digits are the bits of m read straight from the raw bits.
+        long bits = Double.doubleToRawLongBits(decimal);
+        int biasedExponent = (int) (bits >>> 52);
+        long m = bits & 0xFFFFFFFFFFFFFL;
+        int e;
+        if (biasedExponent == 0) {
+            e = -1074; // subnormal
         } else {
-            while (whole > 0) {
-                binary.append(whole % 2);
-                whole /= 2;
-            }
-            binary.reverse();
+            m |= 1L << 52;
+            e = biasedExponent - 1075;
+        }
+        // Dropping trailing zeros makes e the position of the last set bit, i.e. where the fraction ends.
+        int trailingZeros = Long.numberOfTrailingZeros(m);
+        m >>>= trailingZeros;
+        e += trailingZeros;
+
+        int highestBit = e + 63 - Long.numberOfLeadingZeros(m);
+        if (highestBit < 0) {
+            dest[pos++] = '0';
+        } else {
+            for (int k = highestBit; k >= 0; k--) dest[pos++] = bit(m, e, k);
         }
 
-        if (frac > 0) {
-            binary.append(".");
-            for (int i = 0; i < DECIMAL_PLACES_LIMIT; i++) {
-                frac *= 2;
-                if (frac >= 1) {
-                    binary.append("1");
-                    frac -= 1;
-                } else {
-                    binary.append("0");
-                }
-            }
+        if (e < 0) {
+            dest[pos++] = '.';
+            int last = places == SHORTEST ? e : -places;
+            for (int k = -1; k >= last; k--) dest[pos++] = bit(m, e, k);
         }
-        return isNegative ? "-" + binary.toString() : binary.toString();
+        return pos - offset;
     }
 
-    // Fraction and Radical Support,
-    public static double evaluate(String input) {
-        input = input.trim();
-        
-        try {
-            return evalExpression(input); // new expression evaluator
-        } catch (Exception ignored) {
-            // if it fails, fall back to your old handling
-        }
+    private static void checkPlaces(int places) {
+        if (places < 0 && places != SHORTEST) throw new IllegalArgumentException("Places cannot be negative.");
+    }
 
-        if (input.contains("û")) {
-            throw new IllegalArgumentException("Use 'sqrt' instead.");
+    // Per-thread buffer behind the String, byte[] and Appendable overloads, grown only when more places are asked for.
+    private static char[] scratch(int length) {
+        char[] buffer = Scratch.BUFFER.get();
+        if (buffer.length < length) {
+            buffer = new char[length];
+            Scratch.BUFFER.set(buffer);
         }
+        return buffer;
+    }
 
-        // Square Root Handling,
-        if (input.startsWith("sqrt") && !input.contains(" ")) {
-            return parseTerm(input);
-        }
+    // Loaded on first use, and a subclass because ThreadLocal.withInitial would bootstrap a lambda.
+    private static final class Scratch extends ThreadLocal<char[]> {
+        static final Scratch BUFFER = new Scratch();
 
-        // Mixed Fractions Handling,
-        if (input.matches("^-?\\d+\\s+\\d+/\\d+$")) {
-            String[] parts = input.split("\\s+");
-            double whole = Double.parseDouble(parts[0]);
-            String[] frac = parts[1].split("/");
-            double numerator = parseTerm(frac[0].trim());
-            double denominator = parseTerm(frac[1].trim());
-            if (denominator == 0) throw new IllegalArgumentException("Denominator cannot be zero.");
-            double sign = whole >= 0 ? 1 : -1;
-            return whole + sign * (numerator / denominator);
-        }
+        @Override
+        protected char[] initialValue() { return new char[maxBinaryLength(SHORTEST)]; }
+    }
 
-        // Fraction Handling,
-        if (input.contains("/")) {
-            if (input.chars().filter(ch -> ch == '/').count() > 1) {
-                throw new IllegalArgumentException("Too many '/' characters.");
-            }
-            String[] parts = input.split("/", 2);
-            double numerator = parseTerm(parts[0].trim());
-            double denominator = parseTerm(parts[1].trim());
-            if (denominator == 0) throw new IllegalArgumentException("Denominator cannot be zero.");
-            return numerator / denominator;
-        }
-        return parseTerm(input);
+    // Binary digit k of m * 2^e.
+    private static char bit(long m, int e, int k) {
+        int shift = k - e;
+        if (shift < 0 || shift >= 64) return '0';
+        return (char) ('0' + ((m >>> shift) & 1));
     }
 
-    // User Input Parsing,
-    private static double parseTerm(String term) {
-        term = term.trim();
-        
-        // Parentheses Handling
-        if (term.startsWith("(") && term.endsWith(")")) {
-            return evaluate(term.substring(1, term.length() - 1));
-        }
-        // Random number [0,1)
-        if (term.equalsIgnoreCase("rand")) {
-            return Math.random();
-        }
+    // ASCII version of the above for byte-oriented output.
+    public static int toBinary(double decimal, byte[] dest, int offset) {
+        char[] binary = scratch(MAX_BINARY_LENGTH);
+        int length = toBinary(decimal, binary, 0);
+        for (int i = 0; i < length; i++) dest[offset + i] = (byte) binary[i];
+        return length;
+    }
 
-        // Constants Handling
-        if (term.equalsIgnoreCase("pi") || term.equals("π")) {
-            return Math.PI;
-        }
-        if (term.equalsIgnoreCase("e")) {
-            return Math.E;
-        }
-        
-        // Trigonometric Functions
-        if (term.startsWith("sin")) {
-            return Math.sin(parseTerm(term.substring(3)));
-        }
-        if (term.startsWith("cos")) {
-            return Math.cos(parseTerm(term.substring(3)));
-        }
-        if (term.startsWith("tan")) {
-            return Math.tan(parseTerm(term.substring(3)));
-        }
-        
-        // Logarithmic Functions
-        if (term.startsWith("ln")) {
-            return Math.log(parseTerm(term.substring(2))); // natural log
-        }
-        if (term.startsWith("log")) {
-            return Math.log10(parseTerm(term.substring(3))); // base-10 log
-        }
-        
-        // Absolute Value
-        if (term.startsWith("abs")) {
-            return Math.abs(parseTerm(term.substring(3)));
-        }
+    // Appends the binary digits (a CharBuffer or StringBuilder works too) and returns how many chars were appended.
+    public static int toBinary(double decimal, Appendable out) throws IOException {
+        char[] binary = scratch(MAX_BINARY_LENGTH);
+        int length = toBinary(decimal, binary, 0);
+        for (int i = 0; i < length; i++) out.append(binary[i]);
+        return length;
+    }
 
-        // Alternative Square Root,
-        if (term.startsWith("√")) {
-            return Math.sqrt(parseTerm(term.substring(1)));
-        }
-        if (term.startsWith("sqrt")) {
-            return Math.sqrt(parseTerm(term.substring(4))); // remove "sqrt"
-        }
-        
-        if (term.contains("^")) {
-            String[] parts = term.split("\\^", 2);
-            double base = parseTerm(parts[0].trim());
-            double exponent = parseTerm(parts[1].trim());
-            return Math.pow(base, exponent);
-        }
+    // Operators, fractions, mixed fractions, radicals, constants and functions, in one pass.
+    public static double evaluate(String input) {
+        return evaluate(new ExpressionParser(), input);
+    }
 
-        // Negative Handling,
-        if (term.startsWith("-")) {
-            return -parseTerm(term.substring(1));
-        }
+    // The parser is the caller's, so it can ask it afterwards whether the input used rand.
+    private static double evaluate(ExpressionParser parser, String input) {
+        double value = parse(parser, input);
+        if (parser.status() != ExpressionParser.OK) throw new IllegalArgumentException(parser.message());
+        return value;
+    }
 
-        // Square Root Handling,
-        if (term.startsWith("√")) {
-            return Math.sqrt(parseTerm(term.substring(1)));
-        }
-        
-        // Factorial Handling
-        if (term.endsWith("!")) {
-            int n = (int) parseTerm(term.substring(0, term.length() - 1));
-            if (n < 0) throw new IllegalArgumentException("Factorial of negative number not defined.");
-            long fact = 1;
-            for (int i = 2; i <= n; i++) fact *= i;
-            return fact;
-        }
+    // parser.parse, timed and counted when metrics or a Flight Recorder recording are on.
+    private static double parse(ExpressionParser parser, String input) {
+        if (!METRICS.active()) return parser.parse(input);
+        return METRICS.time(ConversionMetrics.Operation.EVALUATE, 10, input.length(), () -> parser.parse(input), () -> error(parser));
+    }
 
-        // Regular Number,
-        return Double.parseDouble(term);
+    private static String error(ExpressionParser parser) {
+        return parser.status() == ExpressionParser.OK ? null : ExpressionParser.statusName(parser.status());
     }
-    
-    // Add this helper to evaluate full expressions with operators
-    private static double evalExpression(String expr) {
-        return new Object() {
-            int pos = -1, ch;
-
-            void nextChar() {
-                ch = (++pos < expr.length()) ? expr.charAt(pos) : -1;
-            }
 
-            boolean eat(int charToEat) {
-                while (ch == ' ') nextChar();
-                if (ch == charToEat) {
-                    nextChar();
-                    return true;
-                }
-                return false;
-            }
+    // Repeated inputs skip parsing and conversion; -Dbinaryconverter.cache=0 turns the cache off.
+    private static final ConversionCache<Conversion> CACHE =
+            new ConversionCache<>(Integer.getInteger("binaryconverter.cache", 4096));
 
-            double parse() {
-                nextChar();
-                double x = parseExpression();
-                if (pos < expr.length()) throw new RuntimeException("Unexpected: " + (char)ch);
-                return x;
-            }
+    record Conversion(double value, String binary) {}
 
-            // Grammar:
-            // expression = term | expression `+` term | expression `-` term
-            // term = factor | term `*` factor | term `/` factor
-            // factor = `+` factor | `-` factor | number | func factor | factor `^` factor | ( expression )
-            double parseExpression() {
-                double x = parseTerm();
-                for (;;) {
-                    if      (eat('+')) x += parseTerm(); // addition
-                    else if (eat('-')) x -= parseTerm(); // subtraction
-                    else return x;
-                }
-            }
+    // evaluate followed by toBinary, cached unless the input uses rand.
+    public static String convert(String input) {
+        return conversion(input, DECIMAL_PLACES_LIMIT).binary();
+    }
 
-            double parseTerm() {
-                double x = parseFactor();
-                for (;;) {
-                    if      (eat('*')) x *= parseFactor(); // multiplication
-                    else if (eat('/')) x /= parseFactor(); // division
-                    else if (eat('%')) x %= parseFactor(); // modulo
-                    else return x;
-                }
-            }
+    public static String convert(String input, int places) {
+        return conversion(input, places).binary();
+    }
 
-            double parseFactor() {
-                if (eat('+')) return parseFactor(); // unary plus
-                if (eat('-')) return -parseFactor(); // unary minus
-
-                double x;
-                int startPos = this.pos;
-
-                if (eat('(')) { // parentheses
-                    x = parseExpression();
-                    eat(')');
-                } else if ((ch >= '0' && ch <= '9') || ch == '.') { // numbers (dec, hex, sci)
-                    if (ch == '0' && (pos + 1 < expr.length()) && (expr.charAt(pos + 1) == 'x' || expr.charAt(pos + 1) == 'X')) {
-                        // Hexadecimal number
-                        nextChar(); // consume '0'
-                        nextChar(); // consume 'x' or 'X'
-                        startPos = this.pos;
-                        while ((ch >= '0' && ch <= '9') ||
-                               (ch >= 'a' && ch <= 'f') ||
-                               (ch >= 'A' && ch <= 'F')) {
-                            nextChar();
-                        }
-                        String hexStr = expr.substring(startPos, this.pos);
-                        x = Long.parseLong(hexStr, 16);
-                    } else {
-                        // Decimal or scientific notation
-                        while ((ch >= '0' && ch <= '9') || ch == '.' || ch == 'e' || ch == 'E') {
-                            if (ch == 'e' || ch == 'E') {
-                                nextChar(); 
-                                if (ch == '+' || ch == '-') nextChar();
-                            } else {
-                                nextChar();
-                            }
-                        }
-                        String numberPart = expr.substring(startPos, this.pos);
-                        x = Double.parseDouble(numberPart);
-                    }
-                } else if (Character.isLetter(ch)) { // functions & constants
-                    while (Character.isLetter(ch)) nextChar();
-                    String func = expr.substring(startPos, this.pos);
-                    switch (func) {
-                        case "pi", "π" -> x = Math.PI;
-                        case "e" -> x = Math.E;
-                        default -> {
-                            x = parseFactor();
-                            switch (func) {
-                                case "sqrt" -> x = Math.sqrt(x);
-                                case "sin"  -> x = Math.sin(x);
-                                case "cos"  -> x = Math.cos(x);
-                                case "tan"  -> x = Math.tan(x);
-                                case "log"  -> x = Math.log10(x);
-                                case "ln"   -> x = Math.log(x);
-                                case "abs"  -> x = Math.abs(x);
-                                case "asin" -> x = Math.asin(x);
-                                case "acos" -> x = Math.acos(x);
-                                case "atan" -> x = Math.atan(x);
-                                case "sinh" -> x = Math.sinh(x);
-                                case "cosh" -> x = Math.cosh(x);
-                                case "tanh" -> x = Math.tanh(x);
-                                case "cbrt" -> x = Math.cbrt(x);
-                                case "exp"  -> x = Math.exp(x);
-                                default -> throw new RuntimeException("Unknown function: " + func);
-                            }
-                        }
-                    }
-                } else {
-                    throw new RuntimeException("Unexpected: " + (char) ch);
-                }
+    public static ConversionCache<?> cache() { return CACHE; }
 
-                if (eat('^')) x = Math.pow(x, parseFactor()); // exponentiation
+    static Conversion conversion(String input, int places) {
+        Conversion conversion = CACHE.get(input, 10, places);
+        if (conversion != null) return conversion;
 
-                // ✅ Implicit multiplication globally (numbers, constants, functions, parentheses)
-                while ((ch >= '0' && ch <= '9') || ch == '.' || ch == '(' || Character.isLetter(ch)) {
-                    x *= parseFactor();
-                }
+        ExpressionParser parser = new ExpressionParser();
+        double decimal = evaluate(parser, input);
+        conversion = new Conversion(decimal, toBinary(decimal, places));
+        if (!parser.usesRandom()) CACHE.put(input, 10, places, conversion);
+        return conversion;
+    }
 
-                return x;
-            }
-        }.parse();
+    // ========================= EXACT FRACTIONS =========================
+    // The exact expansion of a fraction in base 2, 8 or 16, with the repeating block in
+    // parentheses: 1/3 -> 0.(01), 1 1/6 -> 1.0(01). Returns null when the input is not a rational
+    // number (pi, e, rand, functions other than abs and exact square roots, non-integer powers).
+    public static String toExact(String input, int base) {
+        if (base != 2 && base != 8 && base != 16) throw new IllegalArgumentException("Exact output is only for bases 2, 8 and 16.");
+        ExpressionParser parser = new ExpressionParser();
+        String exact = METRICS.active()
+                ? METRICS.timeValue(ConversionMetrics.Operation.EXACT, base, input.length(), () -> expand(input, base, parser), () -> error(parser))
+                : expand(input, base, parser);
+        if (parser.status() != ExpressionParser.OK) throw new IllegalArgumentException(parser.message());
+        return exact;
     }
 
-    // ========================= DISPLAY RESULTS =========================
-    private static void displayResults(ArrayList<String[]> results) {
-        // Calculate max width per column dynamically
-        int inputWidth = "Input".length();
-        int outputWidth = "Output".length();
-
-        for (String[] row : results) {
-            if (row[0].length() > inputWidth) inputWidth = row[0].length();
-            if (row[1].length() > outputWidth) outputWidth = row[1].length();
-        }
+    private static String expand(String input, int base, ExpressionParser parser) {
+        Rational value = Rational.evaluate(input, parser);
+        return parser.status() != ExpressionParser.OK || value == null ? null : value.toString(base);
+    }
 
-        // Add some padding for readability
-        inputWidth += 2;
-        outputWidth += 2;
+    // The fraction toExact expands, for callers that keep it; null when the input is not rational.
+    static Rational exactValue(String input) {
+        ExpressionParser parser = new ExpressionParser();
+        Rational value = METRICS.active()
+                ? METRICS.timeValue(ConversionMetrics.Operation.EXACT, 2, input.length(), () -> Rational.evaluate(input, parser), () -> error(parser))
+                : Rational.evaluate(input, parser);
+        if (parser.status() != ExpressionParser.OK) throw new IllegalArgumentException(parser.message());
+        return value;
+    }
 
-        String formatString = String.format("%%-%ds %%-%ds", inputWidth, outputWidth);
+    // exactValue for a row whose double conversion already worked. The exact path is stricter,
+    // e.g. (-1e-400)! is 0! = 1 as a double but a negative factorial exactly, so a rejection keeps
+    // the double output instead of ending the session.
+    static Rational displayedExact(String input) {
+        try {
+            return exactValue(input);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
 
-        // Print header
-        System.out.println("\n" + String.format(formatString, "Input", "Output"));
+    // ========================= DISPLAY RESULTS =========================
+    // Longest toBinary output for a value with at most wholeBits bits before the point.
+    static int binaryWidth(double value, int places) {
+        double magnitude = Math.abs(value);
+        int wholeBits = magnitude < 1 ? 1 : Math.getExponent(magnitude) + 1;
+        return 1 + TableWriter.digitBound(wholeBits, 2) + 1 + places;
+    }
 
-        // Print all results
-        for (String[] row : results) {
-            System.out.println(String.format(formatString, row[0], row[1]));
-        }
-        System.out.println();
+    private static void displayResults(ResultTable results) throws IOException {
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, System.out.charset()), 1 << 16);
+        results.print(out);
+        out.flush();
     }
 
     public static void main(String[] args) {
-        ArrayList<String[]> results = new ArrayList<>(); // store results as String arrays
-        try (Scanner userInput = new Scanner(System.in)) {
+        // --replay prints the table back from a journal, see BinaryReplay
+        if (args.length > 0 && args[0].equals("--replay")) {
+            int status = new BinaryReplay().run(Arrays.copyOfRange(args, 1, args.length));
+            if (status != 0) System.exit(status);
+            return;
+        }
+
+        // Rows go to a spool file as they come in, so the heap does not grow with the number of conversions
+        try (Scanner userInput = new Scanner(System.in);
+             ResultTable results = new ResultTable("Input", "Output");
+             ConversionJournal journal = JOURNAL == null ? null : ConversionJournal.open(Path.of(JOURNAL), JOURNAL_SEGMENT)) {
 
             while (true) {
                 System.out.print("Decimal: ");
@@ -346,18 +280,26 @@ public class BinaryConverter {
                     break;
                 }
 
+                Conversion conversion;
                 try {
-                    double decimal = evaluate(input);
-                    String binary = toBinary(decimal);
-
-                    // Store as an array for easier dynamic formatting
-                    results.add(new String[]{input, binary});
-                    
-                    System.out.println(">> Conversion stored. Enter next number or type 'STOP' to display results.\n");
-                    
+                    conversion = conversion(input, DISPLAY_PLACES);
                 } catch (Exception e) {
                     System.out.println(">> Invalid input: " + e.getMessage() + "\n");
+                    continue;
+                }
+
+                // Fractions that are not rational keep the double output
+                Rational exact = DISPLAY_EXACT ? displayedExact(input) : null;
+                String output = exact != null ? exact.toString(2) : conversion.binary();
+
+                // The input is free text, so its column is as wide as the longest input,
+                // and exact or shortest output has no useful bound, so it is as wide as the digits themselves
+                int width = exact != null || DISPLAY_PLACES == SHORTEST ? output.length() : binaryWidth(conversion.value(), DISPLAY_PLACES);
+                results.add(new String[]{input, output}, new int[]{input.length(), width});
+                if (journal != null) {
+                    journal.append(10, DISPLAY_PLACES, input, conversion.value(), exact == null ? null : BinaryReplay.exactBytes(exact));
                 }
+                System.out.println(">> Conversion stored. Enter next number or type 'STOP' to display results.\n");
             }
 
             // Display all results only after STOP is entered
@@ -366,6 +308,8 @@ public class BinaryConverter {
             } else {
                 System.out.println("No conversions to display.");
             }
+        } catch (IOException e) {
+            System.out.println(">> Could not store results: " + e.getMessage());
         }
     }
 }
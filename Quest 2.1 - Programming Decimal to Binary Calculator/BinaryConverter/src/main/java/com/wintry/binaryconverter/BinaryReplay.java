@@ -0,0 +1,64 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.binaryconverter;
+
+/**
+ * The BinaryConverter side of replay mode, see JournalReplay:
+ *
+ *   BinaryConverter --replay <dir> [--since <time>] [--until <time>] [--input <text>]
+ *
+ * Rows show the stored double with the stored number of places, or, where
+ * the table showed an exact fraction, the stored fraction expanded again.
+ *
+ * @author Wintry
+ */
+import com.wintry.common.ConversionJournal;
+import com.wintry.common.JournalReplay;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+final class BinaryReplay extends JournalReplay {
+    BinaryReplay() {
+        super("BinaryConverter --replay <dir> [--since <time>] [--until <time>] [--input <text>]", "Input", "Output");
+    }
+
+    @Override
+    protected void measure(ConversionJournal.Entry entry, int[] widths) throws IOException {
+        widths[1] = Math.max(widths[1], entry.input().length());
+        // Exact and shortest output have no useful bound, so those cells are measured
+        int width = entry.hasExact() || entry.precision() == BinaryConverter.SHORTEST
+                ? output(entry).length()
+                : BinaryConverter.binaryWidth(entry.value(), entry.precision());
+        widths[2] = Math.max(widths[2], width);
+    }
+
+    @Override
+    protected void cells(ConversionJournal.Entry entry, String[] cells) throws IOException {
+        cells[1] = entry.input();
+        cells[2] = output(entry);
+    }
+
+    private static String output(ConversionJournal.Entry entry) throws IOException {
+        Rational exact = rational(entry.exact());
+        return exact != null ? exact.toString(2) : BinaryConverter.toBinary(entry.value(), entry.precision());
+    }
+
+    // ========================= EXACT VALUES =========================
+    // What the journal keeps next to the double when the table showed an exact fraction:
+    // the numerator's length, the numerator and the denominator, as two's complement bytes.
+    static byte[] exactBytes(Rational value) {
+        byte[] num = value.numerator().toByteArray(), den = value.denominator().toByteArray();
+        return ByteBuffer.allocate(4 + num.length + den.length).putInt(num.length).put(num).put(den).array();
+    }
+
+    static Rational rational(byte[] bytes) {
+        if (bytes == null) return null;
+        int numLength = ByteBuffer.wrap(bytes).getInt();
+        return Rational.of(new BigInteger(Arrays.copyOfRange(bytes, 4, 4 + numLength)),
+                new BigInteger(Arrays.copyOfRange(bytes, 4 + numLength, bytes.length)));
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.binaryconverter;
+
+/**
+ * An expression evaluated over whole columns instead of one row at a time.
+ * Names that are not constants or functions become variables, bound by
+ * position to the columns passed to evaluate:
+ *
+ *   ColumnExpression.compile("x*2^8 + y % 16").evaluate(xs, ys)
+ *
+ * The input is parsed once by ExpressionParser into a postfix program with
+ * constant subexpressions folded. Rows are then processed in blocks of
+ * BLOCK values: every instruction runs one simple loop over the block on a
+ * small stack of reused buffers, which the JIT can unroll and vectorize.
+ * Large columns are split into chunks evaluated in parallel.
+ *
+ * Rows behave like BinaryConverter.evaluate would on the same values,
+ * except that a negative factorial gives NaN for that row. Instances are
+ * immutable and can be shared between threads.
+ *
+ * @author Wintry
+ */
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+
+public final class ColumnExpression {
+    static final int BLOCK = 1024;                            // rows per instruction loop
+    private static final int CHUNK = 16 * BLOCK;              // rows per parallel task
+    private static final int PARALLEL_THRESHOLD = 4 * CHUNK;  // smaller columns stay on the calling thread
+
+    // Instructions
+    private static final byte CONSTANT = 0, VARIABLE = 1, RANDOM = 2, NEGATE = 3, BINARY = 4, FUNCTION = 5, FACTORIAL = 6;
+
+    private final String source;
+    private final List<String> variables;
+    private final byte[] code;
+    private final int[] operands;      // variable index, operator char or function index
+    private final double[] constants;  // value of each CONSTANT instruction
+    private final int depth;           // block buffers needed
+
+    private ColumnExpression(String source, List<String> variables, byte[] code, int[] operands, double[] constants, int depth) {
+        this.source = source;
+        this.variables = Collections.unmodifiableList(variables);
+        this.code = code;
+        this.operands = operands;
+        this.constants = constants;
+        this.depth = depth;
+    }
+
+    // ========================= COMPILE =========================
+    public static ColumnExpression compile(String expr) {
+        ProgramBuilder builder = new ProgramBuilder();
+        ExpressionParser parser = new ExpressionParser();
+        int root = parser.parse(expr, builder);
+        if (parser.status() != ExpressionParser.OK) throw new IllegalArgumentException(parser.message());
+        return builder.build(expr, root);
+    }
+
+    public List<String> variables() { return variables; }
+
+    @Override
+    public String toString() { return source; }
+
+    // ========================= EVALUATE =========================
+    // Columns are matched to variables() by position and must all have the same length.
+    public double[] evaluate(double[]... columns) {
+        if (columns.length == 0) throw new IllegalArgumentException("Expression has no variables; use evaluateInto(out) instead.");
+        double[] out = new double[columns[0].length];
+        evaluateInto(out, columns);
+        return out;
+    }
+
+    // Writes one result per row into out; out.length is the number of rows. A separate name,
+    // since evaluate(xs, ys) would match both overloads.
+    public void evaluateInto(double[] out, double[]... columns) {
+        if (columns.length != variables.size()) {
+            throw new IllegalArgumentException("Expected " + variables.size() + " columns, got " + columns.length);
+        }
+        for (double[] column : columns) {
+            if (column.length != out.length) throw new IllegalArgumentException("Columns must have " + out.length + " rows, got " + column.length);
+        }
+
+        if (out.length < PARALLEL_THRESHOLD) {
+            evaluateRange(out, columns, 0, out.length);
+        } else {
+            int chunks = (out.length + CHUNK - 1) / CHUNK;
+            ForkJoinPool.commonPool().invoke(new ChunkTask(this, out, columns, 0, chunks));
+        }
+    }
+
+    // Runs the program block by block over rows [from, to) with its own buffers.
+    private void evaluateRange(double[] out, double[][] columns, int from, int to) {
+        double[][] stack = new double[depth][BLOCK];
+        for (int start = from; start < to; start += BLOCK) {
+            int n = Math.min(BLOCK, to - start);
+            int top = 0;
+            for (int pc = 0; pc < code.length; pc++) {
+                switch (code[pc]) {
+                    case CONSTANT -> {
+                        double value = constants[pc];
+                        double[] a = stack[top++];
+                        for (int i = 0; i < n; i++) a[i] = value;
+                    }
+                    case VARIABLE -> System.arraycopy(columns[operands[pc]], start, stack[top++], 0, n);
+                    case RANDOM -> {
+                        double[] a = stack[top++];
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        for (int i = 0; i < n; i++) a[i] = random.nextDouble();
+                    }
+                    case NEGATE -> {
+                        double[] a = stack[top - 1];
+                        for (int i = 0; i < n; i++) a[i] = -a[i];
+                    }
+                    case BINARY -> {
+                        top--;
+                        binary((char) operands[pc], stack[top - 1], stack[top], n);
+                    }
+                    case FUNCTION -> function(operands[pc], stack[top - 1], n);
+                    default -> {
+                        double[] a = stack[top - 1];
+                        for (int i = 0; i < n; i++) a[i] = a[i] < 0 ? Double.NaN : ExpressionParser.factorial(a[i]);
+                    }
+                }
+            }
+            System.arraycopy(stack[0], 0, out, start, n);
+        }
+    }
+
+    // a = a op b, one loop per operator so each stays a straight line over the block.
+    private static void binary(char op, double[] a, double[] b, int n) {
+        switch (op) {
+            case '+' -> { for (int i = 0; i < n; i++) a[i] += b[i]; }
+            case '-' -> { for (int i = 0; i < n; i++) a[i] -= b[i]; }
+            case '*' -> { for (int i = 0; i < n; i++) a[i] *= b[i]; }
+            case '/' -> { for (int i = 0; i < n; i++) a[i] /= b[i]; }
+            case '%' -> { for (int i = 0; i < n; i++) a[i] %= b[i]; }
+            default  -> { for (int i = 0; i < n; i++) a[i] = Math.pow(a[i], b[i]); }
+        }
+    }
+
+    private static void function(int function, double[] a, int n) {
+        switch (function) {
+            case 0  -> { for (int i = 0; i < n; i++) a[i] = Math.sqrt(a[i]); }
+            case 6  -> { for (int i = 0; i < n; i++) a[i] = Math.abs(a[i]); }
+            case 13 -> { for (int i = 0; i < n; i++) a[i] = Math.cbrt(a[i]); }
+            default -> { for (int i = 0; i < n; i++) a[i] = ExpressionParser.apply(function, a[i]); }
+        }
+    }
+
+    // Splits the chunk range in halves until one chunk is left. Tasks are never serialized,
+    // so the expression is transient and the ID only keeps the serial lint quiet.
+    private static final class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final transient ColumnExpression expression;
+        private final double[] out;
+        private final double[][] columns;
+        private final int from, to;
+
+        ChunkTask(ColumnExpression expression, double[] out, double[][] columns, int from, int to) {
+            this.expression = expression;
+            this.out = out;
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                expression.evaluateRange(out, columns, from * CHUNK, Math.min(out.length, (from + 1) * CHUNK));
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ChunkTask(expression, out, columns, from, mid), new ChunkTask(expression, out, columns, mid, to));
+        }
+    }
+
+    // ========================= PROGRAM BUILDER =========================
+    // Builds a tree while parsing, folding operators whose operands are all constants,
+    // then flattens it into postfix order.
+    private static final class ProgramBuilder implements ExpressionParser.Emitter {
+        private final List<Node> nodes = new ArrayList<>();
+        private final List<String> variables = new ArrayList<>();
+
+        private record Node(byte kind, int operand, double value, Node left, Node right) {
+            boolean isConstant() { return kind == CONSTANT; }
+        }
+
+        private int add(Node node) {
+            nodes.add(node);
+            return nodes.size() - 1;
+        }
+
+        private int literal(double value) {
+            return add(new Node(CONSTANT, 0, value, null, null));
+        }
+
+        @Override
+        public void reset() {
+            nodes.clear();
+            variables.clear();
+        }
+
+        @Override public int number(CharSequence text, int start, int end, double value) { return literal(value); }
+
+        @Override public int constant(double value) { return literal(value); }
+
+        @Override public int random() { return add(new Node(RANDOM, 0, 0, null, null)); }
+
+        @Override
+        public int variable(CharSequence text, int start, int end) {
+            String name = text.subSequence(start, end).toString().toLowerCase();
+            int index = variables.indexOf(name);
+            if (index < 0) {
+                index = variables.size();
+                variables.add(name);
+            }
+            return add(new Node(VARIABLE, index, 0, null, null));
+        }
+
+        @Override
+        public int negate(int x) {
+            Node operand = nodes.get(x);
+            if (operand.isConstant()) return literal(-operand.value());
+            return add(new Node(NEGATE, 0, 0, operand, null));
+        }
+
+        @Override
+        public int binary(char op, int x, int y) {
+            Node left = nodes.get(x), right = nodes.get(y);
+            if (left.isConstant() && right.isConstant()) return literal(ExpressionParser.apply(op, left.value(), right.value()));
+            return add(new Node(BINARY, op, 0, left, right));
+        }
+
+        @Override
+        public int function(int function, int x) {
+            Node operand = nodes.get(x);
+            if (operand.isConstant()) return literal(ExpressionParser.apply(function, operand.value()));
+            return add(new Node(FUNCTION, function, 0, operand, null));
+        }
+
+        @Override
+        public int factorial(int x) {
+            Node operand = nodes.get(x);
+            if (operand.isConstant()) {
+                if (operand.value() < 0) return -ExpressionParser.NEGATIVE_FACTORIAL;
+                return literal(ExpressionParser.factorial(operand.value()));
+            }
+            return add(new Node(FACTORIAL, 0, 0, operand, null));
+        }
+
+        ColumnExpression build(String source, int root) {
+            List<Node> program = new ArrayList<>();
+            int depth = flatten(nodes.get(root), program, 0);
+            byte[] code = new byte[program.size()];
+            int[] operands = new int[program.size()];
+            double[] constants = new double[program.size()];
+            for (int pc = 0; pc < code.length; pc++) {
+                Node node = program.get(pc);
+                code[pc] = node.kind();
+                operands[pc] = node.operand();
+                constants[pc] = node.value();
+            }
+            return new ColumnExpression(source, new ArrayList<>(variables), code, operands, constants, depth);
+        }
+
+        // Appends node in postfix order; returns the stack depth it needs when started at height.
+        private static int flatten(Node node, List<Node> program, int height) {
+            int depth = height + 1;
+            if (node.left() != null) depth = Math.max(depth, flatten(node.left(), program, height));
+            if (node.right() != null) depth = Math.max(depth, flatten(node.right(), program, height + 1));
+            program.add(node);
+            return depth;
+        }
+    }
+}
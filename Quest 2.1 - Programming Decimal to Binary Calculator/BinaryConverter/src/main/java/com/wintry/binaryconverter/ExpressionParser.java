@@ -0,0 +1,475 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.binaryconverter;
+
+/**
+ * Single pass parser for everything BinaryConverter.evaluate accepts:
+ * operators, mixed fractions, √, rand, hex literals and implicit
+ * multiplication. Errors are reported through status() instead of
+ * exceptions, so bad input costs no more than good input. An instance can
+ * be reused for many inputs but not shared between threads.
+ *
+ * The grammar only recognises; what a number or an operator turns into is
+ * up to an Emitter. parse(CharSequence) uses one that computes doubles
+ * straight away, ColumnExpression one that builds a program for whole
+ * columns.
+ *
+ * @author Wintry
+ */
+import com.wintry.common.DecimalLiteral;
+import java.util.Arrays;
+
+public final class ExpressionParser {
+    // Status codes
+    public static final int OK = 0;
+    public static final int UNEXPECTED_CHARACTER = 1;
+    public static final int UNEXPECTED_END = 2;
+    public static final int UNKNOWN_FUNCTION = 3;
+    public static final int MALFORMED_NUMBER = 4;
+    public static final int DENOMINATOR_ZERO = 5;
+    public static final int NEGATIVE_FACTORIAL = 6;
+    public static final int USE_SQRT = 7;
+
+    private final DoubleEmitter doubles = new DoubleEmitter();
+    private Emitter emitter;
+    private CharSequence expr;
+    private int pos, ch;
+    private int status, errorStart, errorEnd;
+    private boolean usesRandom;
+
+    // ========================= ENTRY POINT =========================
+    // Returns the value, or NaN with status() set when the input is invalid.
+    public double parse(CharSequence input) {
+        int result = parse(input, doubles);
+        return status == OK ? doubles.value(result) : Double.NaN;
+    }
+
+    // Runs the grammar against any emitter and returns the handle of the result, or -1 with status() set.
+    int parse(CharSequence input, Emitter target) {
+        expr = input;
+        emitter = target;
+        pos = -1;
+        status = OK;
+        usesRandom = false;
+        target.reset();
+        nextChar();
+
+        int x = parseExpression();
+        skipSpaces();
+        if (status == OK && ch != -1) fail(UNEXPECTED_CHARACTER, pos, pos + 1);
+        return status == OK ? x : -1;
+    }
+
+    public int status() { return status; }
+
+    public int errorPosition() { return errorStart; }
+
+    // True when the last input referenced rand, so its value must not be cached or reused.
+    public boolean usesRandom() { return usesRandom; }
+
+    // Human readable description of the last error; only builds a String when asked.
+    public String message() {
+        return switch (status) {
+            case OK -> "OK";
+            case UNEXPECTED_CHARACTER -> "Unexpected: " + expr.subSequence(errorStart, errorEnd);
+            case UNEXPECTED_END -> "Unexpected end of input.";
+            case UNKNOWN_FUNCTION -> "Unknown function: " + expr.subSequence(errorStart, errorEnd);
+            case MALFORMED_NUMBER -> "Malformed number: " + expr.subSequence(errorStart, errorEnd);
+            case DENOMINATOR_ZERO -> "Denominator cannot be zero.";
+            case NEGATIVE_FACTORIAL -> "Factorial of negative number not defined.";
+            case USE_SQRT -> "Use 'sqrt' instead.";
+            default -> "Unknown error " + status;
+        };
+    }
+
+    // Name of a status code for logs and metrics, e.g. "MALFORMED_NUMBER".
+    public static String statusName(int status) {
+        return switch (status) {
+            case OK -> "OK";
+            case UNEXPECTED_CHARACTER -> "UNEXPECTED_CHARACTER";
+            case UNEXPECTED_END -> "UNEXPECTED_END";
+            case UNKNOWN_FUNCTION -> "UNKNOWN_FUNCTION";
+            case MALFORMED_NUMBER -> "MALFORMED_NUMBER";
+            case DENOMINATOR_ZERO -> "DENOMINATOR_ZERO";
+            case NEGATIVE_FACTORIAL -> "NEGATIVE_FACTORIAL";
+            case USE_SQRT -> "USE_SQRT";
+            default -> "STATUS_" + status;
+        };
+    }
+
+    // ========================= GRAMMAR =========================
+    // expression = term { ('+' | '-') term }
+    // term       = factor { ('*' | '/' | '%') factor }
+    // factor     = ('+' | '-') factor | primary { '!' } [ '^' factor ] { factor }   (last part: implicit multiplication)
+    // primary    = number | whole ' ' numerator '/' denominator | '(' expression ')'
+    //            | '√' factor | function factor | pi | π | e | rand | variable (if the emitter has them)
+    private int parseExpression() {
+        int x = parseTerm();
+        while (status == OK) {
+            if      (eat('+')) x = binary('+', x, parseTerm());
+            else if (eat('-')) x = binary('-', x, parseTerm());
+            else break;
+        }
+        return x;
+    }
+
+    private int parseTerm() {
+        int x = parseFactor();
+        while (status == OK) {
+            if      (eat('*')) x = binary('*', x, parseFactor());
+            else if (eat('/')) x = binary('/', x, parseFactor());
+            else if (eat('%')) x = binary('%', x, parseFactor());
+            else break;
+        }
+        return x;
+    }
+
+    private int parseFactor() {
+        if (eat('+')) return parseFactor();
+        if (eat('-')) {
+            int x = parseFactor();
+            return status == OK ? emitter.negate(x) : -1;
+        }
+
+        int x = parsePrimary();
+
+        while (status == OK && eat('!')) x = factorial(x);
+        if (status == OK && eat('^')) x = binary('^', x, parseFactor());
+
+        // Implicit multiplication of the factors that follow: 2pi = 2 * pi, 3(4) = 12 and
+        // 2 sqrt 9 = 2 * sqrt(9) = 6. After ^ they belong to the exponent, so 2^3 4 = 2^12.
+        while (status == OK && startsFactor(ch)) x = binary('*', x, parseFactor());
+
+        return x;
+    }
+
+    private int parsePrimary() {
+        skipSpaces();
+        if (ch == -1) return fail(UNEXPECTED_END, pos, pos);
+
+        if (ch == '(') {
+            nextChar();
+            int x = parseExpression();
+            eat(')'); // a missing ')' at the end is forgiven
+            return x;
+        }
+        if (ch == '√') {
+            nextChar();
+            return function(0, parseFactor());
+        }
+        if (ch == 'û') return fail(USE_SQRT, pos, pos + 1);
+        if ((ch >= '0' && ch <= '9') || ch == '.') return parseNumber();
+        if (Character.isLetter(ch)) return parseName();
+        return fail(UNEXPECTED_CHARACTER, pos, pos + 1);
+    }
+
+    private int parseNumber() {
+        int start = pos;
+
+        // Hexadecimal number
+        if (ch == '0' && pos + 1 < expr.length() && (expr.charAt(pos + 1) == 'x' || expr.charAt(pos + 1) == 'X')) {
+            nextChar();
+            nextChar();
+            int digitsStart = pos;
+            double x = 0;
+            while (hexDigit(ch) >= 0) {
+                x = x * 16 + hexDigit(ch);
+                nextChar();
+            }
+            if (pos == digitsStart) return fail(MALFORMED_NUMBER, start, pos);
+            return emitter.number(expr, start, pos, x);
+        }
+
+        // Mixed fraction "1 3/4" is tried first, falling back to an ordinary number
+        int mixedEnd = mixedFractionEnd(pos);
+        if (mixedEnd > 0) return parseMixedFraction(mixedEnd);
+
+        // Decimal or scientific notation
+        while ((ch >= '0' && ch <= '9') || ch == '.' || ch == 'e' || ch == 'E') {
+            if (ch == 'e' || ch == 'E') {
+                nextChar();
+                if (ch == '+' || ch == '-') nextChar();
+            } else {
+                nextChar();
+            }
+        }
+        // Parsed in place; NaN means the scan took in something like "1.2.3" or "1e"
+        double x = DecimalLiteral.parse(expr, start, pos);
+        if (Double.isNaN(x)) return fail(MALFORMED_NUMBER, start, pos);
+        return emitter.number(expr, start, pos, x);
+    }
+
+    // If "digits spaces digits [spaces] / [spaces] digits" starts at from and is not
+    // followed by something that continues the denominator, returns where it ends; else -1.
+    private int mixedFractionEnd(int from) {
+        int i = skipDigits(from);
+        if (i == from || i >= expr.length() || expr.charAt(i) != ' ') return -1;
+        int numerator = skipSpaces(i);
+        i = skipDigits(numerator);
+        if (i == numerator) return -1;
+        i = skipSpaces(i);
+        if (i >= expr.length() || expr.charAt(i) != '/') return -1;
+        int denominator = skipSpaces(i + 1);
+        i = skipDigits(denominator);
+        if (i == denominator) return -1;
+        if (i < expr.length()) {
+            char c = expr.charAt(i);
+            if (c == '.' || c == '^' || c == '!' || c == '(' || Character.isLetter(c)) return -1;
+        }
+        return i;
+    }
+
+    // Emitted as whole + numerator / denominator, each part with its own digits.
+    private int parseMixedFraction(int end) {
+        int start = pos;
+        int wholeStart = pos;
+        double whole = readDigits();
+        int wholeEnd = pos;
+        skipSpaces();
+        int numeratorStart = pos;
+        double numerator = readDigits();
+        int numeratorEnd = pos;
+        skipSpaces();
+        nextChar(); // '/'
+        skipSpaces();
+        int denominatorStart = pos;
+        double denominator = readDigits();
+        if (denominator == 0) return fail(DENOMINATOR_ZERO, start, end);
+
+        int fraction = emitter.binary('/', emitter.number(expr, numeratorStart, numeratorEnd, numerator),
+                emitter.number(expr, denominatorStart, pos, denominator));
+        return emitter.binary('+', emitter.number(expr, wholeStart, wholeEnd, whole), fraction);
+    }
+
+    private int parseName() {
+        int start = pos;
+        while (Character.isLetter(ch)) nextChar();
+        int end = pos;
+
+        if (nameIs(start, end, "pi") || nameIs(start, end, "π")) return emitter.constant(Math.PI);
+        if (nameIs(start, end, "e")) return emitter.constant(Math.E);
+        if (nameIs(start, end, "rand")) {
+            usesRandom = true;
+            return emitter.random();
+        }
+
+        int function = functionIndex(start, end);
+        if (function >= 0) return function(function, parseFactor());
+
+        int variable = emitter.variable(expr, start, end);
+        return variable >= 0 ? variable : fail(UNKNOWN_FUNCTION, start, end);
+    }
+
+    private static final String[] FUNCTIONS = {
+        "sqrt", "sin", "cos", "tan", "log", "ln", "abs",
+        "asin", "acos", "atan", "sinh", "cosh", "tanh", "cbrt", "exp"
+    };
+
+    private int functionIndex(int start, int end) {
+        for (int i = 0; i < FUNCTIONS.length; i++) {
+            if (nameIs(start, end, FUNCTIONS[i])) return i;
+        }
+        return -1;
+    }
+
+    // ========================= EMITTING =========================
+    // An operand is -1 only after a failure, in which case nothing more is emitted.
+    private int binary(char op, int x, int y) {
+        return status == OK ? emitter.binary(op, x, y) : -1;
+    }
+
+    private int function(int function, int x) {
+        return status == OK ? emitter.function(function, x) : -1;
+    }
+
+    private int factorial(int x) {
+        int result = emitter.factorial(x);
+        return result >= 0 ? result : fail(-result, pos, pos);
+    }
+
+    // What the parsed input turns into. Every method returns a handle for the result; handles
+    // are whatever the emitter likes, except that a negative one is minus an error status.
+    interface Emitter {
+        void reset();
+
+        // text[start, end) are the literal digits, value their double value
+        int number(CharSequence text, int start, int end, double value);
+
+        int constant(double value);
+
+        int random();
+
+        // A name that is not a constant or function; emitters without variables return -UNKNOWN_FUNCTION.
+        int variable(CharSequence text, int start, int end);
+
+        int negate(int x);
+
+        // op is one of + - * / % ^
+        int binary(char op, int x, int y);
+
+        // function is an index into FUNCTIONS, see apply
+        int function(int function, int x);
+
+        int factorial(int x);
+    }
+
+    static double apply(int function, double x) {
+        return switch (function) {
+            case 0 -> Math.sqrt(x);
+            case 1 -> Math.sin(x);
+            case 2 -> Math.cos(x);
+            case 3 -> Math.tan(x);
+            case 4 -> Math.log10(x);
+            case 5 -> Math.log(x);
+            case 6 -> Math.abs(x);
+            case 7 -> Math.asin(x);
+            case 8 -> Math.acos(x);
+            case 9 -> Math.atan(x);
+            case 10 -> Math.sinh(x);
+            case 11 -> Math.cosh(x);
+            case 12 -> Math.tanh(x);
+            case 13 -> Math.cbrt(x);
+            default -> Math.exp(x);
+        };
+    }
+
+    static double apply(char op, double x, double y) {
+        return switch (op) {
+            case '+' -> x + y;
+            case '-' -> x - y;
+            case '*' -> x * y;
+            case '/' -> x / y;
+            case '%' -> x % y;
+            default -> Math.pow(x, y);
+        };
+    }
+
+    // Accumulate in double: exact up to 22!, approximate after, infinite past 170!
+    // NaN stays NaN, so a row that already failed cannot turn into 0! = 1.
+    static double factorial(double x) {
+        if (Double.isNaN(x)) return x;
+        if (x > 170) return Double.POSITIVE_INFINITY;
+        double f = 1;
+        for (int i = 2; i <= (int) x; i++) f *= i;
+        return f;
+    }
+
+    // Evaluates on the spot: each leaf takes a slot and every operator overwrites its left operand's slot.
+    private static final class DoubleEmitter implements Emitter {
+        private double[] values = new double[16];
+        private int count;
+
+        double value(int handle) { return values[handle]; }
+
+        private int push(double value) {
+            if (count == values.length) values = Arrays.copyOf(values, count * 2);
+            values[count] = value;
+            return count++;
+        }
+
+        @Override public void reset() { count = 0; }
+
+        @Override public int number(CharSequence text, int start, int end, double value) { return push(value); }
+
+        @Override public int constant(double value) { return push(value); }
+
+        @Override public int random() { return push(Math.random()); }
+
+        @Override public int variable(CharSequence text, int start, int end) { return -UNKNOWN_FUNCTION; }
+
+        @Override
+        public int negate(int x) {
+            values[x] = -values[x];
+            return x;
+        }
+
+        @Override
+        public int binary(char op, int x, int y) {
+            values[x] = apply(op, values[x], values[y]);
+            return x;
+        }
+
+        @Override
+        public int function(int function, int x) {
+            values[x] = apply(function, values[x]);
+            return x;
+        }
+
+        @Override
+        public int factorial(int x) {
+            if (values[x] < 0) return -NEGATIVE_FACTORIAL;
+            values[x] = ExpressionParser.factorial(values[x]);
+            return x;
+        }
+    }
+
+    // ========================= SCANNING =========================
+    private void nextChar() {
+        ch = (++pos < expr.length()) ? expr.charAt(pos) : -1;
+    }
+
+    private boolean eat(int charToEat) {
+        skipSpaces();
+        if (ch == charToEat) {
+            nextChar();
+            return true;
+        }
+        return false;
+    }
+
+    private void skipSpaces() {
+        while (ch == ' ' || ch == '\t') nextChar();
+    }
+
+    private int skipSpaces(int i) {
+        while (i < expr.length() && (expr.charAt(i) == ' ' || expr.charAt(i) == '\t')) i++;
+        return i;
+    }
+
+    private int skipDigits(int i) {
+        while (i < expr.length() && expr.charAt(i) >= '0' && expr.charAt(i) <= '9') i++;
+        return i;
+    }
+
+    private double readDigits() {
+        double x = 0;
+        while (ch >= '0' && ch <= '9') {
+            x = x * 10 + (ch - '0');
+            nextChar();
+        }
+        return x;
+    }
+
+    private boolean nameIs(int start, int end, String name) {
+        if (end - start != name.length()) return false;
+        for (int i = 0; i < name.length(); i++) {
+            if (Character.toLowerCase(expr.charAt(start + i)) != name.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static boolean startsFactor(int c) {
+        return (c >= '0' && c <= '9') || c == '.' || c == '(' || c == '√' || (c != -1 && Character.isLetter(c));
+    }
+
+    private static int hexDigit(int c) {
+        if (c >= '0' && c <= '9') return c - '0';
+        if (c >= 'a' && c <= 'f') return c - 'a' + 10;
+        if (c >= 'A' && c <= 'F') return c - 'A' + 10;
+        return -1;
+    }
+
+    // Records the first error only; the parse unwinds by checking status.
+    private int fail(int code, int start, int end) {
+        if (status == OK) {
+            status = code;
+            errorStart = start;
+            errorEnd = Math.min(Math.max(end, start), expr.length());
+        }
+        ch = -1; // stop scanning
+        pos = expr.length();
+        return -1;
+    }
+}
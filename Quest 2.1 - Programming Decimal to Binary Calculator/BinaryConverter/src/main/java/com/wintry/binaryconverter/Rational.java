@@ -0,0 +1,370 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.binaryconverter;
+
+/**
+ * Exact fractions for BinaryConverter.toExact. A value is a reduced
+ * numerator / denominator pair kept in longs, and moved to BigIntegers only
+ * when an operation overflows.
+ *
+ * In base 2, 8 or 16 a fraction whose denominator is 2^a * d, with d odd,
+ * starts with ceil(a / s) digits that do not repeat (s bits per digit).
+ * After those, the remainder of the long division comes back to the value it
+ * had at that point, and the digits in between are the repeating block. So
+ * the period costs exactly one pass over the block and no lookup table.
+ *
+ * @author Wintry
+ */
+import java.math.BigInteger;
+import java.util.Arrays;
+
+final class Rational {
+    private static final int MAX_SCALE = 4096;               // largest power of ten a literal or ^ may introduce
+    private static final int MAX_FRACTION_DIGITS = 1 << 16;  // longer expansions are cut off with "..."
+    private static final String DIGITS = "0123456789ABCDEF";
+
+    // Meaningful while bigNum is null: den > 0 and gcd(num, den) == 1
+    private final long num, den;
+    private final BigInteger bigNum, bigDen;
+
+    private Rational(long num, long den) {
+        this.num = num;
+        this.den = den;
+        this.bigNum = null;
+        this.bigDen = null;
+    }
+
+    private Rational(BigInteger num, BigInteger den) {
+        this.num = 0;
+        this.den = 1;
+        this.bigNum = num;
+        this.bigDen = den;
+    }
+
+    static Rational of(long num, long den) {
+        if (den < 0) {
+            if (num == Long.MIN_VALUE || den == Long.MIN_VALUE) return of(BigInteger.valueOf(num), BigInteger.valueOf(den));
+            num = -num;
+            den = -den;
+        }
+        long g = gcd(Math.abs(num), den);
+        return new Rational(num / g, den / g);
+    }
+
+    static Rational of(BigInteger num, BigInteger den) {
+        if (den.signum() < 0) {
+            num = num.negate();
+            den = den.negate();
+        }
+        BigInteger g = num.gcd(den);
+        if (!g.equals(BigInteger.ONE)) {
+            num = num.divide(g);
+            den = den.divide(g);
+        }
+        if (num.bitLength() < 64 && den.bitLength() < 64) return new Rational(num.longValue(), den.longValue());
+        return new Rational(num, den);
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a == 0 ? 1 : a;
+    }
+
+    private boolean isBig() { return bigNum != null; }
+
+    BigInteger numerator() { return isBig() ? bigNum : BigInteger.valueOf(num); }
+
+    BigInteger denominator() { return isBig() ? bigDen : BigInteger.valueOf(den); }
+
+    int signum() { return isBig() ? bigNum.signum() : Long.signum(num); }
+
+    boolean isInteger() { return isBig() ? bigDen.equals(BigInteger.ONE) : den == 1; }
+
+    // ========================= LITERALS =========================
+    // The exact value of a literal the parser has already checked: 0x1F, 12, 0.75, 1.5e-3.
+    // Returns null when the exponent is too large to write out.
+    static Rational parse(CharSequence text, int start, int end) {
+        if (end - start > 2 && text.charAt(start) == '0' && (text.charAt(start + 1) == 'x' || text.charAt(start + 1) == 'X')) {
+            return of(new BigInteger(text.subSequence(start + 2, end).toString(), 16), BigInteger.ONE);
+        }
+
+        StringBuilder digits = new StringBuilder(end - start);
+        int scale = 0;
+        boolean fraction = false;
+        int i = start;
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '.') fraction = true;
+            else if (c == 'e' || c == 'E') break;
+            else {
+                digits.append(c);
+                if (fraction) scale++;
+            }
+        }
+        if (i < end) {
+            int exponentStart = i + 1;
+            if (text.charAt(exponentStart) == '+') exponentStart++;
+            int exponentEnd = Math.min(end, exponentStart + 8); // past that the scale check below fails anyway
+            long exponent = Long.parseLong(text.subSequence(exponentStart, exponentEnd).toString());
+            if (exponentEnd < end) exponent = exponent < 0 ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+            scale -= (int) Math.max(-2 * MAX_SCALE, Math.min(2 * MAX_SCALE, exponent));
+        }
+        if (Math.abs(scale) > MAX_SCALE) return null;
+
+        BigInteger n = new BigInteger(digits.toString());
+        BigInteger power = BigInteger.TEN.pow(Math.abs(scale));
+        return scale >= 0 ? of(n, power) : of(n.multiply(power), BigInteger.ONE);
+    }
+
+    // ========================= ARITHMETIC =========================
+    // The long versions give up with ArithmeticException on overflow and the BigInteger ones take over.
+    Rational add(Rational other) {
+        if (!isBig() && !other.isBig()) {
+            try {
+                long g = gcd(den, other.den);
+                long n = Math.addExact(Math.multiplyExact(num, other.den / g), Math.multiplyExact(other.num, den / g));
+                return of(n, Math.multiplyExact(den, other.den / g));
+            } catch (ArithmeticException overflow) {
+                // fall through
+            }
+        }
+        return of(numerator().multiply(other.denominator()).add(other.numerator().multiply(denominator())),
+                denominator().multiply(other.denominator()));
+    }
+
+    Rational negate() {
+        if (!isBig() && num != Long.MIN_VALUE) return new Rational(-num, den);
+        return of(numerator().negate(), denominator());
+    }
+
+    Rational subtract(Rational other) {
+        return add(other.negate());
+    }
+
+    Rational multiply(Rational other) {
+        if (!isBig() && !other.isBig()) {
+            try {
+                // Cross-reduce first so the products stay small
+                long g1 = gcd(Math.abs(num), other.den), g2 = gcd(Math.abs(other.num), den);
+                return of(Math.multiplyExact(num / g1, other.num / g2), Math.multiplyExact(den / g2, other.den / g1));
+            } catch (ArithmeticException overflow) {
+                // fall through
+            }
+        }
+        return of(numerator().multiply(other.numerator()), denominator().multiply(other.denominator()));
+    }
+
+    // null for division by zero, which has no exact value
+    Rational divide(Rational other) {
+        if (other.signum() == 0) return null;
+        return multiply(other.reciprocal());
+    }
+
+    private Rational reciprocal() {
+        if (!isBig()) return of(den, num);
+        return of(bigDen, bigNum);
+    }
+
+    // Like the double %: the sign follows the dividend, the quotient is truncated.
+    Rational remainder(Rational other) {
+        if (other.signum() == 0) return null;
+        Rational quotient = divide(other);
+        BigInteger truncated = quotient.numerator().divide(quotient.denominator());
+        return subtract(other.multiply(of(truncated, BigInteger.ONE)));
+    }
+
+    // Integer powers only; null for anything else, 0 to a negative power or a result too large to hold.
+    Rational pow(Rational exponent) {
+        if (!exponent.isInteger() || exponent.numerator().bitLength() > 31) return null;
+        int n = exponent.numerator().intValue();
+        if (n < 0 && signum() == 0) return null;
+        long bits = (long) Math.max(numerator().bitLength(), denominator().bitLength()) * Math.abs(n);
+        if (bits > (long) MAX_SCALE * 16) return null;
+        BigInteger p = numerator().pow(Math.abs(n)), q = denominator().pow(Math.abs(n));
+        return n >= 0 ? of(p, q) : of(q, p);
+    }
+
+    Rational abs() {
+        return signum() < 0 ? negate() : this;
+    }
+
+    // Exact when numerator and denominator are both perfect squares, otherwise null.
+    Rational sqrt() {
+        if (signum() < 0) return null;
+        BigInteger p = numerator().sqrt(), q = denominator().sqrt();
+        if (!p.multiply(p).equals(numerator()) || !q.multiply(q).equals(denominator())) return null;
+        return of(p, q);
+    }
+
+    // Same truncation and limit as ExpressionParser.factorial; null past 170!, which is infinite there.
+    Rational factorial() {
+        BigInteger whole = numerator().divide(denominator());
+        if (whole.compareTo(BigInteger.valueOf(170)) > 0) return null;
+        BigInteger f = BigInteger.ONE;
+        for (int i = 2; i <= whole.intValue(); i++) f = f.multiply(BigInteger.valueOf(i));
+        return of(f, BigInteger.ONE);
+    }
+
+    // ========================= EXPANSION =========================
+    // Whole digits, then the fraction with its repeating block in parentheses: 1/3 -> 0.(01) in base 2.
+    String toString(int base) {
+        int shift = Integer.numberOfTrailingZeros(base);
+        StringBuilder sb = new StringBuilder();
+        if (signum() < 0) sb.append('-');
+
+        BigInteger[] qr = numerator().abs().divideAndRemainder(denominator());
+        sb.append(qr[0].toString(base).toUpperCase());
+        if (qr[1].signum() == 0) return sb.toString();
+        sb.append('.');
+
+        // Digits before the repeating block, one per s factors of two in the denominator
+        int twos = denominator().getLowestSetBit();
+        int preperiod = (twos + shift - 1) / shift;
+
+        // r * base has to fit in a long for the fast loop
+        if (!isBig() && den < (Long.MAX_VALUE >> shift)) {
+            expand(qr[1].longValue(), den, shift, preperiod, sb);
+        } else {
+            expand(qr[1], denominator(), shift, preperiod, sb);
+        }
+        return sb.toString();
+    }
+
+    private static void expand(long r, long d, int shift, int preperiod, StringBuilder sb) {
+        for (int i = 0; i < preperiod && r != 0; i++) {
+            r <<= shift;
+            sb.append(DIGITS.charAt((int) (r / d)));
+            r %= d;
+        }
+        if (r == 0) return;
+
+        // From here on the remainders run in a cycle that starts at r
+        int open = sb.length();
+        sb.append('(');
+        long start = r;
+        int count = 0;
+        do {
+            if (count++ == MAX_FRACTION_DIGITS) {
+                cutOff(sb, open);
+                return;
+            }
+            r <<= shift;
+            sb.append(DIGITS.charAt((int) (r / d)));
+            r %= d;
+        } while (r != start);
+        sb.append(')');
+    }
+
+    private static void expand(BigInteger r, BigInteger d, int shift, int preperiod, StringBuilder sb) {
+        for (int i = 0; i < preperiod && r.signum() != 0; i++) {
+            BigInteger[] qr = r.shiftLeft(shift).divideAndRemainder(d);
+            sb.append(DIGITS.charAt(qr[0].intValue()));
+            r = qr[1];
+        }
+        if (r.signum() == 0) return;
+
+        int open = sb.length();
+        sb.append('(');
+        BigInteger start = r;
+        int count = 0;
+        do {
+            if (count++ == MAX_FRACTION_DIGITS) {
+                cutOff(sb, open);
+                return;
+            }
+            BigInteger[] qr = r.shiftLeft(shift).divideAndRemainder(d);
+            sb.append(DIGITS.charAt(qr[0].intValue()));
+            r = qr[1];
+        } while (!r.equals(start));
+        sb.append(')');
+    }
+
+    // A block too long to print: drop the opening parenthesis and mark the digits as unfinished.
+    private static void cutOff(StringBuilder sb, int open) {
+        sb.deleteCharAt(open);
+        sb.append("...");
+    }
+
+    // ========================= EVALUATION =========================
+    // Runs the parser with exact values; null when the input uses something that is not rational
+    // (pi, e, rand, most functions, non-integer powers, division by zero). Parse errors are left in parser.status().
+    static Rational evaluate(CharSequence input, ExpressionParser parser) {
+        Builder builder = new Builder();
+        int result = parser.parse(input, builder);
+        return result < 0 ? null : builder.values[result];
+    }
+
+    // Same slot scheme as the double emitter: each leaf takes a slot and every operator
+    // overwrites its left operand's. A null slot holds a value that is not rational.
+    private static final class Builder implements ExpressionParser.Emitter {
+        private Rational[] values = new Rational[16];
+        private int count;
+
+        private int push(Rational value) {
+            if (count == values.length) values = Arrays.copyOf(values, count * 2);
+            values[count] = value;
+            return count++;
+        }
+
+        @Override public void reset() { count = 0; }
+
+        @Override public int number(CharSequence text, int start, int end, double value) { return push(parse(text, start, end)); }
+
+        @Override public int constant(double value) { return push(null); }
+
+        @Override public int random() { return push(null); }
+
+        @Override public int variable(CharSequence text, int start, int end) { return -ExpressionParser.UNKNOWN_FUNCTION; }
+
+        @Override
+        public int negate(int x) {
+            if (values[x] != null) values[x] = values[x].negate();
+            return x;
+        }
+
+        @Override
+        public int binary(char op, int x, int y) {
+            Rational a = values[x], b = values[y];
+            if (a == null || b == null) {
+                values[x] = null;
+                return x;
+            }
+            values[x] = switch (op) {
+                case '+' -> a.add(b);
+                case '-' -> a.subtract(b);
+                case '*' -> a.multiply(b);
+                case '/' -> a.divide(b);
+                case '%' -> a.remainder(b);
+                default -> a.pow(b);
+            };
+            return x;
+        }
+
+        @Override
+        public int function(int function, int x) {
+            Rational a = values[x];
+            if (a == null) return x;
+            values[x] = switch (function) {
+                case 0 -> a.sqrt();
+                case 6 -> a.abs();
+                default -> null;
+            };
+            return x;
+        }
+
+        @Override
+        public int factorial(int x) {
+            Rational a = values[x];
+            if (a == null) return x;
+            if (a.signum() < 0) return -ExpressionParser.NEGATIVE_FACTORIAL;
+            values[x] = a.factorial();
+            return x;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.binaryconverter;
+
+/**
+ * convert is evaluate followed by toBinary, with or without the cache.
+ *
+ * @author Wintry
+ */
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class BinaryConverterTest {
+    @Test
+    void convertIsEvaluateThenToBinary() {
+        for (String input : new String[] {"10", "0.1", "-3/4", "2 sqrt 9", "1 1/6", "2^-20"}) {
+            double value = BinaryConverter.evaluate(input);
+            assertEquals(BinaryConverter.toBinary(value), BinaryConverter.convert(input), input);
+            // The second call is answered from the cache
+            assertEquals(BinaryConverter.toBinary(value), BinaryConverter.convert(input), input);
+            assertEquals(BinaryConverter.toBinary(value, 4), BinaryConverter.convert(input, 4), input);
+        }
+        assertEquals("1010", BinaryConverter.convert("10"));
+    }
+
+    @Test
+    void placesPastTheScratchBufferAreWrittenOut() {
+        String binary = BinaryConverter.toBinary(0.5, 3000);
+        assertEquals("0.1" + "0".repeat(2999), binary);
+        assertEquals("0.1000000000", BinaryConverter.toBinary(0.5, 10));
+        assertEquals("0.1", BinaryConverter.toBinary(0.5, BinaryConverter.SHORTEST));
+    }
+
+    @Test
+    void negativePlacesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> BinaryConverter.toBinary(0.5, -2));
+        assertThrows(IllegalArgumentException.class, () -> BinaryConverter.toBinary(0.5, -2, new char[64], 0));
+        assertThrows(IllegalArgumentException.class, () -> BinaryConverter.maxBinaryLength(-5));
+    }
+
+    @Test
+    void invalidInputFailsTheSameWayInBoth() {
+        IllegalArgumentException evaluated = assertThrows(IllegalArgumentException.class, () -> BinaryConverter.evaluate("2 +"));
+        IllegalArgumentException converted = assertThrows(IllegalArgumentException.class, () -> BinaryConverter.convert("2 +"));
+        assertEquals(evaluated.getMessage(), converted.getMessage());
+    }
+}
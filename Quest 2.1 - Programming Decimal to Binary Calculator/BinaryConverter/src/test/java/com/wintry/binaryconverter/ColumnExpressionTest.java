@@ -0,0 +1,76 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.binaryconverter;
+
+/**
+ * ColumnExpression against the same arithmetic written out in Java, through
+ * the call forms the class documentation shows.
+ *
+ * @author Wintry
+ */
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ColumnExpressionTest {
+    private static double[] column(Random random, int rows) {
+        double[] values = new double[rows];
+        for (int i = 0; i < rows; i++) values[i] = random.nextInt(2000) - 1000 + random.nextDouble();
+        return values;
+    }
+
+    @Test
+    void documentedFormEvaluatesEveryRow() {
+        Random random = new Random(7);
+        double[] xs = column(random, 3000), ys = column(random, 3000);
+
+        double[] result = ColumnExpression.compile("x*2^8 + y % 16").evaluate(xs, ys);
+
+        assertEquals(xs.length, result.length);
+        for (int i = 0; i < xs.length; i++) assertEquals(xs[i] * 256 + ys[i] % 16, result[i], "row " + i);
+    }
+
+    @Test
+    void variablesAreBoundInOrderOfAppearance() {
+        ColumnExpression expression = ColumnExpression.compile("b - a");
+        assertEquals(List.of("b", "a"), expression.variables());
+        assertArrayEquals(new double[]{9, 18}, expression.evaluate(new double[]{10, 20}, new double[]{1, 2}));
+    }
+
+    @Test
+    void evaluateIntoFillsTheGivenBuffer() {
+        double[] out = new double[5];
+        ColumnExpression.compile("2^10").evaluateInto(out);
+        assertArrayEquals(new double[]{1024, 1024, 1024, 1024, 1024}, out);
+
+        double[] xs = {1, 4, 9};
+        double[] roots = new double[3];
+        ColumnExpression.compile("sqrt(x)").evaluateInto(roots, xs);
+        assertArrayEquals(new double[]{1, 2, 3}, roots);
+    }
+
+    @Test
+    void largeColumnsGiveTheSameRowsInParallel() {
+        Random random = new Random(11);
+        int rows = 200_000; // past the parallel threshold
+        double[] xs = column(random, rows), ys = column(random, rows);
+
+        double[] result = ColumnExpression.compile("(x - y) * (x + y) / 3").evaluate(xs, ys);
+
+        for (int i = 0; i < rows; i++) assertEquals((xs[i] - ys[i]) * (xs[i] + ys[i]) / 3, result[i], "row " + i);
+    }
+
+    @Test
+    void mismatchedColumnsAreRejected() {
+        ColumnExpression expression = ColumnExpression.compile("x + y");
+        assertThrows(IllegalArgumentException.class, () -> expression.evaluate(new double[3]));
+        assertThrows(IllegalArgumentException.class, () -> expression.evaluate(new double[3], new double[4]));
+        assertThrows(IllegalArgumentException.class, () -> ColumnExpression.compile("1 + 1").evaluate());
+    }
+}
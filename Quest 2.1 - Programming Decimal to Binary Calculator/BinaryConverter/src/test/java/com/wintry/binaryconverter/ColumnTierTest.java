@@ -0,0 +1,70 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.binaryconverter;
+
+/**
+ * ColumnExpression against BinaryConverter.evaluate for what only the
+ * BinaryConverter grammar has: %, asin, acos, atan, sinh, cosh, tanh, cbrt,
+ * exp, and factorials that turn into NaN rows. Each row is checked against
+ * the one-pass parser with its value written in place of v (no function
+ * name contains a v). The operators both grammars share are covered by
+ * ExpressionCompilerTest.
+ *
+ * @author Wintry
+ */
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ColumnTierTest {
+    private static final String[] SOURCES = {
+        "v % 3", "v % -2.5", "7 % v", "-(v % 0.375)", "(v % 4)^2",
+        "asin(v / 10)", "acos(v / 10)", "atan(v)", "sinh(v)", "cosh(v)", "tanh(v)", "cbrt(v)", "exp(v)",
+        "cbrt(v % 5) + exp(v / 4)", "atan(v) * 2 % pi", "sinh(asin(v / 10))",
+        "(v)!", "(v % 4)!", "(abs(v))! % 7"
+    };
+
+    // Multiples of 1/8 print without an exponent and read back as the same double.
+    private static final double[] COLUMN = {
+        0, 0.125, -0.125, 1, -1, 2.5, -2.5, 3, -3, 4.75, -4.75, 7, 9.875, -9.875, 10, -10
+    };
+
+    @Test
+    void columnRowsMatchOnePassEvaluation() {
+        for (String source : SOURCES) {
+            double[] rows = ColumnExpression.compile(source).evaluate(COLUMN);
+            for (int i = 0; i < rows.length; i++) {
+                String row = source.replace("v", "(" + COLUMN[i] + ")");
+                double expected;
+                try {
+                    expected = BinaryConverter.evaluate(row);
+                } catch (IllegalArgumentException ex) {
+                    // Negative factorials stop the one-pass parser; a column row becomes NaN instead
+                    assertTrue(Double.isNaN(rows[i]), row + " failed with " + ex.getMessage() + " but the column gave " + rows[i]);
+                    continue;
+                }
+                assertEquals(expected, rows[i], row);
+            }
+        }
+    }
+
+    @Test
+    void constantExpressionsMatchOnePassEvaluation() {
+        double[] out = new double[3];
+        for (String template : SOURCES) {
+            String source = template.replace("v", "2.5");
+            ColumnExpression.compile(source).evaluateInto(out);
+            for (double value : out) assertEquals(BinaryConverter.evaluate(source), value, source);
+        }
+    }
+
+    @Test
+    void constantNegativeFactorialIsRejectedUpFront() {
+        assertThrows(IllegalArgumentException.class, () -> ColumnExpression.compile("(-3)! + v"));
+        assertThrows(IllegalArgumentException.class, () -> BinaryConverter.evaluate("(-3)! + 1"));
+    }
+}
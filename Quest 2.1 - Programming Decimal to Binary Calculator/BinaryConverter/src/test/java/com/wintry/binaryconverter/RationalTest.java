@@ -0,0 +1,124 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.binaryconverter;
+
+/**
+ * Exact expansion with the repeating block in parentheses: known fractions
+ * through BinaryConverter.toExact, and random fractions read back from
+ * their expansion to the same numerator and denominator, with the shortest
+ * block and the fewest digits before it.
+ *
+ * @author Wintry
+ */
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class RationalTest {
+    private static final int[] BASES = {2, 8, 16};
+
+    @Test
+    void knownFractionsExpand() {
+        assertEquals("0.(01)", BinaryConverter.toExact("1/3", 2));
+        assertEquals("0.0(0011)", BinaryConverter.toExact("0.1", 2));
+        assertEquals("1.0(01)", BinaryConverter.toExact("1 1/6", 2));
+        assertEquals("0.1", BinaryConverter.toExact("0.5", 2));
+        assertEquals("-0.(001)", BinaryConverter.toExact("-1/7", 2));
+        assertEquals("0.(1)", BinaryConverter.toExact("1/7", 8));
+        assertEquals("0.1(9)", BinaryConverter.toExact("0.1", 16));
+        assertEquals("FF", BinaryConverter.toExact("255", 16));
+        assertEquals("0.(0000000001)", BinaryConverter.toExact("1/1023", 2));
+    }
+
+    @Test
+    void irrationalInputHasNoExpansion() {
+        assertNull(BinaryConverter.toExact("pi", 2));
+        assertNull(BinaryConverter.toExact("sqrt 2", 2));
+        assertEquals("1.1", BinaryConverter.toExact("sqrt(9/4)", 2));
+        assertThrows(IllegalArgumentException.class, () -> BinaryConverter.toExact("1/3", 10));
+    }
+
+    @Test
+    void rowsTheExactPathRejectsKeepTheirDoubleOutput() {
+        // -1e-400 underflows to -0.0, whose factorial is 1; exactly it is a negative factorial
+        assertEquals(1.0, BinaryConverter.evaluate("(-1e-400)!"));
+        assertThrows(IllegalArgumentException.class, () -> BinaryConverter.exactValue("(-1e-400)!"));
+        assertNull(BinaryConverter.displayedExact("(-1e-400)!"));
+        assertEquals("0.(01)", BinaryConverter.displayedExact("1/3").toString(2));
+    }
+
+    @Test
+    void expansionReadsBackAsTheSameFraction() {
+        Random random = new Random(19);
+        for (int i = 0; i < 3_000; i++) {
+            // Small denominators, and ones past the long fast path: 2^61 - 1 is prime
+            // with a period of 61 bits, so its blocks stay short enough to print
+            BigInteger num = BigInteger.valueOf(random.nextInt(2_000_001) - 1_000_000);
+            BigInteger den = i % 10 == 0
+                    ? BigInteger.ONE.shiftLeft(61).subtract(BigInteger.ONE).multiply(BigInteger.valueOf(15)).shiftLeft(random.nextInt(8))
+                    : BigInteger.valueOf(1 + random.nextInt(5_000));
+            Rational value = Rational.of(num, den);
+            for (int base : BASES) {
+                String text = value.toString(base);
+                Rational back = read(text, base);
+                assertEquals(value.numerator(), back.numerator(), text);
+                assertEquals(value.denominator(), back.denominator(), text);
+                assertShortest(text);
+            }
+        }
+    }
+
+    @Test
+    void overlongBlocksAreCutOff() {
+        // 2 has order 2 * 3^39 modulo 3^40, far more digits than are printed
+        String text = Rational.of(BigInteger.ONE, BigInteger.valueOf(3).pow(40)).toString(2);
+        assertTrue(text.startsWith("0.") && text.endsWith("...") && text.indexOf('(') < 0, text.substring(0, 20));
+        assertEquals("0.".length() + (1 << 16) + "...".length(), text.length());
+    }
+
+    // No shorter block repeats the same digits, and the last digit before the block
+    // differs from the block's last, or the block could start one digit earlier.
+    private static void assertShortest(String text) {
+        int open = text.indexOf('(');
+        if (open < 0) return;
+        String block = text.substring(open + 1, text.length() - 1);
+        for (int p = 1; p < block.length(); p++) {
+            if (block.length() % p == 0) assertNotEquals(block, block.substring(0, p).repeat(block.length() / p), text);
+        }
+        char before = text.charAt(open - 1);
+        assertTrue(before == '.' || before != block.charAt(block.length() - 1), text);
+    }
+
+    // whole.pre(block) = whole + (pre + block / (base^k - 1)) / base^m
+    private static Rational read(String text, int base) {
+        boolean negative = text.startsWith("-");
+        if (negative) text = text.substring(1);
+        int point = text.indexOf('.');
+        if (point < 0) return signed(Rational.of(new BigInteger(text, base), BigInteger.ONE), negative);
+
+        Rational value = Rational.of(new BigInteger(text.substring(0, point), base), BigInteger.ONE);
+        int open = text.indexOf('(');
+        String pre = text.substring(point + 1, open < 0 ? text.length() : open);
+        BigInteger b = BigInteger.valueOf(base);
+        BigInteger scale = b.pow(pre.length());
+        if (!pre.isEmpty()) value = value.add(Rational.of(new BigInteger(pre, base), scale));
+        if (open >= 0) {
+            String block = text.substring(open + 1, text.length() - 1);
+            BigInteger cycle = b.pow(block.length()).subtract(BigInteger.ONE);
+            value = value.add(Rational.of(new BigInteger(block, base), cycle.multiply(scale)));
+        }
+        return signed(value, negative);
+    }
+
+    private static Rational signed(Rational value, boolean negative) {
+        return negative ? value.negate() : value;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.radixconverter;
+
+/**
+ * Digit lookup for the parsers. VALUES maps every byte to its digit value
+ * (0-9, then A-Z and a-z as 10-35) or -1, replacing the old indexOf scans.
+ *
+ * For hex and binary, eight ASCII digits are also handled at once (SWAR):
+ * they are packed into one long, first digit in the top byte, and checked
+ * and combined with a few whole-word operations. A block that does not
+ * pass the check returns -1, and the caller goes through it digit by digit
+ * to find and report the bad character.
+ *
+ * @author Wintry
+ */
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+final class AsciiDigits {
+    static final int BLOCK = 8; // digits per long
+
+    private static final byte[] VALUES = new byte[256];
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        for (int c = '0'; c <= '9'; c++) VALUES[c] = (byte) (c - '0');
+        for (int c = 'A'; c <= 'Z'; c++) VALUES[c] = (byte) (c - 'A' + 10);
+        for (int c = 'a'; c <= 'z'; c++) VALUES[c] = (byte) (c - 'a' + 10);
+    }
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    private AsciiDigits() {}
+
+    static int value(int c) {
+        return c < 256 ? VALUES[c] : -1;
+    }
+
+    // ========================= PACKING =========================
+    // Eight chars as one long; a char above 0x7F makes the block invalid.
+    static long pack(CharSequence s, int i) {
+        long block = 0;
+        int any = 0;
+        for (int k = 0; k < BLOCK; k++) {
+            char c = s.charAt(i + k);
+            any |= c;
+            block = (block << 8) | c;
+        }
+        return (any & 0xFF80) == 0 ? block : -1;
+    }
+
+    static long pack(ByteBuffer ascii, int i) {
+        long block = ascii.getLong(i);
+        return ascii.order() == ByteOrder.BIG_ENDIAN ? block : Long.reverseBytes(block);
+    }
+
+    // ========================= SWAR =========================
+    // Value of eight hex digits, or -1 if any byte is not one.
+    static long hex8(long block) {
+        if ((block & HIGH_BITS) != 0) return -1;
+
+        // Letters have bit 6 set; their low nibble is 1-6, so nibble + 9 gives 10-15
+        long letter = (block >>> 6) & ONES;
+        long digits = (block & 0x0F0F0F0F0F0F0F0FL) + letter * 9;
+
+        // Every byte must be "0"-"9" with a value below 10, or a letter of either case with a value of 10-15
+        long atLeastTen = ((digits + 0x7676767676767676L) & HIGH_BITS) >>> 7;
+        long atLeastSixteen = (digits + 0x7070707070707070L) & HIGH_BITS;
+        long expected = digits + 0x3030303030303030L + letter * 0x27;
+        if (atLeastTen != letter || atLeastSixteen != 0 || (block | letter << 5) != expected) return -1;
+
+        // Merge neighbours: 8 nibbles in bytes -> 4 bytes -> 2 shorts -> 1 int
+        digits = (digits | digits >>> 4) & 0x00FF00FF00FF00FFL;
+        digits = (digits | digits >>> 8) & 0x0000FFFF0000FFFFL;
+        return (digits | digits >>> 16) & 0xFFFFFFFFL;
+    }
+
+    // Value of eight binary digits, or -1 if any byte is not '0' or '1'.
+    static long binary8(long block) {
+        if ((block & ~ONES) != 0x3030303030303030L) return -1;
+        long bits = block & ONES;
+        bits = (bits | bits >>> 7) & 0x0003000300030003L;
+        bits = (bits | bits >>> 14) & 0x0000000F0000000FL;
+        return (bits | bits >>> 28) & 0xFF;
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.radixconverter;
+
+/**
+ * Non-interactive mode: converts one value per line from a file or stdin and
+ * writes one tab separated line of outputs per input line.
+ *
+ *   RadixConverter --from 16 --to 2,8,10 [--precision 10|shortest] [--exact] [in.txt|-] [out.txt|-]
+ *
+ * --exact converts through BigDecimal so long inputs keep every digit.
+ * --precision shortest prints the fewest digits that read back as the same double.
+ *
+ * Files are read through memory-mapped windows and stdin through one reusable
+ * direct buffer, so heap usage stays the same no matter how big the input is.
+ *
+ * @author Wintry
+ */
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+final class BatchConverter {
+    private static final long MAP_WINDOW = 64L << 20;   // bytes mapped at a time
+    private static final int STREAM_BUFFER = 1 << 20;   // stdin and output buffer size
+    private static final int LINE_BUFFER = 1 << 16;     // starting size of the buffer for lines read as a String
+
+    private final int originBase;
+    private final int[] targetBases;
+    private final int precision;
+    private final boolean exact;
+    private final WritableByteChannel out;
+    private final ByteBuffer outBuffer = ByteBuffer.allocateDirect(STREAM_BUFFER);
+    private byte[] lineBytes = new byte[LINE_BUFFER];    // only used for lines that need a String; grows to the longest one
+    private final byte[] digits;
+
+    private long converted, invalid;
+
+    private BatchConverter(int originBase, int[] targetBases, int precision, boolean exact, WritableByteChannel out) {
+        this.originBase = originBase;
+        this.targetBases = targetBases;
+        this.precision = precision;
+        this.exact = exact;
+        this.out = out;
+        int maxLength = 0;
+        for (int base : targetBases) maxLength = Math.max(maxLength, RadixConverter.maxLength(base, precision));
+        this.digits = new byte[maxLength];
+    }
+
+    // ========================= ENTRY POINT =========================
+    static int run(String[] args) {
+        int originBase = -1;
+        int[] targetBases = null;
+        int precision = RadixConverter.FRACTION_PRECISION;
+        boolean exact = false;
+        String inPath = "-", outPath = "-";
+        int files = 0;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--from" -> originBase = parseBase(args[++i]);
+                    case "--to" -> {
+                        String[] parts = args[++i].split(",");
+                        targetBases = new int[parts.length];
+                        for (int t = 0; t < parts.length; t++) targetBases[t] = parseBase(parts[t].trim());
+                    }
+                    case "--precision" -> precision = args[++i].equals("shortest") ? RadixConverter.SHORTEST : Integer.parseInt(args[i]);
+                    case "--exact" -> exact = true;
+                    default -> {
+                        if (files == 0) inPath = args[i];
+                        else if (files == 1) outPath = args[i];
+                        else throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                        files++;
+                    }
+                }
+            }
+            if (originBase == -1 || targetBases == null) throw new IllegalArgumentException("--from and --to are required.");
+            if (precision < 0 && precision != RadixConverter.SHORTEST) throw new IllegalArgumentException("Precision cannot be negative.");
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println(">> " + (e instanceof ArrayIndexOutOfBoundsException ? "Missing value for " + args[args.length - 1] : e.getMessage()));
+            System.err.println("Usage: RadixConverter --from <base> --to <base>[,<base>...] [--precision <digits>|shortest] [--exact] [input|-] [output|-]");
+            return 2;
+        }
+
+        try (WritableByteChannel out = outPath.equals("-")
+                ? Channels.newChannel(new FileOutputStream(FileDescriptor.out))
+                : FileChannel.open(Path.of(outPath), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            BatchConverter batch = new BatchConverter(originBase, targetBases, precision, exact, out);
+            if (inPath.equals("-")) batch.convertStream(Channels.newChannel(System.in));
+            else batch.convertFile(Path.of(inPath));
+            batch.flush();
+            System.err.println(">> " + batch.converted + " converted, " + batch.invalid + " invalid.");
+            return batch.invalid == 0 ? 0 : 1;
+        } catch (IOException e) {
+            System.err.println(">> I/O error: " + e.getMessage());
+            return 3;
+        }
+    }
+
+    private static int parseBase(String text) {
+        int base = Integer.parseInt(text);
+        if (!RadixConverter.isSupportedBase(base)) throw new IllegalArgumentException("Invalid base " + base + ". Only bases 2 to 36 and 62 are supported.");
+        return base;
+    }
+
+    // ========================= INPUT =========================
+    private void convertFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long length = Math.min(MAP_WINDOW, size - position);
+                boolean last = position + length == size;
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int consumed = convertLines(window, (int) length, last);
+                if (consumed == 0) throw new IOException("Line longer than " + MAP_WINDOW + " bytes at offset " + position);
+                // The next window starts at the first unfinished line
+                position += consumed;
+            }
+        }
+    }
+
+    private void convertStream(ReadableByteChannel in) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(STREAM_BUFFER);
+        boolean eof = false;
+        while (!eof) {
+            eof = in.read(buffer) == -1;
+            int limit = buffer.position();
+            int consumed = convertLines(buffer, limit, eof);
+            if (consumed == 0 && limit == buffer.capacity()) throw new IOException("Line longer than " + STREAM_BUFFER + " bytes");
+            buffer.limit(limit).position(consumed);
+            buffer.compact();
+        }
+    }
+
+    // Converts every complete line in [0, limit) and returns how many bytes were used.
+    // When last is set the trailing line is converted even without a newline.
+    private int convertLines(ByteBuffer in, int limit, boolean last) throws IOException {
+        int lineStart = 0;
+        for (int i = 0; i < limit; i++) {
+            if (in.get(i) == '\n') {
+                convertLine(in, lineStart, i);
+                lineStart = i + 1;
+            }
+        }
+        if (last && lineStart < limit) {
+            convertLine(in, lineStart, limit);
+            lineStart = limit;
+        }
+        return lineStart;
+    }
+
+    // ========================= CONVERSION =========================
+    private void convertLine(ByteBuffer in, int start, int end) throws IOException {
+        while (start < end && isBlank(in.get(start))) start++;
+        while (end > start && isBlank(in.get(end - 1))) end--;
+        if (start == end) {
+            write('\n');
+            return;
+        }
+        if (exact) {
+            convertExactLine(in, start, end);
+            return;
+        }
+
+        double value;
+        try {
+            if (originBase != 10 && isPlainNumber(in, start, end, originBase)) {
+                value = RadixConverter.toDecimal(in, start, end, originBase);
+            } else {
+                // Anything else goes to the expression parser, which needs a String
+                value = RadixConverter.evaluateExpression(line(in, start, end));
+            }
+        } catch (RuntimeException e) {
+            invalid++;
+            write("Invalid input: " + e.getMessage());
+            write('\n');
+            return;
+        }
+
+        for (int t = 0; t < targetBases.length; t++) {
+            if (t > 0) write('\t');
+            int length = RadixConverter.fromDecimal(value, targetBases[t], precision, digits, 0);
+            if (outBuffer.remaining() < length) flush();
+            outBuffer.put(digits, 0, length);
+        }
+        write('\n');
+        converted++;
+    }
+
+    // Exact mode pays for a String per line; plain numbers are parsed exactly, expressions to 34 digits.
+    private void convertExactLine(ByteBuffer in, int start, int end) throws IOException {
+        String line = line(in, start, end);
+
+        BigDecimal value;
+        try {
+            if (isPlainNumber(in, start, end, originBase) && (originBase != 10 || isDecimalDigits(in, start, end))) {
+                value = RadixConverter.toBigDecimal(line, originBase);
+            } else {
+                value = RadixConverter.evaluateExpression(line, MathContext.DECIMAL128);
+            }
+        } catch (RuntimeException e) {
+            invalid++;
+            write("Invalid input: " + e.getMessage());
+            write('\n');
+            return;
+        }
+
+        for (int t = 0; t < targetBases.length; t++) {
+            if (t > 0) write('\t');
+            write(RadixConverter.fromBigDecimal(value, targetBases[t], precision));
+        }
+        write('\n');
+        converted++;
+    }
+
+    // The whole line as a String. The buffer grows rather than cut a long line short, which
+    // would convert a different number than the one in the input.
+    private String line(ByteBuffer in, int start, int end) {
+        int length = end - start;
+        if (length > lineBytes.length) lineBytes = new byte[Math.max(length, lineBytes.length * 2)];
+        in.get(start, lineBytes, 0, length);
+        return new String(lineBytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isDecimalDigits(ByteBuffer in, int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte b = in.get(i);
+            if (b != '.' && (b < '0' || b > '9')) return false;
+        }
+        return true;
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    // ByteBuffer version of RadixConverter.isPlainNumber: digits of the origin base, or hex digits below base 16.
+    private static boolean isPlainNumber(ByteBuffer in, int start, int end, int base) {
+        int digits = Math.max(base, 16);
+        int dot = -1;
+        for (int i = start; i < end; i++) {
+            byte b = in.get(i);
+            if (b == '.') {
+                if (dot != -1) return false;
+                dot = i;
+            } else if (RadixTables.value(b & 0xFF, digits) == -1) {
+                return false;
+            }
+        }
+        return dot != start && dot != end - 1;
+    }
+
+    // ========================= OUTPUT =========================
+    private void write(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) write((byte) text.charAt(i));
+    }
+
+    private void write(char c) throws IOException {
+        write((byte) c);
+    }
+
+    private void write(byte b) throws IOException {
+        if (!outBuffer.hasRemaining()) flush();
+        outBuffer.put(b);
+    }
+
+    private void flush() throws IOException {
+        outBuffer.flip();
+        while (outBuffer.hasRemaining()) out.write(outBuffer);
+        outBuffer.clear();
+    }
+}
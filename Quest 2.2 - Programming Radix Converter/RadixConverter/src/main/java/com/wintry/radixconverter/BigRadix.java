@@ -0,0 +1,185 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.radixconverter;
+
+/**
+ * Arbitrary precision radix conversion. Digit strings and BigIntegers are
+ * split in half around a cached power base^(2^k), so a long number costs a
+ * few big multiplications or divisions instead of one operation per digit.
+ * Only pieces that fit in a long are converted on their own, a chunk of
+ * digits at a time (see RadixTables).
+ *
+ * @author Wintry
+ */
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+final class BigRadix {
+    // POWERS.get(base)[k] = base^(2^k), grown on demand and shared by all threads
+    private static final AtomicReferenceArray<BigInteger[]> POWERS = new AtomicReferenceArray<>(RadixTables.MAX_BASE + 1);
+
+    private BigRadix() {}
+
+    // ========================= DIGITS -> NUMBER =========================
+    static BigDecimal parse(String number, int base, MathContext mc) {
+        int dot = number.indexOf('.');
+        int wholeEnd = dot == -1 ? number.length() : dot;
+        BigInteger whole = parseInteger(number, 0, wholeEnd, base);
+        if (dot == -1) return new BigDecimal(whole);
+
+        int fractionDigits = number.length() - dot - 1;
+        BigInteger fraction = parseInteger(number, dot + 1, number.length(), base);
+        BigInteger numerator = whole.multiply(BigInteger.valueOf(base).pow(fractionDigits)).add(fraction);
+
+        // n / base^k terminates in decimal for bases 10 and 2^s, so those stay exact
+        if (base == 10) return new BigDecimal(numerator, fractionDigits);
+        if (PowerOfTwoConverter.isPowerOfTwo(base)) {
+            int bits = Integer.numberOfTrailingZeros(base) * fractionDigits;
+            return new BigDecimal(numerator.multiply(BigInteger.valueOf(5).pow(bits)), bits);
+        }
+        return new BigDecimal(numerator).divide(new BigDecimal(BigInteger.valueOf(base).pow(fractionDigits)), mc);
+    }
+
+    static BigInteger parseInteger(CharSequence digits, int start, int end, int base) {
+        int length = end - start;
+        if (length <= RadixTables.longChunkDigits(base)) return BigInteger.valueOf(parseLong(digits, start, end, base));
+
+        // high * base^(2^k) + low, where low is the last 2^k digits
+        int k = 31 - Integer.numberOfLeadingZeros(length - 1);
+        int split = end - (1 << k);
+        BigInteger high = parseInteger(digits, start, split, base);
+        BigInteger low = parseInteger(digits, split, end, base);
+        return high.multiply(power(base, k)).add(low);
+    }
+
+    private static long parseLong(CharSequence digits, int start, int end, int base) {
+        long result = 0;
+        for (int i = start; i < end; i++) {
+            char c = digits.charAt(i);
+            int digit = RadixTables.value(c, base);
+            if (digit == -1) throw RadixTables.invalidDigit(c, base);
+            result = result * base + digit;
+        }
+        return result;
+    }
+
+    // The digits as the nearest double. n / base^f is divided out to two bits past the last one the
+    // double keeps, with a sticky bit for the rest, and rounded half to even like Double.parseDouble.
+    static double toDouble(CharSequence number, int start, int end, int base) {
+        int dot = start;
+        while (dot < end && number.charAt(dot) != '.') dot++;
+        BigInteger whole = parseInteger(number, start, dot, base);
+        if (dot >= end - 1) return toDouble(whole, BigInteger.ONE);
+
+        int fractionDigits = end - dot - 1;
+        BigInteger scale = BigInteger.valueOf(base).pow(fractionDigits);
+        return toDouble(whole.multiply(scale).add(parseInteger(number, dot + 1, end, base)), scale);
+    }
+
+    // Nearest double to num / den, both non-negative.
+    static double toDouble(BigInteger num, BigInteger den) {
+        if (num.signum() == 0) return 0;
+        // 2^s * num / den gets 55 or 56 bits, but never a unit below 2^-1076, two bits under the smallest subnormal
+        int s = Math.min(55 - (num.bitLength() - den.bitLength()), 1076);
+        BigInteger[] qr = (s >= 0 ? num.shiftLeft(s) : num).divideAndRemainder(s >= 0 ? den : den.shiftLeft(-s));
+        long q = qr[0].longValue();
+        boolean sticky = qr[1].signum() != 0;
+
+        // Drop down to 53 bits, or fewer where the result is subnormal
+        int extra = Math.max(64 - Long.numberOfLeadingZeros(q) - 53, s - 1074);
+        long kept = q >>> extra;
+        long rest = q & ((1L << extra) - 1), half = 1L << (extra - 1);
+        if (rest > half || rest == half && (sticky || (kept & 1) != 0)) kept++;
+        return Math.scalb((double) kept, extra - s);
+    }
+
+    // ========================= NUMBER -> DIGITS =========================
+    static String format(BigDecimal value, int base, int precision) {
+        if (value.signum() == 0) return "0";
+
+        StringBuilder sb = new StringBuilder();
+        if (value.signum() < 0) sb.append('-');
+        value = value.abs();
+
+        BigInteger whole = value.toBigInteger();
+        if (whole.signum() == 0) sb.append('0');
+        else write(whole, base, 0, sb);
+
+        BigDecimal fraction = value.subtract(new BigDecimal(whole));
+        if (fraction.signum() > 0) {
+            sb.append('.');
+            // All fraction digits at once: floor(fraction * base^precision), padded to precision digits
+            BigDecimal scaled = fraction.multiply(new BigDecimal(BigInteger.valueOf(base).pow(precision)));
+            BigInteger digits = scaled.toBigInteger();
+            int start = sb.length();
+            if (precision > 0) write(digits, base, precision, sb);
+            // Like the double version, an expansion that ends early has no trailing zeros
+            if (scaled.compareTo(new BigDecimal(digits)) == 0) {
+                int end = sb.length();
+                while (end > start && sb.charAt(end - 1) == '0') end--;
+                sb.setLength(end);
+            }
+        }
+        return sb.toString();
+    }
+
+    static String toString(BigInteger value, int base) {
+        if (value.signum() == 0) return "0";
+        StringBuilder sb = new StringBuilder();
+        if (value.signum() < 0) sb.append('-');
+        write(value.abs(), base, 0, sb);
+        return sb.toString();
+    }
+
+    // Appends a non-negative value, left padded with zeros to pad digits when pad > 0.
+    private static void write(BigInteger value, int base, int pad, StringBuilder sb) {
+        if (value.bitLength() < 63) {
+            writeLong(value.longValue(), base, pad, sb);
+            return;
+        }
+
+        // Divide by the largest cached power with at most half the bits, which keeps the quotient non-zero
+        int halfBits = (value.bitLength() + 1) / 2;
+        int k = 0;
+        while (power(base, k + 1).bitLength() <= halfBits) k++;
+
+        BigInteger[] qr = value.divideAndRemainder(power(base, k));
+        int lowDigits = 1 << k;
+        write(qr[0], base, pad > 0 ? pad - lowDigits : 0, sb);
+        write(qr[1], base, lowDigits, sb);
+    }
+
+    private static void writeLong(long value, int base, int pad, StringBuilder sb) {
+        char[] digits = new char[64];
+        int count = RadixTables.digitCount(value, base);
+        RadixTables.write(value, base, count, digits, count);
+        for (int i = count; i < pad; i++) sb.append('0');
+        sb.append(digits, 0, count);
+    }
+
+    // ========================= POWER CACHE =========================
+    // base^(2^k); each one is the square of the previous and is computed once per base.
+    static BigInteger power(int base, int k) {
+        BigInteger[] powers = POWERS.get(base);
+        if (powers == null || powers.length <= k) powers = growPowers(base, k);
+        return powers[k];
+    }
+
+    private static synchronized BigInteger[] growPowers(int base, int k) {
+        BigInteger[] powers = POWERS.get(base);
+        if (powers != null && powers.length > k) return powers;
+
+        int size = powers == null ? 0 : powers.length;
+        BigInteger[] grown = new BigInteger[k + 1];
+        if (size > 0) System.arraycopy(powers, 0, grown, 0, size);
+        for (int i = size; i <= k; i++) {
+            grown[i] = i == 0 ? BigInteger.valueOf(base) : grown[i - 1].multiply(grown[i - 1]);
+        }
+        POWERS.set(base, grown);
+        return grown;
+    }
+}
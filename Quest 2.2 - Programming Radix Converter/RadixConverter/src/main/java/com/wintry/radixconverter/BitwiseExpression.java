@@ -0,0 +1,432 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.radixconverter;
+
+/**
+ * A bitwise expression over fixed-width two's complement words, parsed once
+ * into an immutable tree like CompiledExpression. This is the Java version
+ * of the Quest 3.1 bitwise calculator workbooks.
+ *
+ *   ~ x   x & y   x | y   x ^ y   x << n   x >> n   x >>> n   -x
+ *   rol(x, n)   ror(x, n)   popcount(x)
+ *
+ * Precedence is Java's: unary operators, then shifts, &, ^ and finally |.
+ * Literals are 0b1010, 0o17, 0x1F or plain decimal; a literal may use all
+ * width bits, so at width 8 0xFF is -1. Names that are not functions are
+ * variables, bound by position when evaluating.
+ *
+ * Every value is a long holding the word sign-extended from the width (8,
+ * 16, 32 or 64 bits), and every operation re-extends its result, so the
+ * arithmetic is that of a byte, short, int or long. Shift and rotate counts
+ * are taken modulo the width, as Java does for int and long.
+ *
+ * evaluate walks the tree once per row. evaluateColumns goes the other way
+ * round: every node runs over a block of rows at a time into a scratch
+ * array, so each operator becomes a tight loop over primitive longs.
+ *
+ * @author Wintry
+ */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public final class BitwiseExpression {
+    private static final int BLOCK = 1024;                   // rows per column pass
+    private static final int PARALLEL_THRESHOLD = 16 * BLOCK; // smaller columns stay on the calling thread
+
+    private final String source;
+    private final int width;
+    private final Node root;
+    private final List<String> variables;
+
+    private BitwiseExpression(String source, int width, Node root, List<String> variables) {
+        this.source = source;
+        this.width = width;
+        this.root = root;
+        this.variables = Collections.unmodifiableList(variables);
+    }
+
+    // ========================= COMPILE =========================
+    public static BitwiseExpression compile(String expr, int width) {
+        checkWidth(width);
+        Parser parser = new Parser(expr, width);
+        Node root = parser.parse();
+        return new BitwiseExpression(expr, width, root, parser.variables);
+    }
+
+    static void checkWidth(int width) {
+        if (width != 8 && width != 16 && width != 32 && width != 64) {
+            throw new IllegalArgumentException("Invalid width " + width + ". Only 8, 16, 32 and 64 bits are supported.");
+        }
+    }
+
+    // The value sign-extended from its low width bits.
+    static long extend(long value, int width) {
+        int unused = 64 - width;
+        return value << unused >> unused;
+    }
+
+    // ========================= EVALUATE =========================
+    public long evaluate() {
+        if (!variables.isEmpty()) throw new IllegalArgumentException("Unbound variable: " + variables.get(0));
+        return root.eval(null);
+    }
+
+    // Values are matched to variables() by position and cut to the width first.
+    public long evaluate(long... values) {
+        checkArity(values.length);
+        long[] vars = new long[values.length];
+        for (int i = 0; i < vars.length; i++) vars[i] = extend(values[i], width);
+        return root.eval(vars);
+    }
+
+    // columns[v] holds the operands for variable v; row i of the result uses row i of every column.
+    // An expression without variables has no columns to go by and gives a single row.
+    public long[] evaluateColumns(long[]... columns) {
+        return evaluateColumns(null, columns);
+    }
+
+    // Same, with blocks of rows spread over pool once the columns are long enough.
+    public long[] evaluateColumns(ForkJoinPool pool, long[]... columns) {
+        checkArity(columns.length);
+        int rows = columns.length == 0 ? 1 : columns[0].length;
+        for (long[] column : columns) {
+            if (column.length != rows) throw new IllegalArgumentException("Columns differ in length: " + rows + " and " + column.length);
+        }
+
+        long[] result = new long[rows];
+        int blocks = (rows + BLOCK - 1) / BLOCK;
+        boolean parallel = pool != null && rows >= PARALLEL_THRESHOLD;
+        // Every task needs its own scratch rows, so the sequential path keeps one set for all blocks
+        long[][] shared = parallel ? null : new long[root.height][BLOCK];
+        ColumnConverter.forEachChunk(blocks, parallel, pool, block -> {
+            int from = block * BLOCK, length = Math.min(BLOCK, rows - from);
+            long[][] scratch = shared != null ? shared : new long[root.height][BLOCK];
+            root.evalColumn(columns, from, length, scratch, 0);
+            System.arraycopy(scratch[0], 0, result, from, length);
+        });
+        return result;
+    }
+
+    private void checkArity(int count) {
+        if (count != variables.size()) throw new IllegalArgumentException("Expected " + variables.size() + " values, got " + count);
+    }
+
+    public List<String> variables() { return variables; }
+
+    public int width() { return width; }
+
+    public boolean isConstant() { return root instanceof Constant; }
+
+    @Override
+    public String toString() { return source; }
+
+    // ========================= TWO'S COMPLEMENT DISPLAY =========================
+    // The low width bits of value in base 2, 8 or 16, zero-padded to every digit of the word:
+    // -1 at width 8 is 11111111 in base 2, 377 in base 8 and FF in base 16.
+    static int format(long value, int base, int width, byte[] dest, int offset) {
+        int shift = Integer.numberOfTrailingZeros(base);
+        int digits = (width + shift - 1) / shift;
+        long bits = width == 64 ? value : value & ((1L << width) - 1);
+        for (int i = digits - 1; i >= 0; i--) {
+            dest[offset + i] = (byte) "0123456789ABCDEF".charAt((int) (bits & (base - 1)));
+            bits >>>= shift;
+        }
+        return digits;
+    }
+
+    static int formatLength(int base, int width) {
+        int shift = Integer.numberOfTrailingZeros(base);
+        return (width + shift - 1) / shift;
+    }
+
+    // ========================= PARSER =========================
+    // Recursive descent, one method per precedence level, folding constant subtrees as it goes.
+    private static final class Parser {
+        private final String expr;
+        private final int width;
+        private final List<String> variables = new ArrayList<>();
+        private int pos = -1, ch;
+
+        Parser(String expr, int width) {
+            this.expr = expr;
+            this.width = width;
+        }
+
+        void nextChar() { ch = (++pos < expr.length()) ? expr.charAt(pos) : -1; }
+
+        boolean eat(int charToEat) {
+            while (ch == ' ') nextChar();
+            if (ch == charToEat) { nextChar(); return true; }
+            return false;
+        }
+
+        // Operators that are a prefix of a longer one (< of <<, > of >> and >>>) are checked longest first.
+        boolean eat(String operator) {
+            while (ch == ' ') nextChar();
+            if (!expr.startsWith(operator, pos)) return false;
+            for (int i = 0; i < operator.length(); i++) nextChar();
+            return true;
+        }
+
+        Node parse() {
+            nextChar();
+            Node x = parseOr();
+            if (pos < expr.length()) throw new RuntimeException("Unexpected: " + (char)ch);
+            return x;
+        }
+
+        Node parseOr() {
+            Node x = parseXor();
+            while (eat('|')) x = binary(Op.OR, x, parseXor());
+            return x;
+        }
+
+        Node parseXor() {
+            Node x = parseAnd();
+            while (eat('^')) x = binary(Op.XOR, x, parseAnd());
+            return x;
+        }
+
+        Node parseAnd() {
+            Node x = parseShift();
+            while (eat('&')) x = binary(Op.AND, x, parseShift());
+            return x;
+        }
+
+        Node parseShift() {
+            Node x = parseUnary();
+            while (true) {
+                if      (eat(">>>")) x = binary(Op.USHR, x, parseUnary());
+                else if (eat(">>"))  x = binary(Op.SHR, x, parseUnary());
+                else if (eat("<<"))  x = binary(Op.SHL, x, parseUnary());
+                else return x;
+            }
+        }
+
+        Node parseUnary() {
+            if (eat('~')) return unary(Op.NOT, parseUnary());
+            if (eat('-')) return unary(Op.NEG, parseUnary());
+            if (eat('+')) return parseUnary();
+
+            int startPos = this.pos;
+            if (eat('(')) {
+                Node x = parseOr();
+                if (!eat(')')) throw new RuntimeException("Missing )");
+                return x;
+            }
+            if (ch >= '0' && ch <= '9') {
+                while (Character.isLetterOrDigit(ch)) nextChar();
+                return new Constant(literal(expr.substring(startPos, this.pos)), width);
+            }
+            if (Character.isLetter(ch)) {
+                while (Character.isLetterOrDigit(ch) || ch == '_') nextChar();
+                String name = expr.substring(startPos, this.pos);
+                switch (name.toLowerCase()) {
+                    case "rol" -> { return call(Op.ROL, 2); }
+                    case "ror" -> { return call(Op.ROR, 2); }
+                    case "popcount" -> { return call(Op.POPCOUNT, 1); }
+                    default -> { return variable(name); }
+                }
+            }
+            throw new RuntimeException("Unexpected: " + (ch == -1 ? "end of expression" : String.valueOf((char)ch)));
+        }
+
+        // rol(x, n), ror(x, n) and popcount(x)
+        Node call(Op op, int arguments) {
+            if (!eat('(')) throw new RuntimeException("Missing ( after " + op.name().toLowerCase());
+            Node x = parseOr();
+            Node n = null;
+            if (arguments == 2) {
+                if (!eat(',')) throw new RuntimeException("Missing , in " + op.name().toLowerCase());
+                n = parseOr();
+            }
+            if (!eat(')')) throw new RuntimeException("Missing ) after " + op.name().toLowerCase());
+            return n == null ? unary(op, x) : binary(op, x, n);
+        }
+
+        // 0b, 0o and 0x select the base; every width bit may be set, larger values are an error.
+        long literal(String text) {
+            int base = 10, start = 0;
+            if (text.length() > 2 && text.charAt(0) == '0') {
+                switch (Character.toLowerCase(text.charAt(1))) {
+                    case 'b' -> { base = 2; start = 2; }
+                    case 'o' -> { base = 8; start = 2; }
+                    case 'x' -> { base = 16; start = 2; }
+                    default -> {}
+                }
+            }
+            long value;
+            try {
+                value = Long.parseUnsignedLong(text, start, text.length(), base);
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Malformed number: " + text);
+            }
+            if (width < 64 && value >>> width != 0) throw new RuntimeException("Literal " + text + " does not fit in " + width + " bits.");
+            return value;
+        }
+
+        Node variable(String name) {
+            int index = variables.indexOf(name);
+            if (index < 0) {
+                index = variables.size();
+                variables.add(name);
+            }
+            return new Variable(index, width);
+        }
+
+        Node unary(Op op, Node operand) {
+            Node node = new Unary(op, operand, width);
+            return operand instanceof Constant ? new Constant(node.eval(null), width) : node;
+        }
+
+        Node binary(Op op, Node left, Node right) {
+            Node node = new Binary(op, left, right, width);
+            return left instanceof Constant && right instanceof Constant ? new Constant(node.eval(null), width) : node;
+        }
+    }
+
+    // ========================= NODES =========================
+    enum Op {
+        NOT, NEG, POPCOUNT, AND, OR, XOR, SHL, SHR, USHR, ROL, ROR;
+
+        // x is sign-extended from width; the result may not be, Unary and Binary re-extend it.
+        long apply(long x, int width) {
+            return switch (this) {
+                case NOT -> ~x;
+                case NEG -> -x;
+                case POPCOUNT -> Long.bitCount(width == 64 ? x : x & ((1L << width) - 1));
+                default -> throw new IllegalStateException(this + " takes two operands");
+            };
+        }
+
+        long apply(long x, long y, int width) {
+            int n = (int) (y & (width - 1));
+            long bits = width == 64 ? x : x & ((1L << width) - 1);
+            return switch (this) {
+                case AND -> x & y;
+                case OR -> x | y;
+                case XOR -> x ^ y;
+                case SHL -> x << n;
+                case SHR -> x >> n;
+                case USHR -> bits >>> n;
+                case ROL -> n == 0 ? x : bits << n | bits >>> (width - n);
+                case ROR -> n == 0 ? x : bits >>> n | bits << (width - n);
+                default -> throw new IllegalStateException(this + " takes one operand");
+            };
+        }
+    }
+
+    // eval computes one row; evalColumn computes rows from .. from + length into scratch[level],
+    // using the rows above level for its operands. height is how many scratch rows that takes.
+    abstract static class Node {
+        final int height;
+
+        Node(int height) { this.height = height; }
+
+        abstract long eval(long[] vars);
+        abstract void evalColumn(long[][] columns, int from, int length, long[][] scratch, int level);
+    }
+
+    static final class Constant extends Node {
+        final long value;
+
+        Constant(long value, int width) {
+            super(1);
+            this.value = extend(value, width);
+        }
+
+        @Override long eval(long[] vars) { return value; }
+
+        @Override
+        void evalColumn(long[][] columns, int from, int length, long[][] scratch, int level) {
+            Arrays.fill(scratch[level], 0, length, value);
+        }
+    }
+
+    static final class Variable extends Node {
+        final int index;
+        final int width;
+
+        Variable(int index, int width) {
+            super(1);
+            this.index = index;
+            this.width = width;
+        }
+
+        @Override long eval(long[] vars) { return vars[index]; }
+
+        // Column values are cut to the width here, once per row
+        @Override
+        void evalColumn(long[][] columns, int from, int length, long[][] scratch, int level) {
+            long[] column = columns[index], x = scratch[level];
+            int unused = 64 - width;
+            for (int i = 0; i < length; i++) x[i] = column[from + i] << unused >> unused;
+        }
+    }
+
+    static final class Unary extends Node {
+        final Op op;
+        final Node operand;
+        final int width;
+
+        Unary(Op op, Node operand, int width) {
+            super(operand.height);
+            this.op = op;
+            this.operand = operand;
+            this.width = width;
+        }
+
+        @Override long eval(long[] vars) { return extend(op.apply(operand.eval(vars), width), width); }
+
+        @Override
+        void evalColumn(long[][] columns, int from, int length, long[][] scratch, int level) {
+            operand.evalColumn(columns, from, length, scratch, level);
+            long[] x = scratch[level];
+            int unused = 64 - width;
+            switch (op) {
+                case NOT -> { for (int i = 0; i < length; i++) x[i] = ~x[i]; }
+                case NEG -> { for (int i = 0; i < length; i++) x[i] = -x[i] << unused >> unused; }
+                default -> { for (int i = 0; i < length; i++) x[i] = extend(op.apply(x[i], width), width); }
+            }
+        }
+    }
+
+    static final class Binary extends Node {
+        final Op op;
+        final Node left, right;
+        final int width;
+
+        Binary(Op op, Node left, Node right, int width) {
+            // The left operand fills this level while the right one works one level up
+            super(Math.max(left.height, right.height + 1));
+            this.op = op;
+            this.left = left;
+            this.right = right;
+            this.width = width;
+        }
+
+        @Override long eval(long[] vars) { return extend(op.apply(left.eval(vars), right.eval(vars), width), width); }
+
+        // One loop per operator, so the JIT sees a plain array loop it can unroll and vectorize
+        @Override
+        void evalColumn(long[][] columns, int from, int length, long[][] scratch, int level) {
+            left.evalColumn(columns, from, length, scratch, level);
+            right.evalColumn(columns, from, length, scratch, level + 1);
+            long[] x = scratch[level], y = scratch[level + 1];
+            int unused = 64 - width;
+            switch (op) {
+                case AND -> { for (int i = 0; i < length; i++) x[i] &= y[i]; }
+                case OR -> { for (int i = 0; i < length; i++) x[i] |= y[i]; }
+                case XOR -> { for (int i = 0; i < length; i++) x[i] ^= y[i]; }
+                case SHL -> { for (int i = 0; i < length; i++) x[i] = x[i] << (y[i] & (width - 1)) << unused >> unused; }
+                case SHR -> { for (int i = 0; i < length; i++) x[i] >>= y[i] & (width - 1); }
+                default -> { for (int i = 0; i < length; i++) x[i] = extend(op.apply(x[i], y[i], width), width); }
+            }
+        }
+    }
+}
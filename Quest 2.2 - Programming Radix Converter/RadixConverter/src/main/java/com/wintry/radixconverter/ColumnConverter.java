@@ -0,0 +1,119 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.radixconverter;
+
+/**
+ * Converts whole arrays at once. The input is cut into fixed-size chunks
+ * that fork/join workers convert into their own buffers. Once every chunk
+ * length is known, one exactly sized byte[] is allocated and the chunks are
+ * copied into it in parallel, shifting their offsets as they go.
+ *
+ * @author Wintry
+ */
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+final class ColumnConverter {
+    private static final int CHUNK = 4096;                  // values per leaf task
+    private static final int PARALLEL_THRESHOLD = 4 * CHUNK; // smaller arrays stay on the calling thread
+
+    private ColumnConverter() {}
+
+    // Writes value i of the chunk's input into dest at offset and returns the length.
+    private interface ValueWriter {
+        int write(int index, byte[] dest, int offset);
+    }
+
+    static ConvertedColumn convert(double[] values, int base, int precision, ForkJoinPool pool) {
+        int maxLength = RadixConverter.maxLength(base, precision);
+        return convert(values.length, maxLength, pool,
+                (i, dest, offset) -> RadixConverter.fromDecimal(values[i], base, precision, dest, offset));
+    }
+
+    static ConvertedColumn convert(long[] values, int base, ForkJoinPool pool) {
+        int maxLength = 1 + 64; // sign and 64 binary digits
+        return convert(values.length, maxLength, pool,
+                (i, dest, offset) -> RadixConverter.fromLong(values[i], base, dest, offset));
+    }
+
+    // Two's complement words, every value padded to the digits of the whole width
+    static ConvertedColumn convertWords(long[] values, int base, int width, ForkJoinPool pool) {
+        return convert(values.length, BitwiseExpression.formatLength(base, width), pool,
+                (i, dest, offset) -> BitwiseExpression.format(values[i], base, width, dest, offset));
+    }
+
+    private static ConvertedColumn convert(int count, int maxLength, ForkJoinPool pool, ValueWriter writer) {
+        int[] offsets = new int[count + 1];
+        int chunks = (count + CHUNK - 1) / CHUNK;
+        byte[][] chunkData = new byte[chunks][];
+        boolean parallel = count >= PARALLEL_THRESHOLD;
+
+        // Pass 1: each chunk converts into its own buffer; offsets[i + 1] holds the end of value i within that buffer
+        forEachChunk(chunks, parallel, pool, chunk -> {
+            int from = chunk * CHUNK, to = Math.min(count, from + CHUNK);
+            byte[] buffer = new byte[(to - from) * 16];
+            int position = 0;
+            for (int i = from; i < to; i++) {
+                if (buffer.length - position < maxLength) buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + maxLength));
+                position += writer.write(i, buffer, position);
+                offsets[i + 1] = position;
+            }
+            chunkData[chunk] = buffer;
+        });
+
+        // Chunk start positions in the final array
+        int[] chunkStart = new int[chunks + 1];
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int last = Math.min(count, (chunk + 1) * CHUNK);
+            chunkStart[chunk + 1] = chunkStart[chunk] + offsets[last];
+        }
+
+        // Pass 2: copy every chunk into place and make its offsets absolute
+        byte[] data = new byte[chunkStart[chunks]];
+        forEachChunk(chunks, parallel, pool, chunk -> {
+            int from = chunk * CHUNK, to = Math.min(count, from + CHUNK);
+            int start = chunkStart[chunk];
+            System.arraycopy(chunkData[chunk], 0, data, start, chunkStart[chunk + 1] - start);
+            chunkData[chunk] = null;
+            for (int i = from + 1; i <= to; i++) offsets[i] += start;
+        });
+        return new ConvertedColumn(data, offsets);
+    }
+
+    // Runs action for every chunk index, split over the pool when parallel is set.
+    static void forEachChunk(int chunks, boolean parallel, ForkJoinPool pool, IntConsumer action) {
+        if (!parallel) {
+            for (int chunk = 0; chunk < chunks; chunk++) action.accept(chunk);
+            return;
+        }
+        pool.invoke(new ChunkTask(0, chunks, action));
+    }
+
+    // Splits the chunk range in halves until one chunk is left. Tasks are never serialized,
+    // so the action is transient and the ID only keeps the serial lint quiet.
+    private static final class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int from, to;
+        private final transient IntConsumer action;
+
+        ChunkTask(int from, int to, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                action.accept(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ChunkTask(from, mid, action), new ChunkTask(mid, to, action));
+        }
+    }
+}
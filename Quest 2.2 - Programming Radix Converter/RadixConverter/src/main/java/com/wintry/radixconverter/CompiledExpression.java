@@ -0,0 +1,416 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.radixconverter;
+
+/**
+ * An expression parsed once into an immutable tree. Constant subtrees are
+ * folded while parsing, names that are not constants or functions become
+ * variables, and evaluation is a plain tree walk, so one instance can be
+ * shared between threads.
+ *
+ * After COMPILE_THRESHOLD double evaluations the tree is also compiled to
+ * bytecode (see ExpressionCompiler) and later evaluations run that instead.
+ * If compiling fails the expression simply stays on the tree walk.
+ *
+ * @author Wintry
+ */
+import com.wintry.common.DecimalLiteral;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public final class CompiledExpression {
+    // -Dradixconverter.compileThreshold=0 turns the bytecode tier off
+    private static final int COMPILE_THRESHOLD = Integer.getInteger("radixconverter.compileThreshold", 1000);
+
+    private final String source;
+    private final Node root;
+    private final List<String> variables;
+    private volatile Evaluator evaluator; // set once promoted, to the compiled class or the tree itself
+    private int evaluations;              // racy on purpose: promotion only has to happen roughly once
+
+    private CompiledExpression(String source, Node root, List<String> variables) {
+        this.source = source;
+        this.root = root;
+        this.variables = Collections.unmodifiableList(variables);
+    }
+
+    // ========================= COMPILE =========================
+    public static CompiledExpression compile(String expr) {
+        Parser parser = new Parser(expr);
+        Node root = parser.parse();
+        return new CompiledExpression(expr, root, parser.variables);
+    }
+
+    // ========================= EVALUATE =========================
+    public double evaluate() {
+        if (!variables.isEmpty()) throw new IllegalArgumentException("Unbound variable: " + variables.get(0));
+        return eval(null);
+    }
+
+    // Values are matched to variables() by position.
+    public double evaluate(double... values) {
+        if (values.length != variables.size()) {
+            throw new IllegalArgumentException("Expected " + variables.size() + " values, got " + values.length);
+        }
+        return eval(values);
+    }
+
+    public double evaluate(Map<String, Double> values) {
+        double[] bound = new double[variables.size()];
+        for (int i = 0; i < bound.length; i++) {
+            Double value = values.get(variables.get(i));
+            if (value == null) throw new IllegalArgumentException("Unbound variable: " + variables.get(i));
+            bound[i] = value;
+        }
+        return eval(bound);
+    }
+
+    private double eval(double[] vars) {
+        Evaluator current = evaluator;
+        if (current != null) return current.evaluate(vars);
+        if (++evaluations == COMPILE_THRESHOLD) promote();
+        return root.eval(vars);
+    }
+
+    private void promote() {
+        try {
+            evaluator = ExpressionCompiler.compile(root);
+        } catch (RuntimeException | LinkageError | ReflectiveOperationException e) {
+            evaluator = root::eval; // stay interpreted and stop counting
+        }
+    }
+
+    // Arbitrary precision evaluation; every rounding step uses mc.
+    public BigDecimal evaluate(MathContext mc) {
+        if (!variables.isEmpty()) throw new IllegalArgumentException("Unbound variable: " + variables.get(0));
+        return root.evalBig(null, mc).round(mc);
+    }
+
+    public BigDecimal evaluate(MathContext mc, BigDecimal... values) {
+        if (values.length != variables.size()) {
+            throw new IllegalArgumentException("Expected " + variables.size() + " values, got " + values.length);
+        }
+        return root.evalBig(values, mc).round(mc);
+    }
+
+    public List<String> variables() { return variables; }
+
+    // The parsed tree, for ExpressionCompiler and for comparing the two tiers.
+    Node root() { return root; }
+
+    public boolean isConstant() { return root instanceof Constant; }
+
+    @Override
+    public String toString() { return source; }
+
+    // ========================= PARSER =========================
+    // Same grammar as the old evaluateExpression parser, building nodes instead of values.
+    private static final class Parser {
+        private final String expr;
+        private final List<String> variables = new ArrayList<>();
+        private int pos = -1, ch;
+
+        Parser(String expr) { this.expr = expr; }
+
+        void nextChar() { ch = (++pos < expr.length()) ? expr.charAt(pos) : -1; }
+
+        boolean eat(int charToEat) {
+            while (ch == ' ') nextChar();
+            if (ch == charToEat) { nextChar(); return true; }
+            return false;
+        }
+
+        Node parse() {
+            nextChar();
+            Node x = parseExpression();
+            if (pos < expr.length()) throw new RuntimeException("Unexpected: " + (char)ch);
+            return x;
+        }
+
+        Node parseExpression() {
+            Node x = parseTerm();
+            while (true) {
+                if      (eat('+')) x = binary('+', x, parseTerm());
+                else if (eat('-')) x = binary('-', x, parseTerm());
+                else return x;
+            }
+        }
+
+        Node parseTerm() {
+            Node x = parseFactor();
+            while (true) {
+                if      (eat('*')) x = binary('*', x, parseFactor());
+                else if (eat('/')) x = binary('/', x, parseFactor());
+                else return x;
+            }
+        }
+
+        Node parseFactor() {
+            if (eat('+')) return parseFactor();
+            if (eat('-')) return negate(parseFactor());
+
+            Node x;
+            int startPos = this.pos;
+
+            if (eat('(')) { x = parseExpression(); eat(')'); }
+            else if ((ch >= '0' && ch <= '9') || ch == '.') {
+                while ((ch >= '0' && ch <= '9') || ch == '.' || ch == 'e' || ch == 'E') {
+                    if (ch == 'e' || ch == 'E') { nextChar(); if (ch == '+' || ch == '-') nextChar(); }
+                    else nextChar();
+                }
+                // Parsed in place; NaN means the scan took in something like "1.2.3" or "1e"
+                double value = DecimalLiteral.parse(expr, startPos, this.pos);
+                if (Double.isNaN(value)) throw new RuntimeException("Malformed number: " + expr.substring(startPos, this.pos));
+                x = new Constant(value, expr, startPos, this.pos);
+            }
+            else if (Character.isLetter(ch) || ch == 'π') {
+                while (Character.isLetter(ch) || ch == 'π') nextChar();
+                String name = expr.substring(startPos, this.pos);
+                switch (name.toLowerCase()) {
+                    case "pi", "π" -> x = new Constant(Math.PI);
+                    case "e" -> x = new Constant(Math.E);
+                    case "sqrt" -> x = function(Function.SQRT, parseFactor());
+                    case "sin"  -> x = function(Function.SIN, parseFactor());
+                    case "cos"  -> x = function(Function.COS, parseFactor());
+                    case "tan"  -> x = function(Function.TAN, parseFactor());
+                    case "log"  -> x = function(Function.LOG, parseFactor());
+                    case "ln"   -> x = function(Function.LN, parseFactor());
+                    case "abs"  -> x = function(Function.ABS, parseFactor());
+                    default -> x = variable(name);
+                }
+            } else throw new RuntimeException("Unexpected: " + (char)ch);
+
+            if (eat('^')) x = binary('^', x, parseFactor());
+
+            if (eat('!')) x = factorial(x);
+
+            return x;
+        }
+
+        Node variable(String name) {
+            int index = variables.indexOf(name);
+            if (index < 0) {
+                index = variables.size();
+                variables.add(name);
+            }
+            return new Variable(index);
+        }
+
+        // Each factory folds its node straight away when every operand is already a constant.
+        // The folded constant keeps the subtree so that big mode still computes it exactly.
+        static Node binary(char op, Node left, Node right) {
+            Node node = new Binary(op, left, right);
+            return left instanceof Constant && right instanceof Constant ? fold(node) : node;
+        }
+
+        static Node negate(Node operand) {
+            Node node = new Negate(operand);
+            return operand instanceof Constant ? fold(node) : node;
+        }
+
+        static Node function(Function function, Node operand) {
+            Node node = new Apply(function, operand);
+            return operand instanceof Constant ? fold(node) : node;
+        }
+
+        static Node factorial(Node operand) {
+            Node node = new Factorial(operand);
+            return operand instanceof Constant ? fold(node) : node;
+        }
+
+        static Node fold(Node node) {
+            return new Constant(node.eval(null), node);
+        }
+    }
+
+    // ========================= NODES =========================
+    // What the bytecode tier implements; vars are matched to variables() by position.
+    interface Evaluator {
+        double evaluate(double[] vars);
+    }
+
+    // eval works in doubles; evalBig is the arbitrary precision mode, where +, -, *, /, integer
+    // powers, sqrt and ! are carried out in BigDecimal and the other functions go through double.
+    abstract static class Node {
+        abstract double eval(double[] vars);
+        abstract BigDecimal evalBig(BigDecimal[] vars, MathContext mc);
+    }
+
+    static final class Constant extends Node {
+        final double value;
+        final String source;     // expression holding the literal digits, when the constant came from a number
+        final int start, end;    // where those digits are in source
+        final Node folded;       // the subtree this constant replaced, re-run in big mode
+
+        Constant(double value) { this(value, null, 0, 0, null); }
+
+        Constant(double value, String source, int start, int end) { this(value, source, start, end, null); }
+
+        Constant(double value, Node folded) { this(value, null, 0, 0, folded); }
+
+        private Constant(double value, String source, int start, int end, Node folded) {
+            this.value = value;
+            this.source = source;
+            this.start = start;
+            this.end = end;
+            this.folded = folded;
+        }
+
+        @Override double eval(double[] vars) { return value; }
+
+        @Override
+        BigDecimal evalBig(BigDecimal[] vars, MathContext mc) {
+            // Only big mode needs the exact digits, so only big mode pays for the substring
+            if (source != null) return new BigDecimal(source.substring(start, end));
+            if (folded != null) return folded.evalBig(vars, mc);
+            return new BigDecimal(value, mc);
+        }
+    }
+
+    static final class Variable extends Node {
+        final int index;
+        Variable(int index) { this.index = index; }
+        @Override double eval(double[] vars) { return vars[index]; }
+        @Override BigDecimal evalBig(BigDecimal[] vars, MathContext mc) { return vars[index]; }
+    }
+
+    static final class Negate extends Node {
+        final Node operand;
+        Negate(Node operand) { this.operand = operand; }
+        @Override double eval(double[] vars) { return -operand.eval(vars); }
+        @Override BigDecimal evalBig(BigDecimal[] vars, MathContext mc) { return operand.evalBig(vars, mc).negate(); }
+    }
+
+    static final class Binary extends Node {
+        final char op;
+        final Node left, right;
+
+        Binary(char op, Node left, Node right) {
+            this.op = op;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        double eval(double[] vars) {
+            double x = left.eval(vars);
+            double y = right.eval(vars);
+            return switch (op) {
+                case '+' -> x + y;
+                case '-' -> x - y;
+                case '*' -> x * y;
+                case '/' -> x / y;
+                case '^' -> Math.pow(x, y);
+                default -> throw new IllegalStateException("Unknown operator: " + op);
+            };
+        }
+
+        @Override
+        BigDecimal evalBig(BigDecimal[] vars, MathContext mc) {
+            BigDecimal x = left.evalBig(vars, mc);
+            BigDecimal y = right.evalBig(vars, mc);
+            return switch (op) {
+                case '+' -> x.add(y, mc);
+                case '-' -> x.subtract(y, mc);
+                case '*' -> x.multiply(y, mc);
+                case '/' -> {
+                    if (y.signum() == 0) throw new ArithmeticException("Division by zero.");
+                    yield x.divide(y, mc);
+                }
+                case '^' -> {
+                    if (isInteger(y) && y.abs().compareTo(MAX_EXPONENT) <= 0) yield x.pow(y.intValueExact(), mc);
+                    yield new BigDecimal(Math.pow(x.doubleValue(), y.doubleValue()), mc);
+                }
+                default -> throw new IllegalStateException("Unknown operator: " + op);
+            };
+        }
+    }
+
+    static final class Factorial extends Node {
+        final Node operand;
+        Factorial(Node operand) { this.operand = operand; }
+
+        @Override double eval(double[] vars) { return factorial(operand.eval(vars)); }
+
+        @Override
+        BigDecimal evalBig(BigDecimal[] vars, MathContext mc) {
+            BigDecimal x = operand.evalBig(vars, mc);
+            if (x.signum() < 0) throw new IllegalArgumentException("Factorial of negative number not defined.");
+            if (x.compareTo(MAX_EXPONENT) > 0) throw new ArithmeticException("Factorial argument too large.");
+            int n = x.intValue();
+            return n < 2 ? BigDecimal.ONE : new BigDecimal(product(2, n));
+        }
+
+        // lo * (lo + 1) * ... * hi, split in halves so the big multiplications stay balanced
+        private static BigInteger product(int lo, int hi) {
+            if (hi - lo < 16) {
+                BigInteger result = BigInteger.valueOf(lo);
+                for (int i = lo + 1; i <= hi; i++) result = result.multiply(BigInteger.valueOf(i));
+                return result;
+            }
+            int mid = (lo + hi) >>> 1;
+            return product(lo, mid).multiply(product(mid + 1, hi));
+        }
+    }
+
+    static final class Apply extends Node {
+        final Function function;
+        final Node operand;
+
+        Apply(Function function, Node operand) {
+            this.function = function;
+            this.operand = operand;
+        }
+
+        @Override double eval(double[] vars) { return function.apply(operand.eval(vars)); }
+
+        @Override
+        BigDecimal evalBig(BigDecimal[] vars, MathContext mc) {
+            BigDecimal x = operand.evalBig(vars, mc);
+            return switch (function) {
+                case SQRT -> x.sqrt(mc);
+                case ABS -> x.abs();
+                default -> new BigDecimal(function.apply(x.doubleValue()), mc);
+            };
+        }
+    }
+
+    // Shared with the bytecode tier, which calls it directly.
+    static double factorial(double x) {
+        if (x < 0) throw new IllegalArgumentException("Factorial of negative number not defined.");
+        // Accumulate in double: exact up to 22!, approximate after, infinite past 170!
+        if (x > 170) return Double.POSITIVE_INFINITY;
+        double f = 1;
+        for (int i = 2; i <= (int)x; i++) f *= i;
+        return f;
+    }
+
+    private static final BigDecimal MAX_EXPONENT = BigDecimal.valueOf(999_999_999);
+
+    private static boolean isInteger(BigDecimal x) {
+        return x.signum() == 0 || x.scale() <= 0 || x.stripTrailingZeros().scale() <= 0;
+    }
+
+    enum Function {
+        SQRT, SIN, COS, TAN, LOG, LN, ABS;
+
+        double apply(double x) {
+            return switch (this) {
+                case SQRT -> Math.sqrt(x);
+                case SIN  -> Math.sin(x);
+                case COS  -> Math.cos(x);
+                case TAN  -> Math.tan(x);
+                case LOG  -> Math.log10(x);
+                case LN   -> Math.log(x);
+                case ABS  -> Math.abs(x);
+            };
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.radixconverter;
+
+/**
+ * Result of a bulk conversion: the ASCII digits of every value packed into
+ * one byte[], with value i at data()[offsets()[i]] up to offsets()[i + 1].
+ * The arrays are handed out as they are, without copying.
+ *
+ * @author Wintry
+ */
+import java.nio.charset.StandardCharsets;
+
+public final class ConvertedColumn {
+    private final byte[] data;
+    private final int[] offsets;
+
+    ConvertedColumn(byte[] data, int[] offsets) {
+        this.data = data;
+        this.offsets = offsets;
+    }
+
+    public int size() { return offsets.length - 1; }
+
+    public byte[] data() { return data; }
+
+    public int[] offsets() { return offsets; }
+
+    public int start(int index) { return offsets[index]; }
+
+    public int length(int index) { return offsets[index + 1] - offsets[index]; }
+
+    public String get(int index) {
+        return new String(data, offsets[index], length(index), StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.radixconverter;
+
+/**
+ * Second tier for CompiledExpression: turns a node tree into the bytecode of
+ * a hidden class implementing Evaluator, built with the java.lang.classfile
+ * API. Every operator becomes one instruction and every function a direct
+ * Math call, so the JIT sees straight-line arithmetic it can inline instead
+ * of a chain of virtual eval calls.
+ *
+ * The hidden class is not registered anywhere and is unloaded together with
+ * its expression.
+ *
+ * Only the RadixConverter grammar is compiled; the BinaryConverter grammar is
+ * left out on purpose and no other class covers it. BinaryConverter parses
+ * and evaluates in one pass and never reuses a tree. Its repeated evaluation
+ * goes through ColumnExpression, which already runs block loops.
+ *
+ * @author Wintry
+ */
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.CodeBuilder;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.ConstantDescs;
+import java.lang.constant.MethodTypeDesc;
+import java.lang.invoke.MethodHandles;
+
+final class ExpressionCompiler {
+    private static final ClassDesc GENERATED = ClassDesc.of("com.wintry.radixconverter.GeneratedExpression");
+    private static final ClassDesc EVALUATOR = ClassDesc.of("com.wintry.radixconverter.CompiledExpression$Evaluator");
+    private static final ClassDesc COMPILED_EXPRESSION = ClassDesc.of("com.wintry.radixconverter.CompiledExpression");
+    private static final ClassDesc MATH = ClassDesc.of("java.lang.Math");
+    private static final MethodTypeDesc DOUBLE_TO_DOUBLE = MethodTypeDesc.of(ConstantDescs.CD_double, ConstantDescs.CD_double);
+    private static final MethodTypeDesc DOUBLES_TO_DOUBLE = MethodTypeDesc.of(ConstantDescs.CD_double, ConstantDescs.CD_double, ConstantDescs.CD_double);
+    private static final MethodTypeDesc EVALUATE = MethodTypeDesc.of(ConstantDescs.CD_double, ConstantDescs.CD_double.arrayType());
+
+    private ExpressionCompiler() {}
+
+    // Throws if the class cannot be built or defined, e.g. a tree too big for one method.
+    static CompiledExpression.Evaluator compile(CompiledExpression.Node root) throws ReflectiveOperationException {
+        byte[] bytes = ClassFile.of().build(GENERATED, cb -> {
+            cb.withFlags(ClassFile.ACC_FINAL | ClassFile.ACC_SYNTHETIC);
+            cb.withInterfaceSymbols(EVALUATOR);
+            cb.withMethodBody(ConstantDescs.INIT_NAME, ConstantDescs.MTD_void, ClassFile.ACC_PUBLIC, code -> code
+                    .aload(0)
+                    .invokespecial(ConstantDescs.CD_Object, ConstantDescs.INIT_NAME, ConstantDescs.MTD_void)
+                    .return_());
+            cb.withMethodBody("evaluate", EVALUATE, ClassFile.ACC_PUBLIC, code -> {
+                emit(root, code);
+                code.dreturn();
+            });
+        });
+
+        // Defined in this package so it can see Evaluator and the package-private helpers
+        Class<?> generated = MethodHandles.lookup().defineHiddenClass(bytes, true).lookupClass();
+        return (CompiledExpression.Evaluator) generated.getDeclaredConstructor().newInstance();
+    }
+
+    // Post-order walk: operands are pushed, then their operator is applied. Slot 1 holds the variables.
+    private static void emit(CompiledExpression.Node node, CodeBuilder code) {
+        switch (node) {
+            case CompiledExpression.Constant constant -> code.loadConstant(Double.valueOf(constant.value));
+            case CompiledExpression.Variable variable -> code.aload(1).loadConstant(Integer.valueOf(variable.index)).daload();
+            case CompiledExpression.Negate negate -> {
+                emit(negate.operand, code);
+                code.dneg();
+            }
+            case CompiledExpression.Binary binary -> {
+                emit(binary.left, code);
+                emit(binary.right, code);
+                switch (binary.op) {
+                    case '+' -> code.dadd();
+                    case '-' -> code.dsub();
+                    case '*' -> code.dmul();
+                    case '/' -> code.ddiv();
+                    case '^' -> code.invokestatic(MATH, "pow", DOUBLES_TO_DOUBLE);
+                    default -> throw new IllegalStateException("Unknown operator: " + binary.op);
+                }
+            }
+            case CompiledExpression.Factorial factorial -> {
+                emit(factorial.operand, code);
+                code.invokestatic(COMPILED_EXPRESSION, "factorial", DOUBLE_TO_DOUBLE);
+            }
+            case CompiledExpression.Apply apply -> {
+                emit(apply.operand, code);
+                String method = switch (apply.function) {
+                    case SQRT -> "sqrt";
+                    case SIN -> "sin";
+                    case COS -> "cos";
+                    case TAN -> "tan";
+                    case LOG -> "log10";
+                    case LN -> "log";
+                    case ABS -> "abs";
+                };
+                code.invokestatic(MATH, method, DOUBLE_TO_DOUBLE);
+            }
+            default -> throw new IllegalStateException("Unknown node: " + node.getClass().getSimpleName());
+        }
+    }
+}
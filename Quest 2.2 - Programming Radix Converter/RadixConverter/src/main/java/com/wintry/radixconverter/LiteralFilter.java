@@ -0,0 +1,336 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.radixconverter;
+
+/**
+ * Filter mode: copies text through and rewrites the whole-number literals it
+ * finds into another base, e.g. hex addresses in a log file to decimal.
+ *
+ *   RadixConverter --filter --to 10 [--bare 16] [--plain] [--threads 4] [in.log|-] [out.log|-]
+ *
+ * 0x1F, 0b1010 and 0o17 are always recognized. --bare also converts numbers
+ * without a prefix, read in the given base; for bases above 10 such a word
+ * needs at least one decimal digit, so ordinary words like "add" are left
+ * alone. A literal has to stand on its own: a letter, digit, underscore or
+ * point on either side (1.5, 192.168.0.1, id_42, 0x1Fg) means it is left as
+ * it is, and so does a value above 64 bits. Converted values get the prefix
+ * of the target base unless --plain is given. Every other byte is copied
+ * unchanged.
+ *
+ * Files are read through memory-mapped windows and stdin through one direct
+ * buffer. With --threads each window is cut into chunks at line boundaries
+ * that are filtered in parallel and written back in order.
+ *
+ * @author Wintry
+ */
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+final class LiteralFilter {
+    private static final long MAP_WINDOW = 64L << 20;   // bytes mapped at a time
+    private static final int STREAM_BUFFER = 16 << 20;  // stdin buffer size
+    static final int CHUNK = 1 << 20;                   // bytes per parallel task, extended to the next newline
+    private static final String DIGITS = "0123456789ABCDEF";
+
+    // Byte classes for the scanner
+    private static final byte OTHER = 0, WORD = 1, DIGIT = 2, POINT = 4;
+    private static final byte[] CLASSES = new byte[256];
+    static {
+        for (int c = 'A'; c <= 'Z'; c++) CLASSES[c] = WORD;
+        for (int c = 'a'; c <= 'z'; c++) CLASSES[c] = WORD;
+        CLASSES['_'] = WORD;
+        for (int c = '0'; c <= '9'; c++) CLASSES[c] = DIGIT;
+        CLASSES['.'] = POINT;
+    }
+
+    private final int targetBase;
+    private final int bareBase;      // 0 when bare numbers are left alone
+    private final boolean plain;
+    private final ForkJoinPool pool; // null when filtering on the calling thread
+    private final WritableByteChannel out;
+    private Chunk[] chunks = new Chunk[0];
+
+    private long rewritten;
+
+    private LiteralFilter(int targetBase, int bareBase, boolean plain, ForkJoinPool pool, WritableByteChannel out) {
+        this.targetBase = targetBase;
+        this.bareBase = bareBase;
+        this.plain = plain;
+        this.pool = pool;
+        this.out = out;
+    }
+
+    // ========================= ENTRY POINT =========================
+    static int run(String[] args) {
+        int targetBase = -1, bareBase = 0, threads = 1;
+        boolean plain = false;
+        String inPath = "-", outPath = "-";
+        int files = 0;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--to" -> targetBase = parseBase(args[++i]);
+                    case "--bare" -> bareBase = parseBase(args[++i]);
+                    case "--plain" -> plain = true;
+                    case "--threads" -> threads = Integer.parseInt(args[++i]);
+                    default -> {
+                        if (files == 0) inPath = args[i];
+                        else if (files == 1) outPath = args[i];
+                        else throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                        files++;
+                    }
+                }
+            }
+            if (targetBase == -1) throw new IllegalArgumentException("--to is required.");
+            if (threads < 1) throw new IllegalArgumentException("Threads must be at least 1.");
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println(">> " + (e instanceof ArrayIndexOutOfBoundsException ? "Missing value for " + args[args.length - 1] : e.getMessage()));
+            System.err.println("Usage: RadixConverter --filter --to <base> [--bare <base>] [--plain] [--threads <n>] [input|-] [output|-]");
+            return 2;
+        }
+
+        ForkJoinPool pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        try (WritableByteChannel out = outPath.equals("-")
+                ? Channels.newChannel(new FileOutputStream(FileDescriptor.out))
+                : FileChannel.open(Path.of(outPath), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            LiteralFilter filter = new LiteralFilter(targetBase, bareBase, plain, pool, out);
+            if (inPath.equals("-")) filter.filterStream(Channels.newChannel(System.in));
+            else filter.filterFile(Path.of(inPath));
+            System.err.println(">> " + filter.rewritten + " literals rewritten.");
+            return 0;
+        } catch (IOException e) {
+            System.err.println(">> I/O error: " + e.getMessage());
+            return 3;
+        } finally {
+            if (pool != null) pool.shutdown();
+        }
+    }
+
+    private static int parseBase(String text) {
+        int base = Integer.parseInt(text);
+        if (!RadixConverter.isAllowedBase(base)) throw new IllegalArgumentException("Invalid base " + base + ". Only bases 2, 8, 10, and 16 are allowed.");
+        return base;
+    }
+
+    // ========================= INPUT =========================
+    private void filterFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long length = Math.min(MAP_WINDOW, size - position);
+                boolean last = position + length == size;
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int consumed = filterLines(window, (int) length, last);
+                if (consumed == 0) throw new IOException("Line longer than " + MAP_WINDOW + " bytes at offset " + position);
+                // The next window starts at the first unfinished line
+                position += consumed;
+            }
+        }
+    }
+
+    private void filterStream(ReadableByteChannel in) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(STREAM_BUFFER);
+        boolean eof = false;
+        while (!eof) {
+            eof = in.read(buffer) == -1;
+            int limit = buffer.position();
+            int consumed = filterLines(buffer, limit, eof);
+            if (consumed == 0 && limit == buffer.capacity()) throw new IOException("Line longer than " + STREAM_BUFFER + " bytes");
+            buffer.limit(limit).position(consumed);
+            buffer.compact();
+        }
+    }
+
+    // Filters every complete line in [0, limit) and returns how many bytes were used.
+    // When last is set the trailing line is filtered even without a newline.
+    private int filterLines(ByteBuffer in, int limit, boolean last) throws IOException {
+        int end = limit;
+        if (!last) {
+            while (end > 0 && in.get(end - 1) != '\n') end--;
+            if (end == 0) return 0;
+        }
+
+        // Cut [0, end) into chunks that each finish on a newline
+        int count = 0;
+        int[] bounds = new int[(end + CHUNK - 1) / CHUNK + 1];
+        for (int from = 0; from < end; ) {
+            int to = Math.min(end, from + CHUNK);
+            while (to < end && in.get(to - 1) != '\n') to++;
+            bounds[++count] = to;
+            from = to;
+        }
+        if (chunks.length < count) {
+            chunks = Arrays.copyOf(chunks, count);
+            for (int c = 0; c < count; c++) if (chunks[c] == null) chunks[c] = new Chunk();
+        }
+
+        int[] chunkBounds = bounds;
+        ColumnConverter.forEachChunk(count, pool != null && count > 1, pool,
+                c -> filter(in, chunkBounds[c], chunkBounds[c + 1], chunks[c]));
+
+        for (int c = 0; c < count; c++) {
+            Chunk chunk = chunks[c];
+            ByteBuffer bytes = ByteBuffer.wrap(chunk.data, 0, chunk.length);
+            while (bytes.hasRemaining()) out.write(bytes);
+            rewritten += chunk.rewritten;
+        }
+        return end;
+    }
+
+    // ========================= SCANNER =========================
+    // Filters [start, end) of in into chunk. The bytes are copied to the heap first: one bulk
+    // copy is much cheaper than a bounds and liveness check per byte on a mapped buffer.
+    private void filter(ByteBuffer in, int start, int end, Chunk chunk) {
+        chunk.load(in, start, end);
+        byte[] text = chunk.text;
+        int length = end - start;
+        int copied = 0; // bytes before this are already in the output
+        int i = 0;
+        while (i < length) {
+            byte kind = CLASSES[text[i] & 0xFF];
+            if (kind == OTHER) {
+                i++;
+                continue;
+            }
+            if (kind == POINT) {
+                // A number right after a point is part of something longer (1.5, 10.0.0.1)
+                i++;
+                while (i < length && CLASSES[text[i] & 0xFF] != OTHER) i++;
+                continue;
+            }
+
+            int wordEnd = i + 1;
+            while (wordEnd < length && isWord(text[wordEnd])) wordEnd++;
+            if (wordEnd + 1 < length && text[wordEnd] == '.' && CLASSES[text[wordEnd + 1] & 0xFF] != OTHER) {
+                i = wordEnd;
+                continue;
+            }
+            // Without --bare only words starting with 0x, 0b or 0o can be literals
+            boolean candidate = bareBase != 0 ? kind == DIGIT || bareBase > 10 : wordEnd - i > 2 && text[i] == '0';
+            if (candidate && rewrite(text, i, wordEnd, copied, chunk)) copied = wordEnd;
+            i = wordEnd;
+        }
+        chunk.put(text, copied, length);
+    }
+
+    private static boolean isWord(byte b) {
+        return (CLASSES[b & 0xFF] & (WORD | DIGIT)) != 0;
+    }
+
+    // Writes the pending bytes and the converted word when [start, end) is a literal; false leaves the output untouched.
+    private boolean rewrite(byte[] text, int start, int end, int copied, Chunk chunk) {
+        int base = 0, digitsStart = start;
+        if (end - start > 2 && text[start] == '0') {
+            switch (text[start + 1]) {
+                case 'x', 'X' -> base = 16;
+                case 'b', 'B' -> base = 2;
+                case 'o', 'O' -> base = 8;
+                default -> { }
+            }
+            if (base != 0) digitsStart += 2;
+        }
+        if (base == 0) {
+            if (bareBase == 0) return false;
+            base = bareBase;
+        }
+        if (base == targetBase) return false;
+
+        // Unsigned 64-bit value; anything that does not fit stays as written
+        long limit = Long.divideUnsigned(-1L, base);
+        long value = 0;
+        boolean decimalDigit = false;
+        for (int i = digitsStart; i < end; i++) {
+            int b = text[i] & 0xFF;
+            int digit = AsciiDigits.value(b);
+            if (digit < 0 || digit >= base || Long.compareUnsigned(value, limit) > 0) return false;
+            long next = value * base + digit;
+            if (Long.compareUnsigned(next, value * base) < 0) return false;
+            value = next;
+            decimalDigit |= b <= '9';
+        }
+        if (digitsStart == start && !decimalDigit) return false;
+
+        chunk.put(text, copied, start);
+        chunk.ensure(2 + 64);
+        if (!plain) {
+            switch (targetBase) {
+                case 16 -> chunk.put('0', 'x');
+                case 2 -> chunk.put('0', 'b');
+                case 8 -> chunk.put('0', 'o');
+                default -> { }
+            }
+        }
+        chunk.length += writeUnsigned(value, targetBase, chunk.data, chunk.length);
+        chunk.rewritten++;
+        return true;
+    }
+
+    // Digits of value read as unsigned; dest needs 64 free bytes. Constant divisors
+    // let the JIT replace the divisions with multiplications.
+    private static int writeUnsigned(long value, int base, byte[] dest, int offset) {
+        if (PowerOfTwoConverter.isPowerOfTwo(base)) {
+            int shift = Integer.numberOfTrailingZeros(base);
+            int count = Math.max(1, (64 - Long.numberOfLeadingZeros(value) + shift - 1) / shift);
+            for (int i = offset + count - 1; i >= offset; i--) {
+                dest[i] = (byte) DIGITS.charAt((int) (value & (base - 1)));
+                value >>>= shift;
+            }
+            return count;
+        }
+
+        // Base 10, written from the far end of the 64 free bytes and moved down: the first
+        // division is unsigned, after that the rest fits in a signed long
+        int end = offset + 64, i = end;
+        long rest = Long.divideUnsigned(value, 10);
+        dest[--i] = (byte) ('0' + (value - rest * 10));
+        for (; rest > 0; rest /= 10) dest[--i] = (byte) ('0' + rest % 10);
+        System.arraycopy(dest, i, dest, offset, end - i);
+        return end - i;
+    }
+
+    // ========================= OUTPUT =========================
+    // One chunk's input copy and output, kept between windows so the buffers are only ever grown.
+    private static final class Chunk {
+        byte[] text = new byte[CHUNK];
+        byte[] data = new byte[CHUNK + CHUNK / 4];
+        int length;
+        long rewritten;
+
+        void load(ByteBuffer in, int start, int end) {
+            if (text.length < end - start) text = new byte[end - start];
+            in.get(start, text, 0, end - start);
+            length = 0;
+            rewritten = 0;
+        }
+
+        void ensure(int extra) {
+            if (data.length - length < extra) data = Arrays.copyOf(data, Math.max(data.length * 2, length + extra));
+        }
+
+        void put(byte[] from, int start, int end) {
+            ensure(end - start);
+            System.arraycopy(from, start, data, length, end - start);
+            length += end - start;
+        }
+
+        void put(char first, char second) {
+            data[length++] = (byte) first;
+            data[length++] = (byte) second;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.radixconverter;
+
+/**
+ * One-shot mode for scripts that call the converter once per value: the
+ * values on the command line are converted, printed and the JVM exits,
+ * without the Scanner loop, the result table or the spool file.
+ *
+ *   RadixConverter <from> <value>... [--to <base>[,<base>...]]
+ *
+ * Each value prints one line with its digits in every target base, tab
+ * separated. The targets default to the other table bases (2, 8, 10, 16) in
+ * ascending order, as in the interactive table. Any base from 2 to 36, and
+ * 62, can be the origin or a target. Values that are not plain digits are
+ * evaluated as decimal expressions, also as in the interactive table.
+ *
+ * A run is over in a few milliseconds of actual work, so what counts is
+ * how many classes it loads: valid input goes through no regex, lambda or
+ * string concatenation, and only inputs that are expressions load the
+ * expression compiler. With the AppCDS archive from mvn -Pappcds package
+ * the remaining classes come pre-parsed; see startup-benchmark.sh.
+ *
+ * @author Wintry
+ */
+import java.io.File;
+import java.io.PrintStream;
+
+final class OneShotConverter {
+    private OneShotConverter() {}
+
+    // A number in the first argument selects this mode; batch and filter mode start with an option or a path.
+    // A batch input file can be named like a number too, so an existing file always goes to batch mode.
+    static boolean accepts(String[] args) {
+        return accepts(args, null);
+    }
+
+    // Relative paths are looked up in dir, or in the working directory when dir is null.
+    static boolean accepts(String[] args, File dir) {
+        if (args.length < 2 || args[0].isEmpty()) return false;
+        for (int i = 0; i < args[0].length(); i++) {
+            char c = args[0].charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return !(dir == null ? new File(args[0]) : new File(dir, args[0])).exists();
+    }
+
+    static int run(String[] args) {
+        int originBase;
+        int[] targetBases = null;
+        int values = 0;
+
+        try {
+            originBase = parseBase(args[0]);
+            for (int i = 1; i < args.length; i++) {
+                if (args[i].equals("--to")) {
+                    String[] parts = args[++i].split(",");
+                    targetBases = new int[parts.length];
+                    for (int t = 0; t < parts.length; t++) targetBases[t] = parseBase(parts[t].trim());
+                } else {
+                    // Values are compacted to the front of args as they are found
+                    args[1 + values++] = args[i];
+                }
+            }
+            if (values == 0) throw new IllegalArgumentException("No value to convert.");
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println(">> " + (e instanceof ArrayIndexOutOfBoundsException ? "Missing value for --to" : e.getMessage()));
+            System.err.println("Usage: RadixConverter <from> <value>... [--to <base>[,<base>...]]");
+            return 2;
+        }
+        if (targetBases == null) targetBases = otherBases(originBase);
+
+        int maxLength = 0;
+        for (int base : targetBases) maxLength = Math.max(maxLength, RadixConverter.maxLength(base, RadixConverter.DISPLAY_PRECISION) + 1);
+        byte[] line = new byte[targetBases.length * maxLength];
+
+        PrintStream out = System.out;
+        int invalid = 0;
+        for (int v = 1; v <= values; v++) {
+            double value;
+            try {
+                value = RadixConverter.parseInput(args[v], originBase, false);
+            } catch (RuntimeException e) {
+                System.err.println(">> Invalid input " + args[v] + ": " + e.getMessage());
+                invalid++;
+                continue;
+            }
+            int length = 0;
+            for (int t = 0; t < targetBases.length; t++) {
+                if (t > 0) line[length++] = '\t';
+                length += RadixConverter.fromDecimal(value, targetBases[t], RadixConverter.DISPLAY_PRECISION, line, length);
+            }
+            line[length++] = '\n';
+            out.write(line, 0, length);
+        }
+        out.flush();
+        return invalid == 0 ? 0 : 1;
+    }
+
+    private static int parseBase(String text) {
+        int base = Integer.parseInt(text);
+        if (!RadixConverter.isSupportedBase(base)) throw new IllegalArgumentException("Invalid base " + base + ". Only bases 2 to 36 and 62 are supported.");
+        return base;
+    }
+
+    private static int[] otherBases(int originBase) {
+        int[] bases = new int[RadixConverter.ALLOWED_BASES.length - (RadixConverter.isAllowedBase(originBase) ? 1 : 0)];
+        int column = 0;
+        for (int base : RadixConverter.ALLOWED_BASES) {
+            if (base != originBase) bases[column++] = base;
+        }
+        return bases;
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.radixconverter;
+
+/**
+ * Conversions for bases 2, 4, 8, 16 and 32. A double is m * 2^e with an integer m,
+ * so every digit in a base 2^s is just s bits of m: the digits are read from
+ * Double.doubleToRawLongBits with shifts and masks, and the fraction ends
+ * exactly at the lowest set bit of m instead of after a multiply loop.
+ *
+ * @author Wintry
+ */
+import java.nio.ByteBuffer;
+
+final class PowerOfTwoConverter {
+    private PowerOfTwoConverter() {}
+
+    static boolean isPowerOfTwo(int base) {
+        return (base & (base - 1)) == 0;
+    }
+
+    // Most digits a finite double can need in base 2^shift: 1024 whole bits and 1074 fraction bits.
+    static int maxWholeDigits(int shift) { return (1024 + shift - 1) / shift; }
+
+    static int maxFractionDigits(int shift) { return (1074 + shift - 1) / shift; }
+
+    // ========================= DOUBLE -> DIGITS =========================
+    // Writes at most precision fraction digits; value must be finite.
+    static int write(double value, int shift, int precision, char[] dest, int offset) {
+        long bits = Double.doubleToRawLongBits(value);
+        return write(oddMantissa(bits), exponent(bits), bits < 0, shift, precision, dest, offset);
+    }
+
+    // value = m * 2^e, with m made odd so that e is the position of the last set bit.
+    // m is the binary expansion itself; every base 2^s reads it s bits at a time.
+    static long oddMantissa(long bits) {
+        int biasedExponent = (int) (bits >>> 52) & 0x7FF;
+        long m = bits & 0xFFFFFFFFFFFFFL;
+        if (biasedExponent != 0) m |= 1L << 52;
+        return m == 0 ? 0 : m >>> Long.numberOfTrailingZeros(m);
+    }
+
+    static int exponent(long bits) {
+        int biasedExponent = (int) (bits >>> 52) & 0x7FF;
+        long m = bits & 0xFFFFFFFFFFFFFL;
+        if (biasedExponent != 0) m |= 1L << 52;
+        int e = biasedExponent == 0 ? -1074 : biasedExponent - 1075; // -1074 for subnormals
+        return m == 0 ? 0 : e + Long.numberOfTrailingZeros(m);
+    }
+
+    static int write(long m, int e, boolean negative, int shift, int precision, char[] dest, int offset) {
+        int pos = offset;
+        if (m == 0) {
+            dest[pos] = '0';
+            return 1;
+        }
+        if (negative) dest[pos++] = '-';
+
+        int highestBit = e + 63 - Long.numberOfLeadingZeros(m);
+        int mask = (1 << shift) - 1;
+
+        if (highestBit < 0) {
+            dest[pos++] = '0';
+        } else {
+            for (int k = Math.floorDiv(highestBit, shift); k >= 0; k--) {
+                dest[pos++] = RadixTables.DIGITS[digit(m, e, k, shift, mask)];
+            }
+        }
+
+        if (e < 0) {
+            dest[pos++] = '.';
+            int last = Math.max(Math.floorDiv(e, shift), -precision);
+            for (int k = -1; k >= last; k--) {
+                dest[pos++] = RadixTables.DIGITS[digit(m, e, k, shift, mask)];
+            }
+        }
+
+        return pos - offset;
+    }
+
+    // Digit k covers bits k*shift .. k*shift+shift-1 of m * 2^e.
+    private static int digit(long m, int e, int k, int shift, int mask) {
+        int bitShift = k * shift - e;
+        if (bitShift >= 0) return bitShift < 64 ? (int) (m >>> bitShift) & mask : 0;
+        return bitShift > -shift ? (int) (m << -bitShift) & mask : 0;
+    }
+
+    // ========================= DIGITS -> DOUBLE =========================
+    // Digits are shifted into a 64-bit accumulator; once it is full the rest only
+    // move the exponent and a sticky bit, so (double) rounds the result correctly.
+    // Hex and binary take eight digits per step while the accumulator has room, see AsciiDigits.
+    static double parse(CharSequence number, int start, int end, int base) {
+        int shift = Integer.numberOfTrailingZeros(base);
+        boolean swar = shift == 1 || shift == 4;
+        int blockBits = AsciiDigits.BLOCK * shift;
+        long acc = 0;
+        int exponent = 0;
+        boolean sticky = false;
+        boolean fraction = false;
+        int scalarUntil = start; // after a rejected block, its digits are taken one by one
+
+        for (int i = start; i < end; ) {
+            if (swar && i >= scalarUntil && end - i >= AsciiDigits.BLOCK && (acc >>> (63 - blockBits)) == 0) {
+                long packed = AsciiDigits.pack(number, i);
+                long block = shift == 4 ? AsciiDigits.hex8(packed) : AsciiDigits.binary8(packed);
+                if (block >= 0) {
+                    acc = (acc << blockBits) | block;
+                    if (fraction) exponent -= blockBits;
+                    i += AsciiDigits.BLOCK;
+                    continue;
+                }
+                scalarUntil = i + AsciiDigits.BLOCK;
+            }
+
+            char c = number.charAt(i++);
+            if (c == '.' && !fraction) {
+                fraction = true;
+                continue;
+            }
+            int digit = AsciiDigits.value(c);
+            if (digit == -1 || digit >= base) throw new NumberFormatException("Invalid digit '" + Character.toUpperCase(c) + "' for base " + base);
+            if ((acc >>> (63 - shift)) == 0) {
+                acc = (acc << shift) | digit;
+                if (fraction) exponent -= shift;
+            } else {
+                sticky |= digit != 0;
+                if (!fraction) exponent += shift;
+            }
+        }
+
+        return Math.scalb((double) (sticky ? acc | 1 : acc), exponent);
+    }
+
+    // Same as above for ASCII bytes, e.g. a mapped file; blocks are read with one getLong.
+    static double parse(ByteBuffer ascii, int start, int end, int base) {
+        int shift = Integer.numberOfTrailingZeros(base);
+        boolean swar = shift == 1 || shift == 4;
+        int blockBits = AsciiDigits.BLOCK * shift;
+        long acc = 0;
+        int exponent = 0;
+        boolean sticky = false;
+        boolean fraction = false;
+        int scalarUntil = start;
+
+        for (int i = start; i < end; ) {
+            if (swar && i >= scalarUntil && end - i >= AsciiDigits.BLOCK && (acc >>> (63 - blockBits)) == 0) {
+                long packed = AsciiDigits.pack(ascii, i);
+                long block = shift == 4 ? AsciiDigits.hex8(packed) : AsciiDigits.binary8(packed);
+                if (block >= 0) {
+                    acc = (acc << blockBits) | block;
+                    if (fraction) exponent -= blockBits;
+                    i += AsciiDigits.BLOCK;
+                    continue;
+                }
+                scalarUntil = i + AsciiDigits.BLOCK;
+            }
+
+            char c = (char) (ascii.get(i++) & 0xFF);
+            if (c == '.' && !fraction) {
+                fraction = true;
+                continue;
+            }
+            int digit = AsciiDigits.value(c);
+            if (digit == -1 || digit >= base) throw new NumberFormatException("Invalid digit '" + Character.toUpperCase(c) + "' for base " + base);
+            if ((acc >>> (63 - shift)) == 0) {
+                acc = (acc << shift) | digit;
+                if (fraction) exponent -= shift;
+            } else {
+                sticky |= digit != 0;
+                if (!fraction) exponent += shift;
+            }
+        }
+
+        return Math.scalb((double) (sticky ? acc | 1 : acc), exponent);
+    }
+}
@@ -8,22 +8,78 @@ package com.wintry.radixconverter;
  *
  * @author Wintry
  */
+import com.wintry.common.ConversionCache;
+import com.wintry.common.ConversionJournal;
+import com.wintry.common.ConversionMetrics;
+import com.wintry.common.DecimalLiteral;
+import com.wintry.common.ResultTable;
+import com.wintry.common.TableWriter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Scanner;
-import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
 
 public class RadixConverter {
-    private static final String DIGITS = "0123456789ABCDEF";
-    private static final int FRACTION_PRECISION = 10;
+    static final int FRACTION_PRECISION = 10;
+    // Precision that asks for the fewest digits that read back as the same double, see ShortestDigits
+    public static final int SHORTEST = -1;
+    // Fraction digits in the interactive table; -Dradixconverter.precision=-1 switches it to shortest output
+    static final int DISPLAY_PRECISION = Integer.getInteger("radixconverter.precision", FRACTION_PRECISION);
+    // Columns of the interactive table; any other supported base can still be the origin, see rowBases
+    static final int[] ALLOWED_BASES = {2, 8, 10, 16};
+    // Directory of the append-only history, see ConversionJournal; unset keeps no history
+    private static final String JOURNAL = System.getProperty("radixconverter.journal");
+    private static final long JOURNAL_SEGMENT = Long.getLong("radixconverter.journalSegment", ConversionJournal.DEFAULT_SEGMENT_SIZE);
+    // Timing and counting of the public methods; -Dradixconverter.metrics=true exposes them over JMX
+    private static final ConversionMetrics METRICS = ConversionMetrics.of("radixconverter", "radixconverter.metrics");
+    private static final char[] SUBSCRIPTS = {'₀', '₁', '₂', '₃', '₄', '₅', '₆', '₇', '₈', '₉'};
+    private static final long EXACT = 1L << 53; // integers up to here are exact doubles
 
     // ========================= MAIN =========================
     public static void main(String[] args) {
-        ArrayList<String[]> results = new ArrayList<>(); // store results as String arrays now
-        try (Scanner userInput = new Scanner(System.in)) {
+        // --replay prints the table back from a journal, see RadixReplay
+        if (args.length > 0 && args[0].equals("--replay")) {
+            int status = new RadixReplay().run(Arrays.copyOfRange(args, 1, args.length));
+            if (status != 0) System.exit(status);
+            return;
+        }
+
+        // --filter rewrites literals inside arbitrary text, see LiteralFilter
+        if (args.length > 0 && args[0].equals("--filter")) {
+            int status = LiteralFilter.run(Arrays.copyOfRange(args, 1, args.length));
+            if (status != 0) System.exit(status);
+            return;
+        }
+
+        // A base and values convert just those and exit, see OneShotConverter
+        if (OneShotConverter.accepts(args)) {
+            int status = OneShotConverter.run(args);
+            if (status != 0) System.exit(status);
+            return;
+        }
 
-            int[] allowedBases = {2, 8, 10, 16};
+        // Any other arguments switch to non-interactive batch mode, see BatchConverter
+        if (args.length > 0) {
+            int status = BatchConverter.run(args);
+            if (status != 0) System.exit(status);
+            return;
+        }
+
+        // Rows go to a spool file as they come in, so the heap does not grow with the number of conversions
+        try (Scanner userInput = new Scanner(System.in);
+             ResultTable results = new ResultTable("Input", "Output 1", "Output 2", "Output 3");
+             ConversionJournal journal = JOURNAL == null ? null : ConversionJournal.open(Path.of(JOURNAL), JOURNAL_SEGMENT)) {
 
             while (true) {
-                System.out.print("Enter origin base (2, 8, 10, 16): ");
+                System.out.print("Enter origin base (2-36, 62): ");
                 String baseInput = userInput.nextLine().trim();
                 if (baseInput.equalsIgnoreCase("STOP")) break;
 
@@ -31,20 +87,12 @@ public class RadixConverter {
                 try {
                     originBase = Integer.parseInt(baseInput);
 
-                    boolean isValidBase = false;
-                    for (int base : allowedBases) {
-                        if (originBase == base) {
-                            isValidBase = true;
-                            break;
-                        }
-                    }
-
-                    if (!isValidBase) {
-                        System.out.println(">> Invalid base. Only bases 2, 8, 10, and 16 are allowed.\n");
+                    if (!isSupportedBase(originBase)) {
+                        System.out.println(">> Invalid base. Only bases 2 to 36 and 62 are supported.\n");
                         continue;
                     }
                 } catch (NumberFormatException e) {
-                    System.out.println(">> Invalid input. Enter 2, 8, 10, or 16.\n");
+                    System.out.println(">> Invalid input. Enter a base from 2 to 36, or 62.\n");
                     continue;
                 }
 
@@ -52,49 +100,23 @@ public class RadixConverter {
                 String numberInput = userInput.nextLine().trim();
                 if (numberInput.equalsIgnoreCase("STOP")) break;
 
-                double decimalValue;
+                Row row;
                 try {
-                    if (originBase == 10 || !numberInput.matches("[0-9A-Fa-f]+(\\.[0-9A-Fa-f]+)?")) {
-                        decimalValue = evaluateExpression(numberInput);
-                    } else {
-                        decimalValue = toDecimal(numberInput, originBase);
-                    }
+                    row = row(numberInput, originBase, DISPLAY_PRECISION);
                 } catch (Exception e) {
                     System.out.println(">> Invalid input: " + e.getMessage() + "\n");
                     continue;
                 }
 
-                String output1 = "", output2 = "", output3 = "";
-                switch (originBase) {
-                    case 2 -> {
-                        output1 = formatOutput(decimalValue, 8, FRACTION_PRECISION);
-                        output2 = formatOutput(decimalValue, 10, FRACTION_PRECISION);
-                        output3 = formatOutput(decimalValue, 16, FRACTION_PRECISION);
-                    }
-                    case 8 -> {
-                        output1 = formatOutput(decimalValue, 2, FRACTION_PRECISION);
-                        output2 = formatOutput(decimalValue, 10, FRACTION_PRECISION);
-                        output3 = formatOutput(decimalValue, 16, FRACTION_PRECISION);
-                    }
-                    case 10 -> {
-                        output1 = formatOutput(decimalValue, 2, FRACTION_PRECISION);
-                        output2 = formatOutput(decimalValue, 8, FRACTION_PRECISION);
-                        output3 = formatOutput(decimalValue, 16, FRACTION_PRECISION);
-                    }
-                    case 16 -> {
-                        output1 = formatOutput(decimalValue, 2, FRACTION_PRECISION);
-                        output2 = formatOutput(decimalValue, 8, FRACTION_PRECISION);
-                        output3 = formatOutput(decimalValue, 10, FRACTION_PRECISION);
-                    }
+                int[] widths = new int[row.cells().length];
+                for (int c = 0; c < widths.length; c++) {
+                    // Shortest output has no useful bound, so its columns follow the cells themselves
+                    widths[c] = DISPLAY_PRECISION == SHORTEST ? row.cells()[c].length() : columnWidth(row.bases()[c], row.value(), DISPLAY_PRECISION);
+                }
+                results.add(row.cells(), widths);
+                if (journal != null) {
+                    journal.append(originBase, DISPLAY_PRECISION, numberInput, row.value(), RadixReplay.exactBytes(numberInput, originBase, row.value()));
                 }
-
-                // Store as an array for easier dynamic formatting
-                results.add(new String[]{
-                    formatOutput(decimalValue, originBase, FRACTION_PRECISION),
-                        output1,
-                        output2,
-                        output3
-                    });
 
                 System.out.println(">> Conversion stored. Enter next conversion or type 'STOP' to display results.\n");
             }
@@ -105,209 +127,549 @@ public class RadixConverter {
             } else {
                 System.out.println("No conversions to display.");
             }
+        } catch (IOException e) {
+            System.out.println(">> Could not store results: " + e.getMessage());
         }
     }
 
-    // ========================= DISPLAY RESULTS =========================
-    private static void displayResults(ArrayList<String[]> results) {
-        // Calculate max width per column dynamically
-        int inputWidth = "Input".length();
-        int out1Width = "Output 1".length();
-        int out2Width = "Output 2".length();
-        int out3Width = "Output 3".length();
-
-        for (String[] row : results) {
-            if (row[0].length() > inputWidth) inputWidth = row[0].length();
-            if (row[1].length() > out1Width) out1Width = row[1].length();
-            if (row[2].length() > out2Width) out2Width = row[2].length();
-            if (row[3].length() > out3Width) out3Width = row[3].length();
+    static boolean isAllowedBase(int base) {
+        for (int allowed : ALLOWED_BASES) {
+            if (base == allowed) return true;
+        }
+        return false;
+    }
+
+    // Every base with digits in RadixTables: 2 to 36, and 62.
+    public static boolean isSupportedBase(int base) {
+        return RadixTables.isSupported(base);
+    }
+
+    // ========================= CONVERSION ROWS =========================
+    // Repeated inputs skip parsing and formatting; -Dradixconverter.cache=0 turns the cache off.
+    // Held in its own class so one-shot runs, which never look anything up twice, do not build it.
+    private static final class RowCache {
+        static final ConversionCache<Row> INSTANCE = new ConversionCache<>(Integer.getInteger("radixconverter.cache", 4096));
+    }
+
+    // One converted input: the value and its outputs, cells[i] being in bases[i].
+    record Row(double value, int[] bases, String[] cells) {}
+
+    // The input formatted in its own base, then in every other allowed base in ascending order.
+    public static String[] convertRow(String input, int originBase, int precision) {
+        return row(input, originBase, precision).cells().clone();
+    }
+
+    public static ConversionCache<?> rowCache() { return RowCache.INSTANCE; }
+
+    static Row row(String input, int originBase, int precision) {
+        Row row = RowCache.INSTANCE.get(input, originBase, precision);
+        if (row == null) {
+            row = computeRow(input, originBase, precision);
+            RowCache.INSTANCE.put(input, originBase, precision, row);
         }
+        return row;
+    }
+
+    private static Row computeRow(String input, int originBase, int precision) {
+        double decimalValue = parseInput(input, originBase, true);
 
-        // Add some padding for readability
-        inputWidth += 2;
-        out1Width += 2;
-        out2Width += 2;
-        out3Width += 2;
+        int[] bases = rowBases(originBase);
+        return new Row(decimalValue, bases, formatOutputs(decimalValue, bases, precision));
+    }
 
-        String formatString = String.format("%%-%ds %%-%ds %%-%ds %%-%ds", inputWidth, out1Width, out2Width, out3Width);
+    // An origin outside ALLOWED_BASES takes the place of base 8, so binary, decimal and hex are always there.
+    static int[] rowBases(int originBase) {
+        int[] bases = new int[ALLOWED_BASES.length];
+        bases[0] = originBase;
+        int column = 1;
+        boolean listed = isAllowedBase(originBase);
+        for (int base : ALLOWED_BASES) {
+            if (base != originBase && (listed || base != 8)) bases[column++] = base;
+        }
+        return bases;
+    }
 
-        // Print header
-        System.out.println("\n" + String.format(formatString, "Input", "Output 1", "Output 2", "Output 3"));
+    // Plain digits are read in the origin base; anything else, and every base 10 input, is a decimal expression.
+    // Inputs read only once, as in one-shot mode, skip ExpressionCache so it is not built for them.
+    static double parseInput(String input, int originBase, boolean cached) {
+        if (originBase == 10 || !isPlainNumber(input, originBase)) return cached ? evaluateExpression(input) : evaluateOnce(input);
+        return toDecimal(input, originBase);
+    }
 
-        // Print all results
-        for (String[] row : results) {
-            System.out.println(String.format(formatString, row[0], row[1], row[2], row[3]));
+    // Digits with an optional fraction, i.e. [0-9A-Fa-f]+(\.[0-9A-Fa-f]+)? for bases up to 16, without loading
+    // java.util.regex. Smaller bases also take every hex digit, so a stray 9 in base 8 is reported as a bad digit.
+    static boolean isPlainNumber(String input, int base) {
+        int digits = Math.max(base, 16);
+        int point = -1;
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (c == '.' && point == -1) {
+                point = i;
+            } else if (RadixTables.value(c, digits) == -1) {
+                return false;
+            }
         }
-        System.out.println();
+        return point != 0 && point != input.length() - 1 && !input.isEmpty();
+    }
+
+    // ========================= DISPLAY RESULTS =========================
+    // Longest formatOutput of the value: parentheses, sign, ceil(bits / log2(base)) digits for its whole
+    // bits, subscript, and the point and fraction only when there is a fraction to write.
+    static int columnWidth(int base, double value, int precision) {
+        int fraction = precision == 0 || value == Math.rint(value) ? 0 : 1 + precision;
+        return 2 + 1 + TableWriter.digitBound(wholeBits(value), base) + fraction + (base >= 10 ? 2 : 1);
+    }
+
+    private static int wholeBits(double value) {
+        double magnitude = Math.abs(value);
+        return magnitude < 1 ? 1 : Math.getExponent(magnitude) + 1;
+    }
+
+    private static void displayResults(ResultTable results) throws IOException {
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, System.out.charset()), 1 << 16);
+        results.print(out);
+        out.flush();
     }
 
     // ========================= DECIMAL ↔ RADIX =========================
     public static String fromDecimal(double decimal, int base, int precision) {
-        if (decimal == 0) return "0";
-        boolean negative = decimal < 0;
-        decimal = Math.abs(decimal);
+        char[] digits = scratch(maxLength(base, precision));
+        return new String(digits, 0, fromDecimal(decimal, base, precision, digits, 0));
+    }
 
-        long wholePart = (long) decimal;
-        double fracPart = decimal - wholePart;
+    // Longest output of fromDecimal: sign, whole digits, point and fraction. Powers of two
+    // print every whole digit of the double and stop the fraction at its last set bit.
+    public static int maxLength(int base, int precision) {
+        RadixTables.check(base);
+        checkPrecision(precision);
+        if (precision == SHORTEST) return ShortestDigits.maxLength(base);
+        if (PowerOfTwoConverter.isPowerOfTwo(base)) {
+            int shift = Integer.numberOfTrailingZeros(base);
+            return 1 + PowerOfTwoConverter.maxWholeDigits(shift) + 1 + Math.min(precision, PowerOfTwoConverter.maxFractionDigits(shift));
+        }
+        return 1 + TableWriter.digitBound(1024, base) + 1 + precision;
+    }
 
-        StringBuilder sb = new StringBuilder();
+    // Writes the digits into dest at offset and returns how many chars were written.
+    // dest needs maxLength(base, precision) free chars; nothing is allocated.
+    // precision is the number of fraction digits, or SHORTEST for a round-trip exact output.
+    public static int fromDecimal(double decimal, int base, int precision, char[] dest, int offset) {
+        if (!METRICS.active()) return writeDigits(decimal, base, precision, dest, offset);
+        return METRICS.timeWrite(ConversionMetrics.Operation.CONVERT, base, () -> writeDigits(decimal, base, precision, dest, offset));
+    }
 
-        if (wholePart == 0) sb.append('0');
-        else {
-            StringBuilder wholeStr = new StringBuilder();
-            while (wholePart > 0) {
-                wholeStr.append(DIGITS.charAt((int) (wholePart % base)));
-                wholePart /= base;
-            }
-            sb.append(wholeStr.reverse());
+    private static int writeDigits(double decimal, int base, int precision, char[] dest, int offset) {
+        RadixTables.check(base);
+        checkPrecision(precision);
+        if (precision == SHORTEST && Double.isFinite(decimal)) return ShortestDigits.write(decimal, base, dest, offset);
+        if (PowerOfTwoConverter.isPowerOfTwo(base) && Double.isFinite(decimal)) {
+            return PowerOfTwoConverter.write(decimal, Integer.numberOfTrailingZeros(base), precision, dest, offset);
         }
 
+        int pos = offset;
+        if (decimal == 0) {
+            dest[pos] = '0';
+            return 1;
+        }
+        if (Double.isNaN(decimal)) return write("NaN", dest, pos) - offset;
+        if (decimal < 0) {
+            dest[pos++] = '-';
+            decimal = -decimal;
+        }
+        if (decimal == Double.POSITIVE_INFINITY) return write("Infinity", dest, pos) - offset;
+        // From 2^63 up a double is a whole number too large for a long; BigRadix writes it exactly
+        if (decimal >= 0x1p63) return write(BigRadix.toString(new BigDecimal(decimal).toBigInteger(), base), dest, pos) - offset;
+
+        long wholePart = (long) decimal;
+        double fracPart = decimal - wholePart;
+
+        // Whole digits go right to left into exactly the space they need, so nothing is reversed
+        int count = RadixTables.digitCount(wholePart, base);
+        RadixTables.write(wholePart, base, count, dest, pos + count);
+        pos += count;
+
         if (fracPart > 0) {
-            sb.append('.');
-            int count = 0;
-            while (fracPart > 0 && count < precision) {
+            dest[pos++] = '.';
+            int fractionDigits = 0;
+            while (fracPart > 0 && fractionDigits < precision) {
                 fracPart *= base;
                 int digit = (int) fracPart;
-                sb.append(DIGITS.charAt(digit));
+                dest[pos++] = RadixTables.DIGITS[digit];
                 fracPart -= digit;
-                count++;
+                fractionDigits++;
             }
         }
 
-        return negative ? "-" + sb.toString() : sb.toString();
+        return pos - offset;
+    }
+
+    private static void checkPrecision(int precision) {
+        if (precision < 0 && precision != SHORTEST) throw new IllegalArgumentException("Precision cannot be negative.");
+    }
+
+    private static int write(String text, char[] dest, int pos) {
+        text.getChars(0, text.length(), dest, pos);
+        return pos + text.length();
+    }
+
+    // ASCII version of the above for byte-oriented output such as channels.
+    public static int fromDecimal(double decimal, int base, int precision, byte[] dest, int offset) {
+        char[] digits = scratch(maxLength(base, precision));
+        int length = fromDecimal(decimal, base, precision, digits, 0);
+        for (int i = 0; i < length; i++) dest[offset + i] = (byte) digits[i];
+        return length;
+    }
+
+    // Appends the digits (a CharBuffer or StringBuilder works too) and returns how many chars were appended.
+    public static int fromDecimal(double decimal, int base, int precision, Appendable out) throws IOException {
+        char[] digits = scratch(maxLength(base, precision));
+        int length = fromDecimal(decimal, base, precision, digits, 0);
+        for (int i = 0; i < length; i++) out.append(digits[i]);
+        return length;
+    }
+
+    // Whole numbers skip the double path entirely; dest needs 65 free bytes (sign and 64 binary digits).
+    public static int fromLong(long value, int base, byte[] dest, int offset) {
+        RadixTables.check(base);
+        int pos = offset;
+        if (value < 0) {
+            dest[pos++] = '-';
+            // Peel off the last digit while still negative so Long.MIN_VALUE never has to be negated
+            long rest = -(value / base);
+            int last = (int) -(value % base);
+            if (rest > 0) pos += fromLong(rest, base, dest, pos);
+            dest[pos++] = (byte) RadixTables.DIGITS[last];
+            return pos - offset;
+        }
+
+        int count = RadixTables.digitCount(value, base);
+        RadixTables.write(value, base, count, dest, pos + count);
+        return pos + count - offset;
+    }
+
+    // Per-thread buffer behind the String, byte[] and Appendable overloads, grown only when a longer output shows up.
+    private static char[] scratch(int length) {
+        char[] buffer = Scratch.BUFFER.get();
+        if (buffer.length < length) {
+            buffer = new char[length];
+            Scratch.BUFFER.set(buffer);
+        }
+        return buffer;
+    }
+
+    // Loaded on first use rather than with RadixConverter, and a subclass because
+    // ThreadLocal.withInitial would bootstrap a lambda on every launch.
+    private static final class Scratch extends ThreadLocal<char[]> {
+        static final Scratch BUFFER = new Scratch();
+
+        @Override
+        protected char[] initialValue() { return new char[128]; }
     }
 
     public static double toDecimal(String number, int base) {
-        number = number.toUpperCase();
-        String[] parts = number.split("\\.");
-        double result = 0;
-
-        for (char c : parts[0].toCharArray()) {
-            int digit = DIGITS.indexOf(c);
-            if (digit == -1 || digit >= base) throw new NumberFormatException("Invalid digit '" + c + "' for base " + base);
-            result = result * base + digit;
+        return toDecimal((CharSequence) number, 0, number.length(), base);
+    }
+
+    // Reads the digits in place: no upper-casing, splitting or char[] copies, one table lookup per digit.
+    public static double toDecimal(CharSequence number, int start, int end, int base) {
+        RadixTables.check(base);
+        if (!METRICS.active()) return parseDigits(number, start, end, base);
+        return METRICS.time(ConversionMetrics.Operation.PARSE, base, end - start, () -> parseDigits(number, start, end, base));
+    }
+
+    private static double parseDigits(CharSequence number, int start, int end, int base) {
+        // Powers of two shift digits in as bits instead of multiplying
+        if (PowerOfTwoConverter.isPowerOfTwo(base)) return PowerOfTwoConverter.parse(number, start, end, base);
+        // Base 10 is rounded correctly, so SHORTEST output always reads back as the same double
+        if (base == 10 && !hasExponent(number, start, end)) {
+            double value = DecimalLiteral.parse(number, start, end);
+            if (!Double.isNaN(value)) return value;
         }
 
-        if (parts.length > 1) {
-            double frac = 0;
-            double power = base;
-            for (char c : parts[1].toCharArray()) {
-                int digit = DIGITS.indexOf(c);
-                if (digit == -1 || digit >= base) throw new NumberFormatException("Invalid digit '" + c + "' for base " + base);
-                frac += digit / power;
-                power *= base;
+        // The digits are one integer n over base^f. While both fit in 53 bits they are exact doubles
+        // and one division rounds correctly; longer numbers are divided exactly in BigRadix.
+        long n = 0;
+        int point = -1;
+        for (int i = start; i < end; i++) {
+            char c = number.charAt(i);
+            if (c == '.' && point == -1) {
+                point = i;
+                continue;
             }
-            result += frac;
+            n = n * base + digit(c, base);
+            if (n > EXACT) return BigRadix.toDouble(number, start, end, base);
         }
+        double value = exactQuotient(n, point == -1 ? 0 : end - point - 1, base);
+        return Double.isNaN(value) ? BigRadix.toDouble(number, start, end, base) : value;
+    }
 
-        return result;
+    // n / base^fractionDigits when base^fractionDigits is an exact double, otherwise NaN.
+    private static double exactQuotient(long n, int fractionDigits, int base) {
+        if (fractionDigits == 0) return n;
+        long[] powers = RadixTables.powers(base);
+        if (fractionDigits < powers.length && powers[fractionDigits] <= EXACT) return n / (double) powers[fractionDigits];
+        return Double.NaN;
     }
-    
-    public static String toSubscript(int base) {
-        String baseStr = String.valueOf(base);
-        StringBuilder subscript = new StringBuilder();
-        for (char c : baseStr.toCharArray()) {
-            switch (c) {
-                case '0' -> subscript.append('₀');
-                case '1' -> subscript.append('₁');
-                case '2' -> subscript.append('₂');
-                case '3' -> subscript.append('₃');
-                case '4' -> subscript.append('₄');
-                case '5' -> subscript.append('₅');
-                case '6' -> subscript.append('₆');
-                case '7' -> subscript.append('₇');
-                case '8' -> subscript.append('₈');
-                case '9' -> subscript.append('₉');
+
+    // DecimalLiteral also takes 1e5, which is not a number in base 10 here.
+    private static boolean hasExponent(CharSequence number, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = number.charAt(i);
+            if (c == 'e' || c == 'E') return true;
+        }
+        return false;
+    }
+
+    // Same as toDecimal(String, int) but reads ASCII digits straight out of a buffer, e.g. a mapped file.
+    public static double toDecimal(ByteBuffer ascii, int start, int end, int base) {
+        RadixTables.check(base);
+        if (!METRICS.active()) return parseDigits(ascii, start, end, base);
+        return METRICS.time(ConversionMetrics.Operation.PARSE, base, end - start, () -> parseDigits(ascii, start, end, base));
+    }
+
+    private static double parseDigits(ByteBuffer ascii, int start, int end, int base) {
+        if (PowerOfTwoConverter.isPowerOfTwo(base)) return PowerOfTwoConverter.parse(ascii, start, end, base);
+
+        long n = 0;
+        int point = -1;
+        for (int i = start; i < end; i++) {
+            char c = (char) (ascii.get(i) & 0xFF);
+            if (c == '.' && point == -1) {
+                point = i;
+                continue;
             }
+            n = n * base + digit(c, base);
+            if (n > EXACT) return BigRadix.toDouble(ascii(ascii, start, end), 0, end - start, base);
         }
-        return subscript.toString();
+        double value = exactQuotient(n, point == -1 ? 0 : end - point - 1, base);
+        return Double.isNaN(value) ? BigRadix.toDouble(ascii(ascii, start, end), 0, end - start, base) : value;
     }
-    
-    public static String formatOutput(double decimalValue, int base, int precision) {
-        return "(" + fromDecimal(decimalValue, base, precision).toUpperCase() + ")" + toSubscript(base);
+
+    private static String ascii(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
     }
 
-    // ========================= EXPRESSION EVALUATION =========================
-    public static double evaluateExpression(String expr) {
-        return new Object() {
-            int pos = -1, ch;
+    public static double toDecimal(byte[] ascii, int start, int end, int base) {
+        return toDecimal(ByteBuffer.wrap(ascii), start, end, base);
+    }
 
-            void nextChar() { ch = (++pos < expr.length()) ? expr.charAt(pos) : -1; }
+    private static int digit(char c, int base) {
+        int digit = RadixTables.value(c, base);
+        if (digit == -1) throw RadixTables.invalidDigit(c, base);
+        return digit;
+    }
 
-            boolean eat(int charToEat) {
-                while (ch == ' ') nextChar();
-                if (ch == charToEat) { nextChar(); return true; }
-                return false;
-            }
+    public static String toSubscript(int base) {
+        char[] subscript = new char[10];
+        return new String(subscript, 0, writeSubscript(base, subscript, 0));
+    }
 
-            double parse() {
-                nextChar();
-                double x = parseExpression();
-                if (pos < expr.length()) throw new RuntimeException("Unexpected: " + (char)ch);
-                return x;
-            }
+    // The decimal digits of base as subscripts; returns the position after them.
+    private static int writeSubscript(int base, char[] dest, int pos) {
+        if (base >= 10) pos = writeSubscript(base / 10, dest, pos);
+        dest[pos] = SUBSCRIPTS[base % 10];
+        return pos + 1;
+    }
 
-            double parseExpression() {
-                double x = parseTerm();
-                while (true) {
-                    if      (eat('+')) x += parseTerm();
-                    else if (eat('-')) x -= parseTerm();
-                    else return x;
-                }
-            }
+    public static String formatOutput(double decimalValue, int base, int precision) {
+        char[] output = scratch(maxFormattedLength(base, precision));
+        return new String(output, 0, formatOutput(decimalValue, base, precision, output, 0));
+    }
+
+    public static int maxFormattedLength(int base, int precision) {
+        return maxLength(base, precision) + 4; // parentheses and a two digit subscript
+    }
+
+    // Writes "(digits)" plus the subscript base into dest and returns how many chars were written.
+    public static int formatOutput(double decimalValue, int base, int precision, char[] dest, int offset) {
+        if (!METRICS.active()) return writeFormatted(decimalValue, base, precision, dest, offset);
+        return METRICS.timeWrite(ConversionMetrics.Operation.FORMAT, base, () -> writeFormatted(decimalValue, base, precision, dest, offset));
+    }
+
+    private static int writeFormatted(double decimalValue, int base, int precision, char[] dest, int offset) {
+        int pos = offset;
+        dest[pos++] = '(';
+        pos += writeDigits(decimalValue, base, precision, dest, pos);
+        dest[pos++] = ')';
+        return writeSubscript(base, dest, pos) - offset;
+    }
 
-            double parseTerm() {
-                double x = parseFactor();
-                while (true) {
-                    if      (eat('*')) x *= parseFactor();
-                    else if (eat('/')) x /= parseFactor();
-                    else return x;
+    // All targets in one go: the binary expansion of the double is taken apart once and
+    // powers of two regroup its bits 1 to 5 at a time; only other bases redo the math.
+    public static String[] formatOutputs(double decimalValue, int[] bases, int precision) {
+        int capacity = 0;
+        for (int base : bases) capacity += maxFormattedLength(base, precision);
+        char[] output = scratch(capacity);
+
+        long bits = Double.doubleToRawLongBits(decimalValue);
+        boolean finite = Double.isFinite(decimalValue);
+        long m = finite ? PowerOfTwoConverter.oddMantissa(bits) : 0;
+        int e = finite ? PowerOfTwoConverter.exponent(bits) : 0;
+
+        int[] ends = new int[bases.length];
+        int pos = 0;
+        for (int i = 0; i < bases.length; i++) {
+            int base = bases[i];
+            if (finite && PowerOfTwoConverter.isPowerOfTwo(base)) {
+                // The full expansion of a power-of-two base is already its shortest round-trip form
+                int digits = precision == SHORTEST ? Integer.MAX_VALUE : precision;
+                int offset = pos;
+                if (!METRICS.active()) {
+                    pos += writeBits(m, e, bits < 0, base, digits, output, offset);
+                } else {
+                    pos += METRICS.timeWrite(ConversionMetrics.Operation.FORMAT, base, () -> writeBits(m, e, bits < 0, base, digits, output, offset));
                 }
+            } else {
+                pos += formatOutput(decimalValue, base, precision, output, pos);
             }
+            ends[i] = pos;
+        }
 
-            double parseFactor() {
-                if (eat('+')) return parseFactor();
-                if (eat('-')) return -parseFactor();
+        String[] outputs = new String[bases.length];
+        for (int i = 0; i < bases.length; i++) {
+            int start = i == 0 ? 0 : ends[i - 1];
+            outputs[i] = new String(output, start, ends[i] - start);
+        }
+        return outputs;
+    }
 
-                double x;
-                int startPos = this.pos;
+    // formatOutput from an already split double, for powers of two
+    private static int writeBits(long m, int e, boolean negative, int base, int digits, char[] dest, int offset) {
+        int pos = offset;
+        dest[pos++] = '(';
+        pos += PowerOfTwoConverter.write(m, e, negative, Integer.numberOfTrailingZeros(base), digits, dest, pos);
+        dest[pos++] = ')';
+        return writeSubscript(base, dest, pos) - offset;
+    }
 
-                if (eat('(')) { x = parseExpression(); eat(')'); }
-                else if ((ch >= '0' && ch <= '9') || ch == '.') {
-                    while ((ch >= '0' && ch <= '9') || ch == '.' || ch == 'e' || ch == 'E') {
-                        if (ch == 'e' || ch == 'E') { nextChar(); if (ch == '+' || ch == '-') nextChar(); }
-                        else nextChar();
-                    }
-                    x = Double.parseDouble(expr.substring(startPos, this.pos));
-                }
-                else if (Character.isLetter(ch) || ch == 'π') {
-                    while (Character.isLetter(ch) || ch == 'π') nextChar();
-                    String func = expr.substring(startPos, this.pos);
-                    switch (func.toLowerCase()) {
-                        case "pi", "π" -> x = Math.PI;
-                        case "e" -> x = Math.E;
-                        case "sqrt" -> x = Math.sqrt(parseFactor());
-                        case "sin"  -> x = Math.sin(parseFactor());
-                        case "cos"  -> x = Math.cos(parseFactor());
-                        case "tan"  -> x = Math.tan(parseFactor());
-                        case "log"  -> x = Math.log10(parseFactor());
-                        case "ln"   -> x = Math.log(parseFactor());
-                        case "abs"  -> x = Math.abs(parseFactor());
-                        default -> throw new RuntimeException("Unknown function: " + func);
-                    }
-                } else throw new RuntimeException("Unexpected: " + (char)ch);
+    // ========================= BULK CONVERSION =========================
+    // Converts a whole array into one packed byte[] plus offsets, see ColumnConverter.
+    // Large arrays are split across the common fork/join pool, small ones stay on this thread.
+    public static ConvertedColumn convertAll(double[] values, int base, int precision) {
+        return convertAll(values, base, precision, ForkJoinPool.commonPool());
+    }
 
-                if (eat('^')) x = Math.pow(x, parseFactor());
+    public static ConvertedColumn convertAll(double[] values, int base, int precision, ForkJoinPool pool) {
+        RadixTables.check(base);
+        return ColumnConverter.convert(values, base, precision, pool);
+    }
 
-                if (eat('!')) {
-                    if (x < 0) throw new IllegalArgumentException("Factorial of negative number not defined.");
-                    long f = 1;
-                    for (int i = 2; i <= (int)x; i++) f *= i;
-                    x = f;
-                }
+    public static ConvertedColumn convertAll(long[] values, int base) {
+        return convertAll(values, base, ForkJoinPool.commonPool());
+    }
 
-                return x;
-            }
-        }.parse();
+    public static ConvertedColumn convertAll(long[] values, int base, ForkJoinPool pool) {
+        RadixTables.check(base);
+        return ColumnConverter.convert(values, base, pool);
+    }
+
+    // ========================= ARBITRARY PRECISION =========================
+    // Same conversions through BigDecimal, for values past 2^53 or Long.MAX_VALUE. Bases 2, 8,
+    // 10 and 16 parse exactly; mc only rounds fractions in other bases.
+    public static BigDecimal toBigDecimal(String number, int base, MathContext mc) {
+        RadixTables.check(base);
+        return BigRadix.parse(number, base, mc);
+    }
+
+    public static BigDecimal toBigDecimal(String number, int base) {
+        return toBigDecimal(number, base, MathContext.DECIMAL128);
+    }
+
+    public static String fromBigDecimal(BigDecimal decimal, int base, int precision) {
+        RadixTables.check(base);
+        return BigRadix.format(decimal, base, precision);
+    }
+
+    public static String formatOutput(BigDecimal decimalValue, int base, int precision) {
+        String digits = fromBigDecimal(decimalValue, base, precision);
+        char[] output = new char[digits.length() + 4]; // parentheses and a two digit subscript
+        output[0] = '(';
+        digits.getChars(0, digits.length(), output, 1);
+        output[digits.length() + 1] = ')';
+        return new String(output, 0, writeSubscript(base, output, digits.length() + 2));
+    }
+
+    // ========================= EXPRESSION EVALUATION =========================
+    public static CompiledExpression compile(String expr) {
+        return CompiledExpression.compile(expr);
+    }
+
+    // Parsed expressions are kept, so one evaluated again and again reaches the bytecode tier;
+    // -Dradixconverter.expressionCache=0 turns this off. Built on first use like RowCache.
+    private static final class ExpressionCache {
+        static final ConversionCache<CompiledExpression> INSTANCE = new ConversionCache<>(Integer.getInteger("radixconverter.expressionCache", 1024));
+    }
+
+    public static ConversionCache<?> expressionCache() { return ExpressionCache.INSTANCE; }
+
+    // compile(expr) through ExpressionCache; expressions are always decimal, so base 10 and no precision.
+    static CompiledExpression cachedExpression(String expr) {
+        CompiledExpression compiled = ExpressionCache.INSTANCE.get(expr, 10, 0);
+        if (compiled == null) {
+            compiled = compile(expr);
+            ExpressionCache.INSTANCE.put(expr, 10, 0, compiled);
+        }
+        return compiled;
+    }
+
+    public static double evaluateExpression(String expr) {
+        if (!METRICS.active()) return cachedExpression(expr).evaluate();
+        return METRICS.time(ConversionMetrics.Operation.EVALUATE, 10, expr.length(), () -> cachedExpression(expr).evaluate());
+    }
+
+    private static double evaluateOnce(String expr) {
+        if (!METRICS.active()) return compile(expr).evaluate();
+        return METRICS.time(ConversionMetrics.Operation.EVALUATE, 10, expr.length(), () -> compile(expr).evaluate());
+    }
+
+    public static BigDecimal evaluateExpression(String expr, MathContext mc) {
+        if (!METRICS.active()) return cachedExpression(expr).evaluate(mc);
+        return METRICS.timeValue(ConversionMetrics.Operation.EVALUATE, 10, expr.length(), () -> cachedExpression(expr).evaluate(mc));
+    }
+
+    // ========================= NATIVE-RADIX ARITHMETIC =========================
+    // a operator b for digits in base 2, 8 or 16, worked out on the bits without going through
+    // double (see RadixNumber) and written in outputBase. precision is the number of fraction
+    // digits, or SHORTEST for every digit of a sum, difference or product, which always end;
+    // quotients stop at FRACTION_PRECISION digits then.
+    public static String calculate(String a, char operator, String b, int base, int outputBase, int precision) {
+        RadixNumber x = RadixNumber.parse(a, base), y = RadixNumber.parse(b, base);
+        return switch (operator) {
+            case '+' -> x.add(y).toString(outputBase, precision);
+            case '-' -> x.subtract(y).toString(outputBase, precision);
+            case '*' -> x.multiply(y).toString(outputBase, precision);
+            case '/' -> x.divideToString(y, outputBase, precision == SHORTEST ? FRACTION_PRECISION : precision);
+            default -> throw new IllegalArgumentException("Unknown operator: " + operator);
+        };
+    }
+
+    // ========================= BITWISE EXPRESSIONS =========================
+    // & | ^ ~ << >> >>>, rol, ror and popcount on 8, 16, 32 or 64-bit words, see BitwiseExpression.
+    public static BitwiseExpression compileBitwise(String expr, int width) {
+        return BitwiseExpression.compile(expr, width);
+    }
+
+    public static long evaluateBitwise(String expr, int width) {
+        return compileBitwise(expr, width).evaluate();
+    }
+
+    // The word in base 2, 8 or 16 as the machine holds it: -1 at width 8 is 11111111, 377 or FF.
+    public static String toTwosComplement(long value, int base, int width) {
+        checkWordBase(base);
+        BitwiseExpression.checkWidth(width);
+        byte[] digits = new byte[BitwiseExpression.formatLength(base, width)];
+        return new String(digits, 0, BitwiseExpression.format(value, base, width, digits, 0), StandardCharsets.US_ASCII);
+    }
+
+    public static ConvertedColumn toTwosComplement(long[] values, int base, int width, ForkJoinPool pool) {
+        checkWordBase(base);
+        BitwiseExpression.checkWidth(width);
+        return ColumnConverter.convertWords(values, base, width, pool);
+    }
+
+    private static void checkWordBase(int base) {
+        if (base != 2 && base != 8 && base != 16) throw new IllegalArgumentException("Two's complement output is only for bases 2, 8 and 16.");
     }
 }
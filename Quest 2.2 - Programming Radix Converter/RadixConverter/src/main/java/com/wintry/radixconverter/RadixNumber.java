@@ -0,0 +1,565 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.radixconverter;
+
+/**
+ * An exact number read from base 2, 4, 8, 16 or 32 digits, for arithmetic that
+ * never goes through double. This is the Java version of the Quest 3.2
+ * arithmetic calculator workbooks.
+ *
+ * The value is sign * magnitude / 2^scale, with the magnitude in unsigned
+ * 64-bit limbs, least significant first. Each digit of a power of two base
+ * is a fixed number of bits, so parsing packs digits straight into limbs and
+ * the fraction digits only set the scale. Sums, differences and products of
+ * such numbers are again of that form and stay exact; quotients are cut off
+ * after a given number of fraction bits or digits.
+ *
+ * Products use the schoolbook method on 64x64 -> 128-bit limb products until
+ * both operands reach KARATSUBA_THRESHOLD limbs, then Karatsuba's three half
+ * size products. Division is Knuth's algorithm D on 32-bit halves of the
+ * limbs, since Java has no 128 by 64-bit division.
+ *
+ * toString writes any base from 2 to 36, and 62. Power of two bases read the bits
+ * directly; other bases peel off a chunk of digits per division or
+ * multiplication of the limbs and split the chunk with int arithmetic.
+ *
+ * @author Wintry
+ */
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+public final class RadixNumber implements Comparable<RadixNumber> {
+    static final int KARATSUBA_THRESHOLD = 32; // limbs, i.e. 512 hex digits
+    private static final char[] DIGITS = RadixTables.DIGITS;
+    private static final long LOW = 0xFFFFFFFFL;
+
+    public static final RadixNumber ZERO = new RadixNumber(0, new long[0], 0);
+
+    private final int signum;
+    private final long[] mag;  // no zero limbs at the top; empty for zero
+    private final int scale;   // fraction bits, none of them trailing zeros
+
+    private RadixNumber(int signum, long[] mag, int scale) {
+        this.signum = signum;
+        this.mag = mag;
+        this.scale = scale;
+    }
+
+    // Trims zero limbs at the top and trailing zero fraction bits, so equal values are equal objects.
+    private static RadixNumber of(int signum, long[] mag, int scale) {
+        int length = significantLength(mag);
+        if (length == 0) return ZERO;
+        int zeros = Math.min(scale, lowestSetBit(mag));
+        // Shifting the zeros out can empty the top limb too
+        long[] trimmed = zeros == 0 ? (length == mag.length ? mag : Arrays.copyOf(mag, length)) : trim(shiftRight(mag, length, zeros));
+        return new RadixNumber(signum, trimmed, scale - zeros);
+    }
+
+    // ========================= PARSE =========================
+    // Optional sign, digits and an optional fraction, e.g. -1F.8 in base 16.
+    public static RadixNumber parse(CharSequence text, int base) {
+        if (base < 2 || base > 32 || (base & (base - 1)) != 0) throw new IllegalArgumentException("Only bases 2, 4, 8, 16 and 32 can be read exactly.");
+        int shift = Integer.numberOfTrailingZeros(base);
+        int start = 0, end = text.length();
+        int signum = 1;
+        if (start < end && (text.charAt(start) == '-' || text.charAt(start) == '+')) {
+            if (text.charAt(start) == '-') signum = -1;
+            start++;
+        }
+
+        int point = -1;
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == '.') {
+                if (point != -1) throw new NumberFormatException("Malformed number: " + text);
+                point = i;
+            }
+        }
+        int digits = end - start - (point == -1 ? 0 : 1);
+        if (digits == 0) throw new NumberFormatException("Malformed number: " + text);
+        int fractionDigits = point == -1 ? 0 : end - point - 1;
+
+        // Least significant digit first, each one shift bits further up
+        long[] mag = new long[(int) (((long) digits * shift + 63) >>> 6)];
+        int bit = 0;
+        for (int i = end - 1; i >= start; i--) {
+            if (i == point) continue;
+            int digit = AsciiDigits.value(text.charAt(i));
+            if (digit < 0 || digit >= base) throw new NumberFormatException("Invalid digit " + text.charAt(i) + " for base " + base);
+            int offset = bit & 63;
+            mag[bit >>> 6] |= (long) digit << offset;
+            if (offset + shift > 64) mag[(bit >>> 6) + 1] |= (long) digit >>> (64 - offset);
+            bit += shift;
+        }
+        return of(signum, mag, fractionDigits * shift);
+    }
+
+    public static RadixNumber valueOf(long value) {
+        if (value == 0) return ZERO;
+        return new RadixNumber(Long.signum(value), new long[]{value == Long.MIN_VALUE ? value : Math.abs(value)}, 0);
+    }
+
+    // ========================= ARITHMETIC =========================
+    public RadixNumber add(RadixNumber other) {
+        if (other.signum == 0) return this;
+        if (signum == 0) return other;
+        int scale = Math.max(this.scale, other.scale);
+        long[] a = shiftLeft(mag, scale - this.scale), b = shiftLeft(other.mag, scale - other.scale);
+        if (signum == other.signum) return of(signum, add(a, b), scale);
+        int order = compareMagnitude(a, b);
+        if (order == 0) return ZERO;
+        return order > 0 ? of(signum, subtract(a, b), scale) : of(other.signum, subtract(b, a), scale);
+    }
+
+    public RadixNumber subtract(RadixNumber other) {
+        return add(other.negate());
+    }
+
+    public RadixNumber multiply(RadixNumber other) {
+        if (signum == 0 || other.signum == 0) return ZERO;
+        return of(signum * other.signum, multiply(mag, other.mag), Math.addExact(scale, other.scale));
+    }
+
+    // The quotient cut off (toward zero) after fractionBits bits.
+    public RadixNumber divide(RadixNumber divisor, int fractionBits) {
+        if (divisor.signum == 0) throw new ArithmeticException("Division by zero.");
+        if (signum == 0) return ZERO;
+        // this / divisor * 2^f = (mag * 2^(divisor.scale + f)) / (divisor.mag * 2^scale)
+        long[] quotient = divideMagnitude(shiftLeft(mag, divisor.scale + fractionBits), shiftLeft(divisor.mag, scale));
+        return of(signum * divisor.signum, quotient, fractionBits);
+    }
+
+    // The quotient in base with precision fraction digits, cut off toward zero. Unlike
+    // divide(...).toString, digits of 1/10 in base 10 come out as 0.1 and not 0.0999...
+    public String divideToString(RadixNumber divisor, int base, int precision) {
+        RadixTables.check(base);
+        if (precision < 0) throw new IllegalArgumentException("A quotient needs a number of fraction digits.");
+        if (divisor.signum == 0) throw new ArithmeticException("Division by zero.");
+        if ((base & (base - 1)) == 0) return divide(divisor, precision * Integer.numberOfTrailingZeros(base)).toString(base, precision);
+
+        // floor(this * base^precision / divisor), written as an integer with the point put back in
+        long[] numerator = multiply(shiftLeft(mag, divisor.scale), power(base, precision));
+        long[] quotient = signum == 0 ? new long[0] : divideMagnitude(numerator, shiftLeft(divisor.mag, scale));
+        StringBuilder sb = new StringBuilder();
+        if (signum * divisor.signum < 0 && significantLength(quotient) > 0) sb.append('-');
+        int start = sb.length();
+        appendWhole(quotient, base, sb);
+        if (precision > 0) {
+            while (sb.length() - start <= precision) sb.insert(start, '0');
+            sb.insert(sb.length() - precision, '.');
+        }
+        return sb.toString();
+    }
+
+    public RadixNumber negate() {
+        return signum == 0 ? this : new RadixNumber(-signum, mag, scale);
+    }
+
+    public RadixNumber abs() {
+        return signum < 0 ? negate() : this;
+    }
+
+    public int signum() { return signum; }
+
+    // Fraction bits needed to hold the value exactly.
+    public int scale() { return scale; }
+
+    public BigDecimal toBigDecimal() {
+        byte[] bytes = new byte[mag.length * 8 + 1];
+        for (int i = 0; i < mag.length; i++) {
+            for (int b = 0; b < 8; b++) bytes[bytes.length - 1 - i * 8 - b] = (byte) (mag[i] >>> (8 * b));
+        }
+        BigDecimal magnitude = new BigDecimal(new BigInteger(signum, bytes));
+        // 2^-scale = 5^scale / 10^scale
+        return magnitude.multiply(new BigDecimal(BigInteger.valueOf(5).pow(scale))).scaleByPowerOfTen(-scale);
+    }
+
+    @Override
+    public int compareTo(RadixNumber other) {
+        if (signum != other.signum) return Integer.compare(signum, other.signum);
+        int scale = Math.max(this.scale, other.scale);
+        return signum * compareMagnitude(shiftLeft(mag, scale - this.scale), shiftLeft(other.mag, scale - other.scale));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof RadixNumber other && signum == other.signum && scale == other.scale && Arrays.equals(mag, other.mag);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * signum + scale) + Arrays.hashCode(mag);
+    }
+
+    // ========================= OUTPUT =========================
+    // Every fraction digit, which for a base with 2 as a factor always ends.
+    @Override
+    public String toString() {
+        return toString(16, RadixConverter.SHORTEST);
+    }
+
+    // precision fraction digits cut off toward zero, or SHORTEST for all of them. Bases that are
+    // odd (3, 5, 7, ...) never end a fraction of 2^-scale, so they need a precision.
+    public String toString(int base, int precision) {
+        RadixTables.check(base);
+        if (precision == RadixConverter.SHORTEST && (base & 1) != 0 && scale > 0) {
+            throw new IllegalArgumentException("The fraction never ends in base " + base + "; give a precision.");
+        }
+        StringBuilder sb = new StringBuilder();
+        if (signum < 0) sb.append('-');
+        appendWhole(shiftRight(mag, mag.length, scale), base, sb);
+        if (scale > 0 && precision != 0) {
+            sb.append('.');
+            appendFraction(base, precision, sb);
+        } else if (precision > 0) {
+            sb.append('.').append("0".repeat(precision));
+        }
+        // A negative value cut off to nothing but zeros is written without its sign
+        if (signum < 0 && sb.chars().allMatch(c -> c == '-' || c == '0' || c == '.')) sb.deleteCharAt(0);
+        return sb.toString();
+    }
+
+    // Digits of an integer magnitude, most significant first.
+    private static void appendWhole(long[] whole, int base, StringBuilder sb) {
+        int length = significantLength(whole);
+        if (length == 0) {
+            sb.append('0');
+            return;
+        }
+        if ((base & (base - 1)) == 0) {
+            int shift = Integer.numberOfTrailingZeros(base);
+            int bits = length * 64 - Long.numberOfLeadingZeros(whole[length - 1]);
+            for (int digit = (bits + shift - 1) / shift - 1; digit >= 0; digit--) sb.append(DIGITS[bits(whole, digit * shift, shift)]);
+            return;
+        }
+
+        // Divide by base^chunk over 32-bit words, lowest chunk first, then reverse
+        int chunk = RadixTables.chunkDigits(base);
+        long divisor = RadixTables.chunk(base);
+        int[] words = toWords(whole, length);
+        int top = words.length;
+        StringBuilder reversed = new StringBuilder();
+        while (top > 0) {
+            long remainder = 0;
+            for (int i = top - 1; i >= 0; i--) {
+                long current = remainder << 32 | (words[i] & LOW);
+                words[i] = (int) (current / divisor);
+                remainder = current % divisor;
+            }
+            while (top > 0 && words[top - 1] == 0) top--;
+            int value = (int) remainder;
+            // Lower chunks keep their leading zeros, the last one stops at its top digit
+            for (int d = 0; d < chunk && (top > 0 || value != 0); d++) {
+                reversed.append(DIGITS[value % base]);
+                value /= base;
+            }
+        }
+        sb.append(reversed.reverse());
+    }
+
+    // Fraction digits: multiply the fraction bits by base^chunk and take what moves above the point.
+    private void appendFraction(int base, int precision, StringBuilder sb) {
+        if ((base & (base - 1)) == 0) {
+            int shift = Integer.numberOfTrailingZeros(base);
+            int available = (scale + shift - 1) / shift;
+            int count = precision == RadixConverter.SHORTEST ? available : precision;
+            for (int digit = 1; digit <= count; digit++) {
+                int low = scale - digit * shift;
+                if (low >= 0) sb.append(DIGITS[bits(mag, low, shift)]);
+                else if (low > -shift) sb.append(DIGITS[bits(mag, 0, shift + low) << -low]);
+                else sb.append('0');
+            }
+            return;
+        }
+
+        int chunk = RadixTables.chunkDigits(base);
+        long multiplier = RadixTables.chunk(base);
+        // The fraction bits as 32-bit words, shifted so the point sits above the top word, which also
+        // drops the whole part; each pass pushes the next chunk out of the top as the carry
+        int fractionWords = (scale + 31) >>> 5;
+        int[] words = toWords(mag, mag.length, fractionWords);
+        int padding = fractionWords * 32 - scale; // move the point onto a word boundary
+        shiftWordsLeft(words, fractionWords, padding);
+
+        int written = 0;
+        while (precision == RadixConverter.SHORTEST ? !isZero(words, fractionWords) : written < precision) {
+            long carry = 0;
+            for (int i = 0; i < fractionWords; i++) {
+                long product = (words[i] & LOW) * multiplier + carry;
+                words[i] = (int) product;
+                carry = product >>> 32;
+            }
+            int value = (int) carry;
+            int take = precision == RadixConverter.SHORTEST ? chunk : Math.min(chunk, precision - written);
+            // The chunk's digits, highest first, of which only the first take are kept
+            int divisor = (int) (multiplier / base);
+            for (int d = 0; d < take; d++) {
+                sb.append(DIGITS[value / divisor]);
+                value %= divisor;
+                divisor /= base;
+            }
+            written += take;
+        }
+        if (precision == RadixConverter.SHORTEST) {
+            // Trailing zeros of the last chunk are not part of the value
+            int end = sb.length();
+            while (sb.charAt(end - 1) == '0' && sb.charAt(end - 2) != '.') end--;
+            sb.setLength(end);
+        }
+    }
+
+    // ========================= LIMBS =========================
+
+    private static long[] power(int base, int exponent) {
+        long[] result = {1};
+        long[] square = {base};
+        for (int e = exponent; e > 0; e >>>= 1) {
+            if ((e & 1) != 0) result = trim(multiply(result, square));
+            if (e > 1) square = trim(multiply(square, square));
+        }
+        return result;
+    }
+
+    private static int significantLength(long[] x) {
+        int length = x.length;
+        while (length > 0 && x[length - 1] == 0) length--;
+        return length;
+    }
+
+    private static long[] trim(long[] x) {
+        int length = significantLength(x);
+        return length == x.length ? x : Arrays.copyOf(x, length);
+    }
+
+    private static int lowestSetBit(long[] x) {
+        for (int i = 0; i < x.length; i++) {
+            if (x[i] != 0) return i * 64 + Long.numberOfTrailingZeros(x[i]);
+        }
+        return 0;
+    }
+
+    // count bits of x starting at bit index low, as an int.
+    private static int bits(long[] x, int low, int count) {
+        int limb = low >>> 6, offset = low & 63;
+        long value = limb < x.length ? x[limb] >>> offset : 0;
+        if (offset + count > 64 && limb + 1 < x.length) value |= x[limb + 1] << (64 - offset);
+        return (int) (value & ((1L << count) - 1));
+    }
+
+    private static long[] shiftLeft(long[] x, int bits) {
+        if (bits == 0) return x;
+        int limbs = bits >>> 6, offset = bits & 63;
+        long[] result = new long[x.length + limbs + 1];
+        for (int i = 0; i < x.length; i++) {
+            result[i + limbs] |= x[i] << offset;
+            if (offset != 0) result[i + limbs + 1] = x[i] >>> (64 - offset);
+        }
+        return result;
+    }
+
+    // The first length limbs of x shifted right, i.e. divided by 2^bits.
+    private static long[] shiftRight(long[] x, int length, int bits) {
+        int limbs = bits >>> 6, offset = bits & 63;
+        if (limbs >= length) return new long[0];
+        long[] result = new long[length - limbs];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = x[i + limbs] >>> offset;
+            if (offset != 0 && i + limbs + 1 < length) result[i] |= x[i + limbs + 1] << (64 - offset);
+        }
+        return result;
+    }
+
+    private static int compareMagnitude(long[] a, long[] b) {
+        int la = significantLength(a), lb = significantLength(b);
+        if (la != lb) return Integer.compare(la, lb);
+        for (int i = la - 1; i >= 0; i--) {
+            if (a[i] != b[i]) return Long.compareUnsigned(a[i], b[i]);
+        }
+        return 0;
+    }
+
+    private static long[] add(long[] a, long[] b) {
+        if (a.length < b.length) return add(b, a);
+        long[] result = new long[a.length + 1];
+        long carry = 0;
+        for (int i = 0; i < a.length; i++) {
+            long x = a[i], sum = x + (i < b.length ? b[i] : 0);
+            long overflow = Long.compareUnsigned(sum, x) < 0 ? 1 : 0;
+            sum += carry;
+            if (sum == 0 && carry != 0) overflow = 1;
+            result[i] = sum;
+            carry = overflow;
+        }
+        result[a.length] = carry;
+        return result;
+    }
+
+    // a - b for a >= b.
+    private static long[] subtract(long[] a, long[] b) {
+        long[] result = new long[a.length];
+        long borrow = 0;
+        for (int i = 0; i < a.length; i++) {
+            long x = a[i], y = i < b.length ? b[i] : 0;
+            long difference = x - y - borrow;
+            borrow = Long.compareUnsigned(x, y) < 0 || (x == y && borrow != 0) ? 1 : 0;
+            result[i] = difference;
+        }
+        return result;
+    }
+
+    // Adds x into result starting at limb offset, carrying as far as needed.
+    private static void addInto(long[] result, long[] x, int offset) {
+        long carry = 0;
+        int i = 0;
+        for (; i < x.length; i++) {
+            long before = result[offset + i], sum = before + x[i];
+            long overflow = Long.compareUnsigned(sum, before) < 0 ? 1 : 0;
+            sum += carry;
+            if (sum == 0 && carry != 0) overflow = 1;
+            result[offset + i] = sum;
+            carry = overflow;
+        }
+        for (int j = offset + i; carry != 0 && j < result.length; j++) carry = ++result[j] == 0 ? 1 : 0;
+    }
+
+    static long[] multiply(long[] a, long[] b) {
+        a = trim(a);
+        b = trim(b);
+        if (Math.min(a.length, b.length) >= KARATSUBA_THRESHOLD) return karatsuba(a, b);
+        long[] result = new long[a.length + b.length];
+        for (int i = 0; i < a.length; i++) {
+            long x = a[i], carry = 0;
+            if (x == 0) continue;
+            for (int j = 0; j < b.length; j++) {
+                long low = x * b[j], high = Math.unsignedMultiplyHigh(x, b[j]);
+                low += result[i + j];
+                if (Long.compareUnsigned(low, result[i + j]) < 0) high++;
+                low += carry;
+                if (Long.compareUnsigned(low, carry) < 0) high++;
+                result[i + j] = low;
+                carry = high;
+            }
+            result[i + b.length] = carry;
+        }
+        return result;
+    }
+
+    // (a1 B + a0)(b1 B + b0) = a1 b1 B^2 + ((a1 + a0)(b1 + b0) - a1 b1 - a0 b0) B + a0 b0, with B = 2^(64 half).
+    private static long[] karatsuba(long[] a, long[] b) {
+        int half = (Math.max(a.length, b.length) + 1) / 2;
+        long[] a0 = Arrays.copyOf(a, Math.min(half, a.length)), a1 = a.length > half ? Arrays.copyOfRange(a, half, a.length) : new long[0];
+        long[] b0 = Arrays.copyOf(b, Math.min(half, b.length)), b1 = b.length > half ? Arrays.copyOfRange(b, half, b.length) : new long[0];
+
+        long[] low = multiply(a0, b0);
+        long[] high = multiply(a1, b1);
+        long[] middle = subtract(subtract(trim(multiply(add(a0, a1), add(b0, b1))), low), high);
+
+        long[] result = new long[a.length + b.length + 1];
+        addInto(result, trim(low), 0);
+        addInto(result, trim(middle), half);
+        addInto(result, trim(high), 2 * half);
+        return result;
+    }
+
+    // ========================= DIVISION =========================
+    // floor(numerator / divisor) for divisor > 0, Knuth's algorithm D on 32-bit words.
+    private static long[] divideMagnitude(long[] numerator, long[] divisor) {
+        int[] u = toWords(numerator, significantLength(numerator));
+        int[] v = toWords(divisor, significantLength(divisor));
+        int n = v.length;
+        while (n > 0 && v[n - 1] == 0) n--;
+        int m = u.length;
+        while (m > 0 && u[m - 1] == 0) m--;
+        if (m < n) return new long[0];
+        int[] q = new int[m - n + 1];
+
+        if (n == 1) {
+            long d = v[0] & LOW, remainder = 0;
+            for (int i = m - 1; i >= 0; i--) {
+                long current = remainder << 32 | (u[i] & LOW);
+                q[i] = (int) Long.divideUnsigned(current, d);
+                remainder = Long.remainderUnsigned(current, d);
+            }
+            return fromWords(q);
+        }
+
+        // Normalize so the divisor's top word has its high bit set
+        int s = Integer.numberOfLeadingZeros(v[n - 1]);
+        int[] vn = new int[n], un = new int[m + 1];
+        for (int i = n - 1; i > 0; i--) vn[i] = v[i] << s | (s == 0 ? 0 : v[i - 1] >>> (32 - s));
+        vn[0] = v[0] << s;
+        un[m] = s == 0 ? 0 : u[m - 1] >>> (32 - s);
+        for (int i = m - 1; i > 0; i--) un[i] = u[i] << s | (s == 0 ? 0 : u[i - 1] >>> (32 - s));
+        un[0] = u[0] << s;
+
+        long vTop = vn[n - 1] & LOW, vNext = vn[n - 2] & LOW;
+        for (int j = m - n; j >= 0; j--) {
+            // Estimate the quotient word from the top two words, then correct it at most twice
+            long top = (un[j + n] & LOW) << 32 | (un[j + n - 1] & LOW);
+            long qhat = Long.divideUnsigned(top, vTop), rhat = Long.remainderUnsigned(top, vTop);
+            while (qhat > LOW || Long.compareUnsigned(qhat * vNext, rhat << 32 | (un[j + n - 2] & LOW)) > 0) {
+                qhat--;
+                rhat += vTop;
+                if (rhat > LOW) break;
+            }
+
+            // un[j .. j + n] -= qhat * vn
+            long borrow = 0, t;
+            for (int i = 0; i < n; i++) {
+                long product = qhat * (vn[i] & LOW);
+                t = (un[i + j] & LOW) - borrow - (product & LOW);
+                un[i + j] = (int) t;
+                borrow = (product >>> 32) - (t >> 32);
+            }
+            t = (un[j + n] & LOW) - borrow;
+            un[j + n] = (int) t;
+
+            q[j] = (int) qhat;
+            if (t < 0) {
+                // Estimate was one too high: add the divisor back
+                q[j]--;
+                long carry = 0;
+                for (int i = 0; i < n; i++) {
+                    t = (un[i + j] & LOW) + (vn[i] & LOW) + carry;
+                    un[i + j] = (int) t;
+                    carry = t >>> 32;
+                }
+                un[j + n] += (int) carry;
+            }
+        }
+        return fromWords(q);
+    }
+
+    private static int[] toWords(long[] x, int length) {
+        return toWords(x, length, length * 2);
+    }
+
+    // The low words of x, least significant first; words past x are zero.
+    private static int[] toWords(long[] x, int length, int words) {
+        int[] result = new int[words];
+        for (int i = 0; i < words && i / 2 < length; i++) result[i] = (int) (x[i / 2] >>> (32 * (i & 1)));
+        return result;
+    }
+
+    private static long[] fromWords(int[] words) {
+        long[] result = new long[(words.length + 1) / 2];
+        for (int i = 0; i < words.length; i++) result[i / 2] |= (words[i] & LOW) << (32 * (i & 1));
+        return result;
+    }
+
+    // Shifts the first length words left by bits < 32, dropping what leaves the top.
+    private static void shiftWordsLeft(int[] words, int length, int bits) {
+        if (bits == 0) return;
+        for (int i = length - 1; i > 0; i--) words[i] = words[i] << bits | words[i - 1] >>> (32 - bits);
+        words[0] <<= bits;
+    }
+
+    private static boolean isZero(int[] words, int length) {
+        for (int i = 0; i < length; i++) {
+            if (words[i] != 0) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.radixconverter;
+
+/**
+ * The RadixConverter side of replay mode, see JournalReplay:
+ *
+ *   RadixConverter --replay <dir> [--since <time>] [--until <time>] [--input <text>] [--exact]
+ *
+ * Rows carry the stored double formatted with the stored precision, so they
+ * match what the interactive table showed; --exact formats the exact value
+ * instead where one was journaled, i.e. for plain numbers the double could
+ * not hold.
+ *
+ * @author Wintry
+ */
+import com.wintry.common.ConversionJournal;
+import com.wintry.common.JournalReplay;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+final class RadixReplay extends JournalReplay {
+    private boolean exact;
+
+    RadixReplay() {
+        super("RadixConverter --replay <dir> [--since <time>] [--until <time>] [--input <text>] [--exact]",
+                "Input", "Output 1", "Output 2", "Output 3");
+    }
+
+    @Override
+    protected boolean option(String name) {
+        if (!name.equals("--exact")) return false;
+        exact = true;
+        return true;
+    }
+
+    @Override
+    protected void measure(ConversionJournal.Entry entry, int[] widths) throws IOException {
+        int[] bases = RadixConverter.rowBases(entry.base());
+        BigDecimal decimal = exact ? decimal(entry.exact()) : null;
+        for (int c = 0; c < bases.length; c++) {
+            // Shortest and exact output have no useful bound, so those cells are measured
+            int width = decimal != null || entry.precision() == RadixConverter.SHORTEST
+                    ? cell(entry, decimal, bases[c]).length()
+                    : RadixConverter.columnWidth(bases[c], entry.value(), entry.precision());
+            widths[c + 1] = Math.max(widths[c + 1], width);
+        }
+    }
+
+    @Override
+    protected void cells(ConversionJournal.Entry entry, String[] cells) throws IOException {
+        int[] bases = RadixConverter.rowBases(entry.base());
+        BigDecimal decimal = exact ? decimal(entry.exact()) : null;
+        for (int c = 0; c < bases.length; c++) cells[c + 1] = cell(entry, decimal, bases[c]);
+    }
+
+    private static String cell(ConversionJournal.Entry entry, BigDecimal decimal, int base) {
+        if (decimal == null) return RadixConverter.formatOutput(entry.value(), base, entry.precision());
+        // Fixed digits stand in for shortest output, which only means something for a double
+        int precision = entry.precision() == RadixConverter.SHORTEST ? RadixConverter.FRACTION_PRECISION : entry.precision();
+        return RadixConverter.formatOutput(decimal, base, precision);
+    }
+
+    // ========================= EXACT VALUES =========================
+    // What the journal keeps next to the double: for a plain number in the origin base whose value
+    // the double does not hold exactly, the BigDecimal as its scale followed by the unscaled bytes.
+    static byte[] exactBytes(String input, int originBase, double value) {
+        if (!RadixConverter.isPlainNumber(input, originBase)) return null;
+        BigDecimal exact;
+        try {
+            exact = RadixConverter.toBigDecimal(input, originBase);
+        } catch (NumberFormatException e) {
+            return null; // e.g. 1E5 in base 10, which was evaluated as an expression
+        }
+        if (Double.isFinite(value) && exact.compareTo(new BigDecimal(value)) == 0) return null;
+        byte[] unscaled = exact.unscaledValue().toByteArray();
+        return ByteBuffer.allocate(4 + unscaled.length).putInt(exact.scale()).put(unscaled).array();
+    }
+
+    static BigDecimal decimal(byte[] bytes) {
+        if (bytes == null) return null;
+        int scale = ByteBuffer.wrap(bytes).getInt();
+        return new BigDecimal(new BigInteger(Arrays.copyOfRange(bytes, 4, bytes.length)), scale);
+    }
+}
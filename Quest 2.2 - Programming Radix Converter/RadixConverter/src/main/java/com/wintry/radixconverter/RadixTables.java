@@ -0,0 +1,137 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.radixconverter;
+
+/**
+ * Per-base tables for every supported base, 2 to 36 and 62 for short IDs,
+ * built once when the class loads: the digit alphabet, a reverse lookup
+ * from char to digit, and the powers of the base that fit in a long.
+ *
+ * All bases share one alphabet, 0-9, A-Z, then a-z. Up to base 36 digits
+ * are read in either case; base 62 needs both cases, so there a and A are
+ * different digits.
+ *
+ * Digits are written a chunk at a time: one long division splits off the
+ * largest power of the base below 2^31 (10^9 in base 10, 36^5 in base 36),
+ * and the chunk's digits then come from int arithmetic. The largest power
+ * that fits in a long (10^18, 36^12) is how many digits a parser can
+ * gather in one long before it has to go to BigInteger.
+ *
+ * @author Wintry
+ */
+import java.util.Arrays;
+
+final class RadixTables {
+    static final int MAX_BASE = 62;
+    // Digit d in any base is DIGITS[d]
+    static final char[] DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    // VALUES[base][c] = the digit c stands for in base, or -1, also for digits of larger bases
+    private static final byte[][] VALUES = new byte[MAX_BASE + 1][];
+    // POWERS[base][n] = base^n, for every power that fits in a long
+    private static final long[][] POWERS = new long[MAX_BASE + 1][];
+    // Largest power of the base below 2^31, and its exponent
+    private static final int[] CHUNK = new int[MAX_BASE + 1];
+    private static final int[] CHUNK_DIGITS = new int[MAX_BASE + 1];
+
+    static {
+        for (int base = 2; base <= MAX_BASE; base++) {
+            if (base > 36 && base != MAX_BASE) continue;
+
+            byte[] values = new byte[256];
+            Arrays.fill(values, (byte) -1);
+            for (int d = 0; d < base; d++) {
+                values[DIGITS[d]] = (byte) d;
+                if (base <= 36) values[Character.toLowerCase(DIGITS[d])] = (byte) d;
+            }
+            VALUES[base] = values;
+
+            int count = 1;
+            for (long p = 1; p <= Long.MAX_VALUE / base; p *= base) count++;
+            long[] powers = new long[count];
+            powers[0] = 1;
+            for (int n = 1; n < count; n++) powers[n] = powers[n - 1] * base;
+            POWERS[base] = powers;
+
+            int digits = 0;
+            while (powers[digits + 1] < Integer.MAX_VALUE) digits++;
+            CHUNK[base] = (int) powers[digits];
+            CHUNK_DIGITS[base] = digits;
+        }
+    }
+
+    private RadixTables() {}
+
+    static boolean isSupported(int base) {
+        return base >= 2 && base <= MAX_BASE && VALUES[base] != null;
+    }
+
+    // For the public entry points: the tables of any other base are null or out of range.
+    static void check(int base) {
+        if (!isSupported(base)) throw new IllegalArgumentException("Invalid base " + base + ". Bases 2 to 36 and 62 are supported.");
+    }
+
+    // The digit c stands for in base, or -1 when it is not one of its digits.
+    static int value(int c, int base) {
+        return c < 256 ? VALUES[base][c] : -1;
+    }
+
+    static NumberFormatException invalidDigit(char c, int base) {
+        // Case only tells digits apart in base 62
+        return new NumberFormatException("Invalid digit '" + (base > 36 ? c : Character.toUpperCase(c)) + "' for base " + base);
+    }
+
+    static long[] powers(int base) {
+        return POWERS[base];
+    }
+
+    // Most digits whose value always fits in a long: 18 in base 10, 12 in base 36.
+    static int longChunkDigits(int base) {
+        return POWERS[base].length - 1;
+    }
+
+    static int chunk(int base) {
+        return CHUNK[base];
+    }
+
+    static int chunkDigits(int base) {
+        return CHUNK_DIGITS[base];
+    }
+
+    // Number of digits of a non-negative value, found by comparing against the power table.
+    static int digitCount(long value, int base) {
+        long[] powers = POWERS[base];
+        int count = 1;
+        while (count < powers.length && value >= powers[count]) count++;
+        return count;
+    }
+
+    // ========================= CHUNKED OUTPUT =========================
+    // Writes the last count digits of a non-negative value right to left, ending just before end,
+    // so count = digitCount(value, base) writes all of them and a larger count pads with zeros.
+    static void write(long value, int base, int count, char[] dest, int end) {
+        int chunk = CHUNK[base], chunkDigits = CHUNK_DIGITS[base];
+        int start = end - count, pos = end;
+        while (pos - start > chunkDigits) {
+            long high = value / chunk;
+            int low = (int) (value - high * chunk);
+            for (int stop = pos - chunkDigits; pos > stop; low /= base) dest[--pos] = DIGITS[low % base];
+            value = high;
+        }
+        for (int low = (int) value; pos > start; low /= base) dest[--pos] = DIGITS[low % base];
+    }
+
+    static void write(long value, int base, int count, byte[] dest, int end) {
+        int chunk = CHUNK[base], chunkDigits = CHUNK_DIGITS[base];
+        int start = end - count, pos = end;
+        while (pos - start > chunkDigits) {
+            long high = value / chunk;
+            int low = (int) (value - high * chunk);
+            for (int stop = pos - chunkDigits; pos > stop; low /= base) dest[--pos] = (byte) DIGITS[low % base];
+            value = high;
+        }
+        for (int low = (int) value; pos > start; low /= base) dest[--pos] = (byte) DIGITS[low % base];
+    }
+}
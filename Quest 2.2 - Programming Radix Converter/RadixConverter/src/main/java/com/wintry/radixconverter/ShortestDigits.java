@@ -0,0 +1,209 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.radixconverter;
+
+/**
+ * Shortest round-trip output: the fewest digits in a base that still read
+ * back as exactly the same double, so 0.3 prints as 0.3 instead of ten
+ * digits of its binary approximation.
+ *
+ * A double m * 2^e stands for every real number closer to it than to its
+ * neighbours, the interval v - half ulp .. v + half ulp, whose ends belong
+ * to it when m is even (ties round to even, as in toDecimal and
+ * Double.parseDouble). Digits are generated from the exact value with
+ * integer arithmetic (the free-format algorithm of Steele & White and
+ * Burger & Dybvig, which Ryu and Grisu speed up for base 10 only) and
+ * generation stops as soon as the digits so far, rounded down or up, land
+ * inside that interval.
+ *
+ * The value, interval and scale are kept in longs when they fit, which is
+ * the case for most magnitudes from about 1/64 up to 2^53; everything else
+ * runs the same steps on BigIntegers.
+ *
+ * Powers of two need none of this: their full expansion ends at the last
+ * set bit of m, and no shorter digit string lies within half an ulp.
+ *
+ * @author Wintry
+ */
+import com.wintry.common.TableWriter;
+import java.math.BigInteger;
+
+final class ShortestDigits {
+    private static final int MIN_EXPONENT = -1074;
+
+    private ShortestDigits() {}
+
+    // Longest output: sign, every whole digit of the largest double, point, and the
+    // fraction down to the smallest subnormal.
+    static int maxLength(int base) {
+        return 1 + TableWriter.digitBound(1024, base) + 1 + TableWriter.digitBound(1075, base);
+    }
+
+    // Writes the shortest digits of a finite value into dest and returns how many chars were written.
+    static int write(double value, int base, char[] dest, int offset) {
+        if (PowerOfTwoConverter.isPowerOfTwo(base)) {
+            return PowerOfTwoConverter.write(value, Integer.numberOfTrailingZeros(base), Integer.MAX_VALUE, dest, offset);
+        }
+
+        int pos = offset;
+        if (value == 0) {
+            dest[pos] = '0';
+            return 1;
+        }
+        if (value < 0) {
+            dest[pos++] = '-';
+            value = -value;
+        }
+
+        long bits = Double.doubleToRawLongBits(value);
+        int biasedExponent = (int) (bits >>> 52);
+        long m = bits & 0xFFFFFFFFFFFFFL;
+        int e;
+        if (biasedExponent == 0) {
+            e = MIN_EXPONENT;
+        } else {
+            m |= 1L << 52;
+            e = biasedExponent - 1075;
+        }
+        // At a power of two the next double down is only half as far away as the next one up
+        boolean unevenGap = m == 1L << 52 && e > MIN_EXPONENT;
+        boolean even = (m & 1) == 0;
+
+        // value = r / s, the interval is r - mMinus .. r + mPlus over s; all doubled so the half ulps are whole
+        int digitsStart = pos;
+        int[] k = new int[1];
+        int count;
+        if (e < 0 && e >= -58) {
+            long r = unevenGap ? m << 2 : m << 1;
+            long s = 1L << (unevenGap ? 2 - e : 1 - e);
+            count = generate(r, s, unevenGap ? 2 : 1, 1, even, base, dest, pos, k);
+        } else {
+            count = -1;
+        }
+        if (count < 0) {
+            BigInteger r, s, mPlus, mMinus;
+            if (e >= 0) {
+                BigInteger ulp = BigInteger.ONE.shiftLeft(e);
+                r = BigInteger.valueOf(m).shiftLeft(e + (unevenGap ? 2 : 1));
+                s = BigInteger.valueOf(unevenGap ? 4 : 2);
+                mPlus = unevenGap ? ulp.shiftLeft(1) : ulp;
+                mMinus = ulp;
+            } else {
+                r = BigInteger.valueOf(m).shiftLeft(unevenGap ? 2 : 1);
+                s = BigInteger.ONE.shiftLeft(unevenGap ? 2 - e : 1 - e);
+                mPlus = BigInteger.valueOf(unevenGap ? 2 : 1);
+                mMinus = BigInteger.ONE;
+            }
+            count = generate(r, s, mPlus, mMinus, even, base, dest, pos, k);
+        }
+        return pos + layout(dest, digitsStart, count, k[0]) - offset;
+    }
+
+    // ========================= DIGIT GENERATION =========================
+    // Both versions write the significant digits d1 d2 ... dn into dest, with value ~ 0.d1d2...dn * base^k,
+    // store k in scale[0] and return n. The long version returns -1 when its numbers could overflow.
+    // With even set the interval includes its ends.
+    private static int generate(long r, long s, long mPlus, long mMinus, boolean even, int base, char[] dest, int pos, int[] scale) {
+        // Everything below is at most s * base^2, which has to stay clear of the sign bit
+        int baseBits = 64 - Long.numberOfLeadingZeros(base - 1);
+        int top = even ? 1 : 0; // the upper end has to stay below s * base^k, or may reach it when excluded
+        int k = 0;
+        // Smallest k that puts the upper end at or under s * base^k
+        if (r + mPlus + top > s) {
+            while (r + mPlus + top > s) {
+                if (64 - Long.numberOfLeadingZeros(s) + 2 * baseBits >= 63) return -1;
+                s *= base;
+                k++;
+            }
+        } else {
+            if (64 - Long.numberOfLeadingZeros(s) + baseBits >= 63) return -1;
+            while ((r + mPlus) * base + top <= s) {
+                r *= base;
+                mPlus *= base;
+                mMinus *= base;
+                k--;
+            }
+        }
+        if (64 - Long.numberOfLeadingZeros(s) + baseBits >= 63) return -1;
+
+        int n = 0;
+        while (true) {
+            r *= base;
+            mPlus *= base;
+            mMinus *= base;
+            int digit = (int) (r / s);
+            r %= s;
+            boolean low = even ? r <= mMinus : r < mMinus;          // stopping here, rounded down, is within the lower end
+            boolean high = even ? r + mPlus >= s : r + mPlus > s;   // rounding the last digit up is within the upper end
+            if (low || high) {
+                if (high && (!low || 2 * r >= s)) digit++;
+                dest[pos + n++] = RadixTables.DIGITS[digit];
+                break;
+            }
+            dest[pos + n++] = RadixTables.DIGITS[digit];
+        }
+        scale[0] = k;
+        return n;
+    }
+
+    private static int generate(BigInteger r, BigInteger s, BigInteger mPlus, BigInteger mMinus, boolean even, int base, char[] dest, int pos, int[] scale) {
+        BigInteger b = BigInteger.valueOf(base);
+        int top = even ? 1 : 0;
+        int k = 0;
+        while (r.add(mPlus).compareTo(s) + top > 0) {
+            s = s.multiply(b);
+            k++;
+        }
+        while (r.add(mPlus).multiply(b).compareTo(s) + top <= 0) {
+            r = r.multiply(b);
+            mPlus = mPlus.multiply(b);
+            mMinus = mMinus.multiply(b);
+            k--;
+        }
+
+        int n = 0;
+        while (true) {
+            BigInteger[] qr = r.multiply(b).divideAndRemainder(s);
+            r = qr[1];
+            mPlus = mPlus.multiply(b);
+            mMinus = mMinus.multiply(b);
+            int digit = qr[0].intValue();
+            boolean low = r.compareTo(mMinus) < (even ? 1 : 0);
+            boolean high = r.add(mPlus).compareTo(s) > (even ? -1 : 0);
+            if (low || high) {
+                if (high && (!low || r.shiftLeft(1).compareTo(s) >= 0)) digit++;
+                dest[pos + n++] = RadixTables.DIGITS[digit];
+                break;
+            }
+            dest[pos + n++] = RadixTables.DIGITS[digit];
+        }
+        scale[0] = k;
+        return n;
+    }
+
+    // ========================= POSITIONAL LAYOUT =========================
+    // Turns the n digits at start, worth 0.d1d2...dn * base^k, into plain positional
+    // notation in place: zeros after the point or before it, and the point itself.
+    private static int layout(char[] dest, int start, int n, int k) {
+        if (k <= 0) {
+            // 0.000ddd
+            int shift = 2 - k;
+            System.arraycopy(dest, start, dest, start + shift, n);
+            dest[start] = '0';
+            dest[start + 1] = '.';
+            for (int i = 0; i < -k; i++) dest[start + 2 + i] = '0';
+            return n + shift;
+        }
+        if (n <= k) {
+            // ddd000
+            for (int i = n; i < k; i++) dest[start + i] = '0';
+            return k;
+        }
+        // dd.ddd
+        System.arraycopy(dest, start + k, dest, start + k + 1, n - k);
+        dest[start + k] = '.';
+        return n + 1;
+    }
+}
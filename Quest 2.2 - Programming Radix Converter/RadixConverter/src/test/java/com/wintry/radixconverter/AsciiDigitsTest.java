@@ -0,0 +1,173 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.radixconverter;
+
+/**
+ * The eight-digit SWAR steps for hex and binary, alone and inside
+ * PowerOfTwoConverter.parse: every byte value in every lane, both letter
+ * cases, every length around the block boundaries, and rounding once the
+ * digits hold more than 53 significant bits. References are
+ * Long.parseUnsignedLong, and BigInteger/BigDecimal doubleValue, which round
+ * correctly.
+ *
+ * @author Wintry
+ */
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class AsciiDigitsTest {
+    private static final String HEX = "0123456789abcdefABCDEF";
+
+    private static String randomDigits(Random random, int length, int base) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) sb.append(base == 16 ? HEX.charAt(random.nextInt(HEX.length())) : (char) ('0' + random.nextInt(2)));
+        return sb.toString();
+    }
+
+    // Digits with an optional point, correctly rounded; the fraction divides by a power of two, so the quotient is exact.
+    private static double reference(String number, int base) {
+        int point = number.indexOf('.');
+        if (point == -1) return new BigInteger(number, base).doubleValue();
+        BigInteger digits = new BigInteger(number.substring(0, point) + number.substring(point + 1), base);
+        int fractionBits = (number.length() - point - 1) * Integer.numberOfTrailingZeros(base);
+        return new BigDecimal(digits).divide(new BigDecimal(BigInteger.ONE.shiftLeft(fractionBits))).doubleValue();
+    }
+
+    // parse over a String and over ASCII bytes in both orders, with the number placed after some other text.
+    private static void assertParses(String number, int base) {
+        double expected = reference(number, base);
+        String text = "x=" + number + ";";
+        int end = text.length() - 1;
+        assertEquals(expected, PowerOfTwoConverter.parse(text, 2, end, base), number);
+        for (ByteOrder order : new ByteOrder[] {ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            ByteBuffer ascii = ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII)).order(order);
+            assertEquals(expected, PowerOfTwoConverter.parse(ascii, 2, end, base), number + " " + order);
+        }
+    }
+
+    // ========================= ONE BLOCK =========================
+    @Test
+    void everyByteInEveryLaneOfAHexBlock() {
+        Random random = new Random(13);
+        for (int lane = 0; lane < AsciiDigits.BLOCK; lane++) {
+            for (int c = 0; c < 256; c++) {
+                char[] chars = randomDigits(random, AsciiDigits.BLOCK, 16).toCharArray();
+                chars[lane] = (char) c;
+                String block = new String(chars);
+                long expected = AsciiDigits.value(c) >= 0 && AsciiDigits.value(c) < 16 ? Long.parseUnsignedLong(block, 16) : -1;
+                assertEquals(expected, AsciiDigits.hex8(AsciiDigits.pack(block, 0)), "lane " + lane + ", byte " + c);
+            }
+        }
+    }
+
+    @Test
+    void everyByteInEveryLaneOfABinaryBlock() {
+        Random random = new Random(13);
+        for (int lane = 0; lane < AsciiDigits.BLOCK; lane++) {
+            for (int c = 0; c < 256; c++) {
+                char[] chars = randomDigits(random, AsciiDigits.BLOCK, 2).toCharArray();
+                chars[lane] = (char) c;
+                String block = new String(chars);
+                long expected = c == '0' || c == '1' ? Long.parseUnsignedLong(block, 2) : -1;
+                assertEquals(expected, AsciiDigits.binary8(AsciiDigits.pack(block, 0)), "lane " + lane + ", byte " + c);
+            }
+        }
+    }
+
+    @Test
+    void bothLetterCasesGiveTheSameValue() {
+        Random random = new Random(3);
+        for (int i = 0; i < 10_000; i++) {
+            String block = randomDigits(random, AsciiDigits.BLOCK, 16);
+            long lower = AsciiDigits.hex8(AsciiDigits.pack(block.toLowerCase(), 0));
+            assertEquals(Long.parseUnsignedLong(block, 16), lower, block);
+            assertEquals(lower, AsciiDigits.hex8(AsciiDigits.pack(block.toUpperCase(), 0)), block);
+        }
+        assertEquals(0xFFFFFFFFL, AsciiDigits.hex8(AsciiDigits.pack("ffffFFFF", 0)));
+        assertEquals(0xFFL, AsciiDigits.binary8(AsciiDigits.pack("11111111", 0)));
+    }
+
+    @Test
+    void charsBeyondAsciiRejectTheBlock() {
+        for (char c : new char[] {'İ', 'ı', '٠', '０', 'Ａ', 'Ā' + '1', 'Ā' + 'a'}) {
+            assertEquals(-1, AsciiDigits.pack("1234567" + c, 0), Integer.toHexString(c));
+        }
+    }
+
+    // ========================= WHOLE NUMBERS =========================
+    @Test
+    void everyLengthAcrossTheBlockBoundaries() {
+        Random random = new Random(8);
+        for (int base : new int[] {2, 16}) {
+            for (int length = 1; length <= 5 * AsciiDigits.BLOCK + 1; length++) {
+                for (int i = 0; i < 50; i++) {
+                    String digits = randomDigits(random, length, base);
+                    assertParses(digits, base);
+                    // The point in every position, including right after a block
+                    int point = random.nextInt(length);
+                    if (point > 0) assertParses(digits.substring(0, point) + "." + digits.substring(point), base);
+                }
+            }
+        }
+    }
+
+    @Test
+    void invalidDigitInEachLaneIsReported() {
+        for (int base : new int[] {2, 16}) {
+            for (int length = AsciiDigits.BLOCK; length <= 3 * AsciiDigits.BLOCK; length++) {
+                for (int at = 0; at < length; at++) {
+                    char[] chars = "1".repeat(length).toCharArray();
+                    chars[at] = base == 16 ? 'g' : '2';
+                    String number = new String(chars);
+                    NumberFormatException e = assertThrows(NumberFormatException.class, () -> PowerOfTwoConverter.parse(number, 0, number.length(), base));
+                    assertEquals("Invalid digit '" + Character.toUpperCase(chars[at]) + "' for base " + base, e.getMessage());
+                    ByteBuffer ascii = ByteBuffer.wrap(number.getBytes(StandardCharsets.US_ASCII));
+                    assertThrows(NumberFormatException.class, () -> PowerOfTwoConverter.parse(ascii, 0, number.length(), base));
+                }
+            }
+        }
+    }
+
+    // ========================= ROUNDING =========================
+    @Test
+    void digitsPastTheAccumulatorRoundThroughTheStickyBit() {
+        // 1, then 52 bits, then the rounding bit, then a tail that is zero except maybe for its last bit
+        String mantissa = "1" + "0".repeat(51) + "1";
+        for (int tail = 1; tail <= 40; tail++) {
+            assertParses(mantissa + "1" + "0".repeat(tail - 1) + "1", 2);  // above halfway: up
+            assertParses(mantissa + "1" + "0".repeat(tail), 2);            // halfway, odd: up to even
+            assertParses("1" + "0".repeat(52) + "1" + "0".repeat(tail), 2); // halfway, even: stays
+            assertParses(mantissa + "0" + "0".repeat(tail - 1) + "1", 2);   // below halfway: down
+        }
+        // Hex: 1 and thirteen zeros are 53 bits, so the 8 that follows is the rounding bit
+        for (int tail = 0; tail <= 30; tail++) {
+            assertParses("100000000000008" + "0".repeat(tail) + "1", 16); // above halfway: up
+            assertParses("100000000000018" + "0".repeat(tail), 16);       // halfway, odd: up to even
+            assertParses("100000000000008" + "0".repeat(tail), 16);       // halfway, even: stays
+            assertParses("100000000000007" + "F".repeat(tail), 16);       // below halfway: down
+        }
+    }
+
+    @Test
+    void randomLongNumbersRoundCorrectly() {
+        Random random = new Random(53);
+        for (int i = 0; i < 20_000; i++) {
+            int base = random.nextBoolean() ? 2 : 16;
+            int length = (base == 2 ? 54 : 14) + random.nextInt(base == 2 ? 200 : 50);
+            String digits = randomDigits(random, length, base);
+            if (random.nextBoolean()) assertParses(digits, base);
+            else assertParses(digits.substring(0, length / 2) + "." + digits.substring(length / 2), base);
+        }
+        assertEquals(Double.POSITIVE_INFINITY, PowerOfTwoConverter.parse("F".repeat(300), 0, 300, 16));
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.radixconverter;
+
+/**
+ * Batch mode end to end: input and output files through BatchConverter.run,
+ * as the command line would call it.
+ *
+ * @author Wintry
+ */
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BatchConverterTest {
+    @TempDir
+    Path dir;
+
+    private String convert(String input, String... options) throws IOException {
+        Path in = dir.resolve("in.txt"), out = dir.resolve("out.txt");
+        Files.writeString(in, input, StandardCharsets.UTF_8);
+        String[] args = new String[options.length + 2];
+        System.arraycopy(options, 0, args, 0, options.length);
+        args[options.length] = in.toString();
+        args[options.length + 1] = out.toString();
+        assertEquals(0, BatchConverter.run(args));
+        return Files.readString(out, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void convertsOneLinePerValue() throws IOException {
+        assertEquals("11111111\t255\n1010.1\t10.5\n", convert("FF\nA.8\n", "--from", "16", "--to", "2,10"));
+    }
+
+    @Test
+    void expressionLongerThanTheLineBufferIsConvertedWhole() throws IOException {
+        // 1+1+...+1 with 40001 terms, about 80 KB and past the 64 KB starting buffer
+        String expression = "1+".repeat(40000) + "1";
+        assertEquals(Integer.toHexString(40001).toUpperCase() + "\n", convert(expression + "\n", "--from", "10", "--to", "16"));
+    }
+
+    @Test
+    void exactNumberLongerThanTheLineBufferKeepsEveryDigit() throws IOException {
+        StringBuilder digits = new StringBuilder("9");
+        for (int i = 1; i < 70000; i++) digits.append((char) ('0' + i * 7 % 10));
+        String expected = new BigInteger(digits.toString()).toString(16).toUpperCase();
+        assertEquals(expected + "\n", convert(digits + "\n", "--from", "10", "--to", "16", "--exact"));
+    }
+}
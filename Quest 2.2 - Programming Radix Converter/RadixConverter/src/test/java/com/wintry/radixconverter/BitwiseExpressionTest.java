@@ -0,0 +1,118 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.radixconverter;
+
+/**
+ * The two ways BitwiseExpression evaluates, one row at a time and a block
+ * of rows at a time, give the same words at every width, and both match
+ * Java's own byte, short, int and long arithmetic.
+ *
+ * @author Wintry
+ */
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class BitwiseExpressionTest {
+    private static final int[] WIDTHS = {8, 16, 32, 64};
+    private static final String[] BINARY = {"&", "|", "^", "<<", ">>", ">>>"};
+
+    // A random expression over x, y and z using every operator and function.
+    private static String expression(Random random, int depth) {
+        if (depth == 0 || random.nextInt(4) == 0) {
+            return switch (random.nextInt(6)) {
+                case 0 -> String.valueOf(random.nextInt(200));
+                case 1 -> "0x" + Integer.toHexString(random.nextInt(256));
+                case 2 -> "0b" + Integer.toBinaryString(random.nextInt(16));
+                default -> "xyz".charAt(random.nextInt(3)) + "";
+            };
+        }
+        String a = expression(random, depth - 1), b = expression(random, depth - 1);
+        return switch (random.nextInt(7)) {
+            case 0 -> "~(" + a + ")";
+            case 1 -> "-(" + a + ")";
+            case 2 -> "popcount(" + a + ")";
+            case 3 -> "rol(" + a + ", " + b + ")";
+            case 4 -> "ror(" + a + ", " + b + ")";
+            default -> "(" + a + ") " + BINARY[random.nextInt(BINARY.length)] + " (" + b + ")";
+        };
+    }
+
+    private static long[] column(Random random, int rows) {
+        long[] values = new long[rows];
+        for (int i = 0; i < rows; i++) values[i] = random.nextInt(4) == 0 ? random.nextInt(130) - 65 : random.nextLong();
+        return values;
+    }
+
+    @Test
+    void rowsAndColumnsAgreeAtEveryWidth() {
+        Random random = new Random(23);
+        for (int width : WIDTHS) {
+            for (int e = 0; e < 300; e++) {
+                String source = expression(random, 1 + random.nextInt(5));
+                BitwiseExpression expression = BitwiseExpression.compile(source, width);
+                int vars = expression.variables().size();
+                if (vars == 0) {
+                    assertArrayEquals(new long[]{expression.evaluate()}, expression.evaluateColumns(), source);
+                    continue;
+                }
+                // More than one block, with a partial one at the end
+                int rows = 2_500;
+                long[][] columns = new long[vars][];
+                for (int v = 0; v < vars; v++) columns[v] = column(random, rows);
+
+                long[] result = expression.evaluateColumns(columns);
+                long[] row = new long[vars];
+                for (int i = 0; i < rows; i++) {
+                    for (int v = 0; v < vars; v++) row[v] = columns[v][i];
+                    assertEquals(expression.evaluate(row), result[i], source + " at width " + width + ", row " + i);
+                }
+            }
+        }
+    }
+
+    @Test
+    void parallelColumnsMatchSequentialOnes() {
+        Random random = new Random(24);
+        int rows = 100_000; // past the parallel threshold
+        for (int width : WIDTHS) {
+            BitwiseExpression expression = BitwiseExpression.compile("rol(x ^ ~y, 3) | popcount(x & y)", width);
+            long[] xs = column(random, rows), ys = column(random, rows);
+            assertArrayEquals(expression.evaluateColumns(xs, ys), expression.evaluateColumns(ForkJoinPool.commonPool(), xs, ys));
+        }
+    }
+
+    @Test
+    void wordsBehaveLikeJavaPrimitives() {
+        Random random = new Random(25);
+        String source = "~(x << n) ^ (y >> n) | (x >>> n) & -y";
+        for (int i = 0; i < 10_000; i++) {
+            long x = random.nextLong(), y = random.nextLong();
+            int n = random.nextInt(70);
+            assertEquals((byte) (~((byte) x << (n & 7)) ^ ((byte) y >> (n & 7)) | (((byte) x & 0xFF) >>> (n & 7)) & -(byte) y),
+                    BitwiseExpression.compile(source, 8).evaluate(x, n, y), source + " at width 8");
+            assertEquals((short) (~((short) x << (n & 15)) ^ ((short) y >> (n & 15)) | (((short) x & 0xFFFF) >>> (n & 15)) & -(short) y),
+                    BitwiseExpression.compile(source, 16).evaluate(x, n, y), source + " at width 16");
+            assertEquals(~((int) x << n) ^ ((int) y >> n) | ((int) x >>> n) & -(int) y,
+                    BitwiseExpression.compile(source, 32).evaluate(x, n, y), source + " at width 32");
+            assertEquals(~(x << n) ^ (y >> n) | (x >>> n) & -y,
+                    BitwiseExpression.compile(source, 64).evaluate(x, n, y), source + " at width 64");
+        }
+    }
+
+    @Test
+    void rotatesAndCountsWithinTheWord() {
+        assertEquals(Integer.rotateLeft(0x12345678, 12), BitwiseExpression.compile("rol(0x12345678, 12)", 32).evaluate());
+        assertEquals(Long.rotateRight(0x0123456789ABCDEFL, 20), BitwiseExpression.compile("ror(0x0123456789ABCDEF, 20)", 64).evaluate());
+        assertEquals((byte) 0x2D, BitwiseExpression.compile("rol(0b10010110, 1)", 8).evaluate());
+        assertEquals(8, BitwiseExpression.compile("popcount(-1)", 8).evaluate());
+        assertEquals(-1, BitwiseExpression.compile("0xFF", 8).evaluate());
+        assertThrows(IllegalArgumentException.class, () -> BitwiseExpression.compile("x", 12));
+    }
+}
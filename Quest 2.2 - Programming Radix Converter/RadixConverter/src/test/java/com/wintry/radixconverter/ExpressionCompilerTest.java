@@ -0,0 +1,130 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.radixconverter;
+
+/**
+ * Differential test of the two evaluation tiers of CompiledExpression: the
+ * bytecode ExpressionCompiler builds from a tree has to give the tree walk's
+ * result bit for bit, NaN, infinities and signed zeros included, and fail
+ * where the tree walk fails.
+ *
+ * @author Wintry
+ */
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ExpressionCompilerTest {
+    private static final String[] FUNCTIONS = {"sqrt", "sin", "cos", "tan", "log", "ln", "abs"};
+    private static final String[] VARIABLES = {"x", "y", "z"};
+
+    // A random expression over x, y and z in the RadixConverter grammar.
+    private static String expression(Random random, int depth) {
+        if (depth == 0 || random.nextInt(4) == 0) {
+            return switch (random.nextInt(5)) {
+                case 0 -> String.valueOf(random.nextInt(100));
+                case 1 -> random.nextInt(10) + "." + random.nextInt(1000);
+                case 2 -> random.nextBoolean() ? "pi" : "e";
+                default -> VARIABLES[random.nextInt(VARIABLES.length)];
+            };
+        }
+        String a = expression(random, depth - 1);
+        return switch (random.nextInt(8)) {
+            case 0 -> a + " + " + expression(random, depth - 1);
+            case 1 -> a + " - " + expression(random, depth - 1);
+            case 2 -> a + " * " + expression(random, depth - 1);
+            case 3 -> a + " / " + expression(random, depth - 1);
+            case 4 -> "(" + a + ")^" + (random.nextBoolean() ? random.nextInt(4) : "(" + expression(random, depth - 1) + ")");
+            case 5 -> "-(" + a + ")";
+            case 6 -> FUNCTIONS[random.nextInt(FUNCTIONS.length)] + "(" + a + ")";
+            default -> "(" + a + ")";
+        };
+    }
+
+    private static double[] values(Random random, int count) {
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = switch (random.nextInt(6)) {
+                case 0 -> 0.0;
+                case 1 -> -0.0;
+                case 2 -> random.nextInt(20) - 10;
+                default -> (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(10) - 3);
+            };
+        }
+        return values;
+    }
+
+    private static void assertSameResult(CompiledExpression.Node root, CompiledExpression.Evaluator compiled, double[] vars, String source) {
+        double expected;
+        try {
+            expected = root.eval(vars);
+        } catch (RuntimeException e) {
+            RuntimeException thrown = assertThrows(RuntimeException.class, () -> compiled.evaluate(vars), source);
+            assertEquals(e.getClass(), thrown.getClass(), source);
+            return;
+        }
+        // assertEquals on doubles compares bits, so 0.0 and -0.0 differ and NaN equals NaN
+        assertEquals(expected, compiled.evaluate(vars), source);
+    }
+
+    @Test
+    void compiledTreeMatchesTheTreeWalk() throws ReflectiveOperationException {
+        Random random = new Random(14);
+        for (int i = 0; i < 2_000; i++) {
+            String source = expression(random, 1 + random.nextInt(5));
+            CompiledExpression expression = CompiledExpression.compile(source);
+            CompiledExpression.Evaluator compiled = ExpressionCompiler.compile(expression.root());
+            for (int row = 0; row < 20; row++) {
+                assertSameResult(expression.root(), compiled, values(random, expression.variables().size()), source);
+            }
+        }
+    }
+
+    @Test
+    void everyNodeTypeCompiles() throws ReflectiveOperationException {
+        String[] sources = {
+            "x", "-x", "x + y", "x - y", "x * y", "x / y", "x ^ y", "x!", "(x + 1)!",
+            "sqrt x", "sin x", "cos x", "tan x", "log x", "ln x", "abs x", "2 * x", "x * pi + e", "-(-x)^2"
+        };
+        double[][] rows = {{0, 0}, {-0.0, 0}, {3, 2}, {-3, 0.5}, {1e300, 1e300}, {Double.NaN, 1}, {Double.POSITIVE_INFINITY, -1}, {4.5, -2}};
+        for (String source : sources) {
+            CompiledExpression expression = CompiledExpression.compile(source);
+            CompiledExpression.Evaluator compiled = ExpressionCompiler.compile(expression.root());
+            for (double[] row : rows) {
+                double[] vars = Arrays.copyOf(row, expression.variables().size());
+                assertSameResult(expression.root(), compiled, vars, source);
+            }
+        }
+    }
+
+    @Test
+    void negativeFactorialFailsInBothTiers() throws ReflectiveOperationException {
+        CompiledExpression expression = CompiledExpression.compile("x!");
+        CompiledExpression.Evaluator compiled = ExpressionCompiler.compile(expression.root());
+        assertThrows(IllegalArgumentException.class, () -> expression.root().eval(new double[] {-1}));
+        assertThrows(IllegalArgumentException.class, () -> compiled.evaluate(new double[] {-1}));
+    }
+
+    @Test
+    void resultsDoNotChangeWhenTheExpressionIsPromoted() {
+        Random random = new Random(15);
+        for (int i = 0; i < 20; i++) {
+            String source = expression(random, 4);
+            CompiledExpression expression = CompiledExpression.compile(source);
+            double[][] rows = new double[50][];
+            double[] before = new double[rows.length];
+            for (int r = 0; r < rows.length; r++) {
+                rows[r] = values(random, expression.variables().size());
+                before[r] = expression.root().eval(rows[r]);
+            }
+            // Enough calls to pass the compile threshold, then the same rows again
+            for (int call = 0; call < 3_000; call++) expression.evaluate(rows[call % rows.length]);
+            for (int r = 0; r < rows.length; r++) assertEquals(before[r], expression.evaluate(rows[r]), source);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.radixconverter;
+
+/**
+ * Filter mode end to end through LiteralFilter.run on files: which words are
+ * literals, the 64-bit limit, chunks filtered in parallel, and that every
+ * other byte comes out exactly as it went in.
+ *
+ * @author Wintry
+ */
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LiteralFilterTest {
+    @TempDir
+    Path dir;
+
+    private byte[] filter(byte[] input, String... options) throws IOException {
+        Path in = dir.resolve("in.log"), out = dir.resolve("out.log");
+        Files.write(in, input);
+        String[] args = new String[options.length + 2];
+        System.arraycopy(options, 0, args, 0, options.length);
+        args[options.length] = in.toString();
+        args[options.length + 1] = out.toString();
+        assertEquals(0, LiteralFilter.run(args));
+        return Files.readAllBytes(out);
+    }
+
+    private String filter(String input, String... options) throws IOException {
+        return new String(filter(input.getBytes(StandardCharsets.UTF_8), options), StandardCharsets.UTF_8);
+    }
+
+    // ========================= LITERALS =========================
+    @Test
+    void prefixedLiteralsAreConverted() throws IOException {
+        assertEquals("at 31, mask 10, mode 15\n", filter("at 0x1F, mask 0b1010, mode 0o17\n", "--to", "10"));
+        // Either case of prefix; a literal already in the target base is left as written
+        assertEquals("at 0X1f, 0xA and 0xF\n", filter("at 0X1f, 0B1010 and 0O17\n", "--to", "16"));
+        assertEquals("0b11111 0b1010\n", filter("0x1F 0b1010\n", "--to", "2"));
+        assertEquals("11111 0b1010 1010\n", filter("0x1F 0b1010 0o12\n", "--to", "2", "--plain"));
+    }
+
+    @Test
+    void literalsThatDoNotStandAloneAreLeftAsTheyAre() throws IOException {
+        String text = "1.5 192.168.0.1 id_42 0x1Fg 0x 0b12 0o8 x0x10 0x1F.5 v1.0x2\n";
+        assertEquals(text, filter(text, "--to", "10"));
+        String bare = "1.5 192.168.0.1 id_42 v2 42x 7_\n";
+        assertEquals(bare, filter(bare, "--to", "16", "--bare", "10"));
+    }
+
+    @Test
+    void bareLiteralsNeedTheBareOption() throws IOException {
+        assertEquals("id 42 and 255\n", filter("id 42 and 255\n", "--to", "16"));
+        assertEquals("id 0x2A and 0xFF\n", filter("id 42 and 255\n", "--to", "16", "--bare", "10"));
+        // Above base 10 a bare word needs a decimal digit, so "add", "ff" and "beef" are words
+        assertEquals("add ff beef 255 49374 1 31\n", filter("add ff beef 0ff c0de 1 0x1F\n", "--to", "10", "--bare", "16"));
+    }
+
+    @Test
+    void valuesAbove64BitsAreLeftAsTheyAre() throws IOException {
+        assertEquals("18446744073709551615 0x10000000000000000\n",
+                filter("0xFFFFFFFFFFFFFFFF 0x10000000000000000\n", "--to", "10"));
+        assertEquals("0xFFFFFFFFFFFFFFFF 18446744073709551616 99999999999999999999\n",
+                filter("18446744073709551615 18446744073709551616 99999999999999999999\n", "--to", "16", "--bare", "10"));
+        assertEquals("0b" + "1".repeat(64) + " 0b" + "1".repeat(65) + "\n",
+                filter("0o1777777777777777777777 0b" + "1".repeat(65) + "\n", "--to", "2"));
+        assertEquals("9223372036854775808 0\n", filter("0x8000000000000000 0x0\n", "--to", "10"));
+    }
+
+    // ========================= CHUNKS =========================
+    @Test
+    void parallelChunksMatchTheSingleThread() throws IOException {
+        // About 3 chunks of lines, with a line longer than a whole chunk that a cut has to extend over
+        Random random = new Random(17);
+        StringBuilder text = new StringBuilder(), decimal = new StringBuilder();
+        while (text.length() < LiteralFilter.CHUNK + LiteralFilter.CHUNK / 2) line(random, text, decimal);
+        while (text.length() < 2 * LiteralFilter.CHUNK + LiteralFilter.CHUNK / 2) {
+            long value = random.nextLong();
+            text.append(" 0x").append(Long.toHexString(value).toUpperCase());
+            decimal.append(' ').append(Long.toUnsignedString(value));
+        }
+        text.append('\n');
+        decimal.append('\n');
+        while (text.length() < 3 * LiteralFilter.CHUNK) line(random, text, decimal);
+        byte[] input = text.toString().getBytes(StandardCharsets.UTF_8);
+
+        byte[] expected = decimal.toString().getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(expected, filter(input, "--to", "10"));
+        assertArrayEquals(expected, filter(input, "--to", "10", "--threads", "4"));
+        assertArrayEquals(input, filter(filter(filter(input, "--to", "2", "--threads", "3"), "--to", "8"), "--to", "16", "--threads", "2"));
+    }
+
+    // ========================= PASS-THROUGH =========================
+    private static final String[] WORDS = {
+        "INFO", "WARN", "id_42", "v1.2", "192.168.0.1", "1.5", "0x1Fg", "addr=", "[", "]", "é", "–", "\t", "\r", "42", "ff", "0x"
+    };
+
+    // A log line of words and hex literals into input, and the same line with the literals in decimal into expected.
+    // The literals are canonical, so converting them back gives the same bytes.
+    private static void line(Random random, StringBuilder input, StringBuilder expected) {
+        int words = 1 + random.nextInt(12);
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                input.append(' ');
+                expected.append(' ');
+            }
+            if (random.nextInt(3) == 0) {
+                long value = random.nextLong() >>> random.nextInt(64);
+                input.append("0x").append(Long.toHexString(value).toUpperCase());
+                expected.append(Long.toUnsignedString(value));
+            } else {
+                String word = WORDS[random.nextInt(WORDS.length)];
+                input.append(word);
+                expected.append(word);
+            }
+        }
+        input.append('\n');
+        expected.append('\n');
+    }
+
+    @Test
+    void everyOtherByteIsCopiedUnchanged() throws IOException {
+        Random random = new Random(11);
+        ByteArrayOutputStream log = new ByteArrayOutputStream(), decimal = new ByteArrayOutputStream();
+        for (int i = 0; i < 5_000; i++) {
+            StringBuilder input = new StringBuilder(), expected = new StringBuilder();
+            line(random, input, expected);
+            log.writeBytes(input.toString().getBytes(StandardCharsets.UTF_8));
+            decimal.writeBytes(expected.toString().getBytes(StandardCharsets.UTF_8));
+            if (i % 100 == 0) {
+                // Bytes that are not valid UTF-8 pass through too
+                byte[] invalid = {(byte) 0xFF, (byte) 0x80, ' ', (byte) 0xC3, '\n'};
+                log.writeBytes(invalid);
+                decimal.writeBytes(invalid);
+            }
+        }
+        log.writeBytes("last line without newline 0x7B".getBytes(StandardCharsets.UTF_8));
+        decimal.writeBytes("last line without newline 123".getBytes(StandardCharsets.UTF_8));
+        byte[] input = log.toByteArray();
+
+        assertArrayEquals(decimal.toByteArray(), filter(input, "--to", "10"));
+        assertArrayEquals(decimal.toByteArray(), filter(input, "--to", "10", "--threads", "4"));
+        assertArrayEquals(input, filter(filter(input, "--to", "2"), "--to", "16"));
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.radixconverter;
+
+/**
+ * Which command lines go to one-shot mode rather than batch mode.
+ *
+ * @author Wintry
+ */
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OneShotConverterTest {
+    @Test
+    void baseAndValuesSelectOneShotMode() {
+        assertTrue(OneShotConverter.accepts(new String[] {"16", "FF"}));
+        assertTrue(OneShotConverter.accepts(new String[] {"10", "1+2", "--to", "2"}));
+    }
+
+    @Test
+    void optionsAndPathsSelectOtherModes() {
+        assertFalse(OneShotConverter.accepts(new String[] {"--from", "16", "--to", "2"}));
+        assertFalse(OneShotConverter.accepts(new String[] {"in.txt", "out.txt"}));
+        assertFalse(OneShotConverter.accepts(new String[] {"16"}));
+    }
+
+    @Test
+    void inputFileNamedLikeANumberSelectsBatchMode(@TempDir Path dir) throws IOException {
+        String[] args = {"20240101", "--from", "10", "--to", "2"};
+        assertTrue(OneShotConverter.accepts(args, dir.toFile()));
+        Files.createFile(dir.resolve("20240101"));
+        assertFalse(OneShotConverter.accepts(args, dir.toFile()));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.radixconverter;
+
+/**
+ * The public conversion methods of RadixConverter: argument checks and
+ * output longer than the per-thread scratch buffer starts out.
+ *
+ * @author Wintry
+ */
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RadixConverterTest {
+    @Test
+    void negativePrecisionIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> RadixConverter.fromDecimal(12.5, 10, -2));
+        assertThrows(IllegalArgumentException.class, () -> RadixConverter.fromDecimal(12.5, 16, -2));
+        assertThrows(IllegalArgumentException.class, () -> RadixConverter.fromDecimal(12.5, 10, -2, new char[64], 0));
+        assertThrows(IllegalArgumentException.class, () -> RadixConverter.maxLength(10, -3));
+        assertEquals("12.5", RadixConverter.fromDecimal(12.5, 10, RadixConverter.SHORTEST));
+    }
+
+    @Test
+    void unsupportedBasesAreRejectedUpFront() {
+        for (int base : new int[] {-1, 0, 1, 37, 50, 61, 63, 100}) {
+            String message = "Invalid base " + base + ". Bases 2 to 36 and 62 are supported.";
+            assertEquals(message, assertThrows(IllegalArgumentException.class, () -> RadixConverter.toDecimal("1", base)).getMessage());
+            assertEquals(message, assertThrows(IllegalArgumentException.class, () -> RadixConverter.toDecimal(new byte[] {'1'}, 0, 1, base)).getMessage());
+            assertEquals(message, assertThrows(IllegalArgumentException.class, () -> RadixConverter.fromDecimal(5, base, 2)).getMessage());
+            assertEquals(message, assertThrows(IllegalArgumentException.class, () -> RadixConverter.fromDecimal(5, base, 2, new char[64], 0)).getMessage());
+            assertEquals(message, assertThrows(IllegalArgumentException.class, () -> RadixConverter.fromLong(5, base, new byte[65], 0)).getMessage());
+            assertEquals(message, assertThrows(IllegalArgumentException.class, () -> RadixConverter.formatOutput(5, base, 2)).getMessage());
+            assertEquals(message, assertThrows(IllegalArgumentException.class, () -> RadixConverter.formatOutputs(5, new int[] {10, base}, 2)).getMessage());
+            assertEquals(message, assertThrows(IllegalArgumentException.class, () -> RadixConverter.convertAll(new double[] {5}, base, 2)).getMessage());
+            assertEquals(message, assertThrows(IllegalArgumentException.class, () -> RadixConverter.fromBigDecimal(BigDecimal.TEN, base, 2)).getMessage());
+            assertEquals(message, assertThrows(IllegalArgumentException.class, () -> RadixConverter.toBigDecimal("1", base)).getMessage());
+        }
+        assertEquals("(z)₆₂", RadixConverter.formatOutput(61, 62, 2));
+    }
+
+    @Test
+    void longPrecisionGrowsTheScratchBuffer() {
+        for (int base : new int[] {3, 10, 36}) {
+            char[] dest = new char[RadixConverter.maxLength(base, 3000)];
+            int length = RadixConverter.fromDecimal(Math.PI, base, 3000, dest, 0);
+            assertEquals(new String(dest, 0, length), RadixConverter.fromDecimal(Math.PI, base, 3000), "base " + base);
+        }
+    }
+
+    @Test
+    void columnWidthOnlyReservesAFractionWhenThereIsOne() {
+        for (int base : new int[] {2, 8, 10, 16, 36}) {
+            for (double value : new double[] {0, 255, -4096, 0x1p70, 255.5, -0.1, Math.PI}) {
+                String cell = RadixConverter.formatOutput(value, base, 10);
+                int width = RadixConverter.columnWidth(base, value, 10);
+                assertTrue(cell.length() <= width, cell + " in " + width);
+                if (value == Math.rint(value)) assertTrue(width <= cell.length() + 2, cell + " in " + width);
+            }
+        }
+    }
+
+    @Test
+    void repeatedExpressionsAreParsedOnce() {
+        CompiledExpression first = RadixConverter.cachedExpression("sqrt(2) * 3 + 1");
+        assertSame(first, RadixConverter.cachedExpression("sqrt(2) * 3 + 1"));
+        for (int i = 0; i < 3000; i++) assertEquals(first.evaluate(), RadixConverter.evaluateExpression("sqrt(2) * 3 + 1"));
+        assertEquals(first.evaluate(), RadixConverter.parseInput("sqrt(2) * 3 + 1", 10, false));
+    }
+
+    @Test
+    void subscriptsSpellTheBaseInDecimal() {
+        for (int base = 0; base <= 200; base++) {
+            StringBuilder expected = new StringBuilder();
+            for (char c : Integer.toString(base).toCharArray()) expected.append((char) ('₀' + (c - '0')));
+            assertEquals(expected.toString(), RadixConverter.toSubscript(base));
+        }
+        BigDecimal value = new BigDecimal("-1234.5625");
+        for (int base : new int[] {2, 9, 10, 16, 36, 62}) {
+            String expected = "(" + RadixConverter.fromBigDecimal(value, base, 6) + ")" + RadixConverter.toSubscript(base);
+            assertEquals(expected, RadixConverter.formatOutput(value, base, 6));
+            assertEquals(RadixConverter.formatOutput(value.doubleValue(), base, 6), RadixConverter.formatOutput(value, base, 6), "base " + base);
+        }
+    }
+
+    // Random doubles over the whole exponent range, both signs, plus the edge values.
+    private static double[] doubles(Random random, int count) {
+        double[] special = {0.0, -0.0, Double.MIN_VALUE, -Double.MIN_VALUE, Double.MIN_NORMAL, 0x1p-1030, Double.MAX_VALUE, -Double.MAX_VALUE,
+                0x1p63, -0x1p63, Math.nextDown(0x1p63), 0x1p64, 0x1.fffffffffffffp70, 1e300, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        double[] values = Arrays.copyOf(special, special.length + count);
+        for (int i = special.length; i < values.length; i++) {
+            values[i] = switch (random.nextInt(4)) {
+                case 0 -> Double.longBitsToDouble(random.nextLong());                         // anything, NaN and subnormals included
+                case 1 -> Double.longBitsToDouble(random.nextLong() & 0x800FFFFFFFFFFFFFL);    // subnormal
+                case 2 -> Math.scalb(random.nextDouble(), 63 + random.nextInt(100)) * (random.nextBoolean() ? 1 : -1);
+                default -> (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12));
+            };
+        }
+        return values;
+    }
+
+    @Test
+    void formatOutputsMatchesFormatOutputForEveryBase() {
+        int[] bases = new int[36];
+        for (int base = 2; base <= 36; base++) bases[base - 2] = base;
+        bases[35] = 62;
+        for (int precision : new int[] {0, 3, RadixConverter.FRACTION_PRECISION, 60, RadixConverter.SHORTEST}) {
+            for (double value : doubles(new Random(10 + precision), 400)) {
+                String[] outputs = RadixConverter.formatOutputs(value, bases, precision);
+                for (int b = 0; b < bases.length; b++) {
+                    assertEquals(RadixConverter.formatOutput(value, bases[b], precision), outputs[b], value + " in base " + bases[b] + ", precision " + precision);
+                }
+            }
+        }
+    }
+}
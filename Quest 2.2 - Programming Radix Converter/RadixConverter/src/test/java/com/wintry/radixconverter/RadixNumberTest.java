@@ -0,0 +1,169 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.radixconverter;
+
+/**
+ * RadixNumber arithmetic against BigDecimal: random operands from a few
+ * digits up to past KARATSUBA_THRESHOLD limbs, added, subtracted, multiplied
+ * and divided both ways, and written out in every kind of base.
+ *
+ * @author Wintry
+ */
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class RadixNumberTest {
+    private static final int[] PARSE_BASES = {2, 4, 8, 16, 32};
+    private static final int[] OUTPUT_BASES = {2, 3, 7, 10, 16, 36, 62};
+
+    // A random number in base, with up to digits digits on each side of the point.
+    private static String number(Random random, int base, int digits) {
+        StringBuilder sb = new StringBuilder();
+        if (random.nextBoolean()) sb.append('-');
+        int whole = random.nextInt(digits + 1), fraction = random.nextInt(digits + 1);
+        if (whole == 0) sb.append('0');
+        for (int i = 0; i < whole; i++) sb.append(RadixTables.DIGITS[random.nextInt(base)]);
+        if (fraction > 0) {
+            sb.append('.');
+            for (int i = 0; i < fraction; i++) sb.append(RadixTables.DIGITS[random.nextInt(base)]);
+        }
+        return sb.toString();
+    }
+
+    // The same text read exactly by BigInteger: every digit over base^fraction digits.
+    private static BigDecimal exact(String text, int base) {
+        int point = text.indexOf('.');
+        int fraction = point < 0 ? 0 : text.length() - point - 1;
+        BigInteger n = new BigInteger(text.replace(".", ""), base);
+        return new BigDecimal(n).divide(new BigDecimal(BigInteger.valueOf(base).pow(fraction)));
+    }
+
+    private static int digits(Random random) {
+        // Mostly single limbs, now and then past the Karatsuba threshold
+        return random.nextInt(10) == 0 ? 700 + random.nextInt(400) : 1 + random.nextInt(40);
+    }
+
+    private static void assertSameValue(BigDecimal expected, RadixNumber actual, String message) {
+        assertEquals(0, expected.compareTo(actual.toBigDecimal()), message + ": expected " + expected + " but was " + actual.toBigDecimal());
+    }
+
+    @Test
+    void parsingKeepsEveryDigit() {
+        Random random = new Random(24);
+        for (int i = 0; i < 2_000; i++) {
+            int base = PARSE_BASES[random.nextInt(PARSE_BASES.length)];
+            String text = number(random, base, digits(random));
+            assertSameValue(exact(text, base), RadixNumber.parse(text, base), text);
+        }
+    }
+
+    @Test
+    void addSubtractAndMultiplyAreExact() {
+        Random random = new Random(25);
+        for (int i = 0; i < 2_000; i++) {
+            int base = PARSE_BASES[random.nextInt(PARSE_BASES.length)];
+            String a = number(random, base, digits(random)), b = number(random, base, digits(random));
+            RadixNumber x = RadixNumber.parse(a, base), y = RadixNumber.parse(b, base);
+            BigDecimal p = exact(a, base), q = exact(b, base);
+            String operands = a + " and " + b + " in base " + base;
+
+            assertSameValue(p.add(q), x.add(y), "sum of " + operands);
+            assertSameValue(p.subtract(q), x.subtract(y), "difference of " + operands);
+            assertSameValue(p.multiply(q), x.multiply(y), "product of " + operands);
+            assertEquals(p.compareTo(q), x.compareTo(y), operands);
+        }
+    }
+
+    @Test
+    void divideCutsOffTowardZero() {
+        Random random = new Random(26);
+        for (int i = 0; i < 2_000; i++) {
+            int base = PARSE_BASES[random.nextInt(PARSE_BASES.length)];
+            String a = number(random, base, digits(random)), b = number(random, base, digits(random));
+            RadixNumber y = RadixNumber.parse(b, base);
+            if (y.signum() == 0) {
+                assertThrows(ArithmeticException.class, () -> RadixNumber.parse(a, base).divide(y, 8));
+                continue;
+            }
+            int bits = random.nextInt(200);
+            BigDecimal scale = new BigDecimal(BigInteger.ONE.shiftLeft(bits));
+            BigDecimal expected = exact(a, base).multiply(scale).divide(exact(b, base), 0, RoundingMode.DOWN).divide(scale);
+            assertSameValue(expected, RadixNumber.parse(a, base).divide(y, bits), a + " / " + b + " in base " + base + " to " + bits + " bits");
+        }
+    }
+
+    @Test
+    void divideToStringMatchesBigDecimal() {
+        Random random = new Random(27);
+        for (int i = 0; i < 2_000; i++) {
+            String a = number(random, 16, 1 + random.nextInt(30)), b = number(random, 16, 1 + random.nextInt(30));
+            RadixNumber y = RadixNumber.parse(b, 16);
+            if (y.signum() == 0) continue;
+            int base = OUTPUT_BASES[random.nextInt(OUTPUT_BASES.length)];
+            int precision = random.nextInt(40);
+            assertEquals(format(exact(a, 16), exact(b, 16), base, precision), RadixNumber.parse(a, 16).divideToString(y, base, precision),
+                    a + " / " + b + " in base " + base + " to " + precision + " digits");
+        }
+    }
+
+    @Test
+    void toStringMatchesBigDecimal() {
+        Random random = new Random(28);
+        for (int i = 0; i < 2_000; i++) {
+            String text = number(random, 16, digits(random));
+            RadixNumber x = RadixNumber.parse(text, 16);
+            for (int base : OUTPUT_BASES) {
+                int precision = 1 + random.nextInt(60);
+                assertEquals(format(exact(text, 16), base, precision), x.toString(base, precision), text + " in base " + base);
+            }
+            assertEquals(x, RadixNumber.parse(x.toString(), 16), text);
+        }
+    }
+
+    @Test
+    void equalValuesAreEqualObjects() {
+        // 2^64 + 16 over 2^4: dropping the trailing zero leaves nothing in the top limb
+        RadixNumber x = RadixNumber.parse("1000000000000001.0", 16), y = RadixNumber.parse("1000000000000001", 16);
+        assertEquals(y, x);
+        assertEquals(y.hashCode(), x.hashCode());
+        assertEquals(y, RadixNumber.parse("2000000000000002", 16).divide(RadixNumber.valueOf(2), 0));
+    }
+
+    @Test
+    void knownValues() {
+        assertEquals("1.C", RadixNumber.parse("1.1", 2).add(RadixNumber.parse("0.01", 2)).toString());
+        assertEquals("0.1", RadixNumber.parse("1", 16).divideToString(RadixNumber.parse("A", 16), 10, 1));
+        assertEquals("0.3333", RadixNumber.parse("1", 2).divideToString(RadixNumber.parse("11", 2), 10, 4));
+        assertEquals("-FF.8", RadixNumber.parse("-FF.8", 16).toString());
+        assertEquals("0.00", RadixNumber.parse("-0.01", 16).toString(10, 2));
+        assertThrows(IllegalArgumentException.class, () -> RadixNumber.parse("0.1", 2).toString(3, RadixConverter.SHORTEST));
+        assertThrows(IllegalArgumentException.class, () -> RadixNumber.parse("12", 10));
+    }
+
+    private static String format(BigDecimal value, int base, int precision) {
+        return format(value, BigDecimal.ONE, base, precision);
+    }
+
+    // p / q cut off to precision digits in base, in RadixTables digits, with a sign unless every digit is 0.
+    // The scaling comes before the division, so a quotient that ends in base is not cut short.
+    private static String format(BigDecimal p, BigDecimal q, int base, int precision) {
+        BigInteger scaled = p.abs().multiply(new BigDecimal(BigInteger.valueOf(base).pow(precision)))
+                .divide(q.abs(), 0, RoundingMode.DOWN).toBigInteger();
+        StringBuilder digits = new StringBuilder();
+        BigInteger b = BigInteger.valueOf(base);
+        for (BigInteger n = scaled; n.signum() > 0; n = n.divide(b)) digits.append(RadixTables.DIGITS[n.mod(b).intValue()]);
+        while (digits.length() <= precision) digits.append('0');
+        digits.reverse();
+        if (precision > 0) digits.insert(digits.length() - precision, '.');
+        if (p.signum() * q.signum() < 0 && scaled.signum() != 0) digits.insert(0, '-');
+        return digits.toString();
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.radixconverter;
+
+/**
+ * The per-base tables for every supported base, 2 to 36 and 62: digit
+ * lookup in both directions, the case rules, the power and chunk tables,
+ * and chunked output against BigInteger.toString.
+ *
+ * @author Wintry
+ */
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class RadixTablesTest {
+    private static int[] bases() {
+        int[] bases = new int[36];
+        for (int base = 2; base <= 36; base++) bases[base - 2] = base;
+        bases[35] = 62;
+        return bases;
+    }
+
+    // value in base with the RadixTables alphabet, which BigInteger only shares up to base 36 and in upper case.
+    private static String digits(long value, int base) {
+        if (value == 0) return "0";
+        StringBuilder sb = new StringBuilder();
+        BigInteger b = BigInteger.valueOf(base);
+        for (BigInteger n = BigInteger.valueOf(value); n.signum() > 0; n = n.divide(b)) sb.append(RadixTables.DIGITS[n.mod(b).intValue()]);
+        return sb.reverse().toString();
+    }
+
+    @Test
+    void onlyTheListedBasesAreSupported() {
+        for (int base = -1; base <= 70; base++) {
+            assertEquals(base >= 2 && base <= 36 || base == 62, RadixTables.isSupported(base), "base " + base);
+        }
+    }
+
+    @Test
+    void digitsReadBackAsTheirValue() {
+        for (int base : bases()) {
+            for (int c = 0; c < 256; c++) {
+                int expected = -1;
+                int index = new String(RadixTables.DIGITS).indexOf(c);
+                if (index >= 0 && index < base) expected = index;
+                // Up to base 36 a lower case letter is the same digit as its upper case one
+                if (base <= 36 && c >= 'a' && c <= 'z' && c - 'a' + 10 < base) expected = c - 'a' + 10;
+                assertEquals(expected, RadixTables.value(c, base), "char " + c + " in base " + base);
+            }
+            assertEquals(-1, RadixTables.value('π', base));
+        }
+        assertEquals(10, RadixTables.value('A', 62));
+        assertEquals(36, RadixTables.value('a', 62));
+        assertEquals(35, RadixTables.value('z', 36));
+    }
+
+    @Test
+    void powerAndChunkTablesMatchTheirDefinition() {
+        for (int base : bases()) {
+            long[] powers = RadixTables.powers(base);
+            BigInteger b = BigInteger.valueOf(base);
+            for (int n = 0; n < powers.length; n++) assertEquals(b.pow(n), BigInteger.valueOf(powers[n]), base + "^" + n);
+            // The next power would not fit in a long
+            assertTrue(b.pow(powers.length).bitLength() > 63, "base " + base);
+            assertEquals(powers.length - 1, RadixTables.longChunkDigits(base));
+
+            long chunk = RadixTables.chunk(base);
+            assertEquals(powers[RadixTables.chunkDigits(base)], chunk);
+            assertTrue(chunk < Integer.MAX_VALUE && chunk * base >= Integer.MAX_VALUE, "chunk of base " + base);
+        }
+        assertEquals(1_000_000_000, RadixTables.chunk(10));
+        assertEquals(18, RadixTables.longChunkDigits(10));
+        assertEquals(12, RadixTables.longChunkDigits(36));
+    }
+
+    @Test
+    void chunkedOutputMatchesBigInteger() {
+        Random random = new Random(25);
+        for (int base : bases()) {
+            for (int i = 0; i < 2_000; i++) {
+                long value = switch (i % 4) {
+                    case 0 -> random.nextLong() & Long.MAX_VALUE;
+                    case 1 -> random.nextInt(Integer.MAX_VALUE);
+                    case 2 -> RadixTables.powers(base)[random.nextInt(RadixTables.powers(base).length)] - random.nextInt(2);
+                    default -> random.nextInt(1000);
+                };
+                String expected = digits(value, base);
+                int count = RadixTables.digitCount(value, base);
+                assertEquals(expected.length(), count, value + " in base " + base);
+
+                char[] chars = new char[count + 5];
+                RadixTables.write(value, base, count + 5, chars, chars.length);
+                assertEquals("00000" + expected, new String(chars), value + " in base " + base);
+
+                byte[] bytes = new byte[count];
+                RadixTables.write(value, base, count, bytes, count);
+                assertEquals(expected, new String(bytes, StandardCharsets.US_ASCII), value + " in base " + base);
+            }
+        }
+    }
+
+    @Test
+    void everyBaseConvertsBothWays() {
+        Random random = new Random(26);
+        for (int base : bases()) {
+            for (int i = 0; i < 200; i++) {
+                long value = random.nextLong() >>> 12; // exact as a double
+                String text = RadixConverter.fromDecimal(value, base, 0);
+                assertEquals(digits(value, base), text, value + " in base " + base);
+                assertEquals((double) value, RadixConverter.toDecimal(text, base), text + " in base " + base);
+                if (base <= 36) assertEquals((double) value, RadixConverter.toDecimal(text.toLowerCase(), base), text + " in base " + base);
+            }
+        }
+        assertEquals("z", RadixConverter.fromDecimal(61, 62, 0));
+        assertEquals(36, RadixConverter.toDecimal("a", 62));
+        assertFalse(RadixConverter.isSupportedBase(37));
+        NumberFormatException e = assertThrows(NumberFormatException.class, () -> RadixConverter.toDecimal("1g", 16));
+        assertEquals("Invalid digit 'G' for base 16", e.getMessage());
+        e = assertThrows(NumberFormatException.class, () -> RadixConverter.toDecimal("z", 35));
+        assertEquals("Invalid digit 'Z' for base 35", e.getMessage());
+    }
+}
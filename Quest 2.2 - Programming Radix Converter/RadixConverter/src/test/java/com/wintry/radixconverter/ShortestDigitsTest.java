@@ -0,0 +1,99 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.wintry.radixconverter;
+
+/**
+ * Shortest round-trip output: every double written with SHORTEST reads back
+ * through toDecimal as exactly the same double, in every kind of base, and
+ * in base 10 it is never longer than Double.toString.
+ *
+ * @author Wintry
+ */
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ShortestDigitsTest {
+    private static final int[] BASES = {2, 3, 7, 8, 10, 12, 16, 36, 62};
+
+    private static String shortest(double value, int base) {
+        return RadixConverter.fromDecimal(value, base, RadixConverter.SHORTEST);
+    }
+
+    // toDecimal reads unsigned digits; the sign is the expression parser's job.
+    private static void assertRoundTrip(double value, int base) {
+        String digits = shortest(value, base);
+        boolean negative = digits.startsWith("-");
+        double magnitude = RadixConverter.toDecimal(negative ? digits.substring(1) : digits, base);
+        assertEquals(value, negative ? -magnitude : magnitude, digits + " in base " + base);
+    }
+
+    @Test
+    void randomDoublesReadBackExactly() {
+        Random random = new Random(18);
+        for (int i = 0; i < 5_000; i++) {
+            // Every bit pattern that is a finite double: subnormals, huge values, both signs
+            double value = Double.longBitsToDouble(random.nextLong());
+            if (!Double.isFinite(value) || value == 0) continue;
+            for (int base : BASES) assertRoundTrip(value, base);
+        }
+    }
+
+    @Test
+    void everyDayValuesReadBackExactly() {
+        Random random = new Random(19);
+        for (int i = 0; i < 5_000; i++) {
+            // Magnitudes around 1, where the long path does the work
+            double value = (random.nextDouble() - 0.5) * Math.pow(2, random.nextInt(80) - 20);
+            for (int base : BASES) assertRoundTrip(value, base);
+        }
+    }
+
+    @Test
+    void edgeValuesReadBackExactly() {
+        double[] values = {
+            Double.MIN_VALUE, Double.MIN_NORMAL, Math.nextDown(Double.MIN_NORMAL), Double.MAX_VALUE,
+            1, 0.5, 0.1, 0.3, 1.0 / 3, 2.0 / 3, Math.PI, Math.E, 1e23, 5e-324, 9007199254740993.0, Math.ulp(1.0)
+        };
+        for (double value : values) {
+            for (int base : BASES) {
+                assertRoundTrip(value, base);
+                assertRoundTrip(-value, base);
+            }
+        }
+    }
+
+    @Test
+    void shortValuesStayShort() {
+        assertEquals("0.1", shortest(0.1, 10));
+        assertEquals("0.3", shortest(0.3, 10));
+        assertEquals("-2.5", shortest(-2.5, 10));
+        assertEquals("100000000000000000000000", shortest(1e23, 10));
+        assertEquals("0.1", shortest(0.5, 2));
+        assertEquals("0.1", shortest(1.0 / 3, 3));
+        assertEquals("0.2", shortest(2.0 / 3, 3));
+        assertEquals("0.1", shortest(1.0 / 36, 36));
+        assertEquals("Z", shortest(35, 36));
+        assertEquals("z", shortest(61, 62));
+        assertEquals("0", shortest(0, 7));
+    }
+
+    @Test
+    void decimalOutputIsNoLongerThanDoubleToString() {
+        Random random = new Random(20);
+        for (int i = 0; i < 5_000; i++) {
+            double value = Double.longBitsToDouble(random.nextLong());
+            if (!Double.isFinite(value) || value == 0) continue;
+            BigDecimal ours = new BigDecimal(shortest(value, 10));
+            BigDecimal jdk = new BigDecimal(Double.toString(value));
+            assertTrue(ours.stripTrailingZeros().precision() <= jdk.stripTrailingZeros().precision(),
+                    value + ": " + ours + " against " + jdk);
+            assertEquals(value, ours.doubleValue(), ours.toString());
+        }
+    }
+}
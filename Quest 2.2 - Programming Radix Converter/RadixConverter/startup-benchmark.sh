@@ -0,0 +1,79 @@
+#!/usr/bin/env bash
+#
+# Cold-start timing of one-shot conversions, with and without the AppCDS archive.
+#
+#   mvn -Pappcds package
+#   ./startup-benchmark.sh [runs]
+#
+# Every run is a fresh JVM, timed from launch to exit. Prints min, median and
+# mean wall-clock milliseconds per case and exits with 1 when the median of
+# "RadixConverter 16 FF" with the archive is not under BUDGET_MS (default 50).
+#
+# JAVA picks the launcher (default: java on the PATH); it has to be the JDK
+# that produced the archive, or the archive is silently ignored. Figures from
+# any JDK older than the pom's maven.compiler.release do not describe this
+# build, so the script refuses to run on one.
+
+set -euo pipefail
+cd "$(dirname "$0")"
+
+RUNS=${1:-20}
+JAVA=${JAVA:-java}
+BUDGET_MS=${BUDGET_MS:-50}
+JAR=target/RadixConverter-1.0-SNAPSHOT.jar
+ARCHIVE=target/RadixConverter.jsa
+MAIN=com.wintry.radixconverter.RadixConverter
+# A one-shot run ends long before C2 or a parallel GC pays off
+FLAGS=(-XX:TieredStopAtLevel=1 -XX:+UseSerialGC)
+
+if [[ ! -f $JAR ]]; then
+    echo ">> $JAR not found. Build it first with: mvn -Pappcds package" >&2
+    exit 2
+fi
+
+RELEASE=$(sed -n 's:.*<maven.compiler.release>\(.*\)</maven.compiler.release>.*:\1:p' pom.xml)
+FEATURE=$("$JAVA" -XshowSettings:properties -version 2>&1 | sed -n 's/^ *java.specification.version = //p')
+if ((FEATURE < RELEASE)); then
+    echo ">> $JAVA is JDK $FEATURE; the build targets release $RELEASE. Set JAVA to a JDK $RELEASE or newer." >&2
+    exit 2
+fi
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# measure <label> <command...>: runs the command RUNS times and prints min / median / mean
+measure() {
+    local label=$1
+    shift
+    "$@" > /dev/null 2>&1 || { echo ">> $label: command failed: $*" >&2; exit 3; }   # warm the page cache
+    local times=()
+    for ((i = 0; i < RUNS; i++)); do
+        local start
+        start=$(now_ms)
+        "$@" > /dev/null 2>&1
+        times+=($(( $(now_ms) - start )))
+    done
+    local sorted total=0
+    sorted=($(printf '%s\n' "${times[@]}" | sort -n))
+    for t in "${times[@]}"; do total=$((total + t)); done
+    MEDIAN=${sorted[$((RUNS / 2))]}
+    printf '%-34s min %4d ms   median %4d ms   mean %4d ms\n' "$label" "${sorted[0]}" "$MEDIAN" $((total / RUNS))
+}
+
+echo "$RUNS cold runs each, $("$JAVA" -version 2>&1 | head -n 1)"
+measure "16 FF, no CDS" "$JAVA" -Xshare:off "${FLAGS[@]}" -cp "$JAR" $MAIN 16 FF
+measure "16 FF, JDK CDS" "$JAVA" "${FLAGS[@]}" -cp "$JAR" $MAIN 16 FF
+
+if [[ ! -f $ARCHIVE ]]; then
+    echo ">> $ARCHIVE not found; build with mvn -Pappcds package to measure the archive." >&2
+    exit 2
+fi
+measure "10 1+2*3, AppCDS" "$JAVA" -XX:SharedArchiveFile="$ARCHIVE" "${FLAGS[@]}" -cp "$JAR" $MAIN 10 '1+2*3'
+measure "16 FF, AppCDS" "$JAVA" -XX:SharedArchiveFile="$ARCHIVE" "${FLAGS[@]}" -cp "$JAR" $MAIN 16 FF
+
+if ((MEDIAN >= BUDGET_MS)); then
+    echo ">> Median ${MEDIAN} ms is over the ${BUDGET_MS} ms budget."
+    exit 1
+fi
+echo ">> Median ${MEDIAN} ms is within the ${BUDGET_MS} ms budget."